@@ -3,6 +3,7 @@ package me.braydon.example;
 import me.braydon.database.impl.mysql.MySQLDatabase;
 import me.braydon.database.impl.mysql.MySQLProperties;
 import me.braydon.database.impl.mysql.MySQLRepository;
+import me.braydon.database.impl.mysql.SchemaManager;
 import me.braydon.database.impl.mysql.data.Column;
 import me.braydon.database.impl.mysql.data.Table;
 import me.braydon.database.impl.mysql.data.impl.BooleanColumn;
@@ -37,12 +38,14 @@ public class MySQLExample {
                 new BooleanColumn("deceased", false)
         }, new String[] { "firstName" });
 
-        // Fetching a MySQL repository and inserting the table we created
+        // Creating the table we defined above, or adding any columns and indexes it's missing if it already exists
+        new SchemaManager(database, table).apply();
+
+        // Fetching a MySQL repository
         // NOTE: Fetching a dummy repository for a database will return a
         //       new instance each time. It's best to keep a reference to
         //       the repository so it can be re-used in the future
         MySQLRepository repository = database.getDummyRepository();
-        repository.executeQuery(table.getCreateQuery(true));
 
         // Inserting a person named "John Doe" into the table we created above
         // (this will not insert the person if it already exists)
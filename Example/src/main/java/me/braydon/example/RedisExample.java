@@ -36,7 +36,7 @@ public class RedisExample {
 
         // Getting a master Redis pool and setting the key "test" to a map with the key "test" and "hi" as the value
         try (Jedis jedis = database.getPool(RedisPoolType.MASTER).getResource()) {
-            jedis.hmset("test", new HashMap<>() {{
+            jedis.hmset("test", new HashMap<String, String>() {{
                 put("test", "hi");
             }});
         }
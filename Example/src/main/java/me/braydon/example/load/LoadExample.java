@@ -0,0 +1,166 @@
+package me.braydon.example.load;
+
+import me.braydon.database.impl.mysql.MySQLDatabase;
+import me.braydon.database.impl.mysql.MySQLRepository;
+import me.braydon.database.impl.mysql.data.Column;
+import me.braydon.database.impl.mysql.data.Table;
+import me.braydon.database.impl.mysql.data.impl.IntegerColumn;
+import me.braydon.database.impl.mysql.data.impl.LongColumn;
+import me.braydon.database.impl.mysql.data.impl.VarcharColumn;
+import me.braydon.database.impl.mysql.query.Parameters;
+import me.braydon.database.impl.mysql.query.PreparedQuery;
+import me.braydon.database.impl.redis.RedisDatabase;
+import me.braydon.database.impl.redis.RedisRepository;
+import me.braydon.standins.RespServer;
+import me.braydon.standins.StandIns;
+import redis.clients.jedis.Jedis;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Runs a {@link LoadGenerator} against {@link MySQLRepository} or {@link RedisRepository}, using the stand-in
+ * servers of the stand-ins module so no servers are needed. Options are passed as "--name value":
+ * <pre>
+ * --target    mysql or redis (default mysql)
+ * --rate      operations to start per second in an open loop, 0 for a closed loop (default 0)
+ * --threads   threads to execute operations on (default 8)
+ * --writes    portion of operations that are writes, between 0 and 1 (default 0.2)
+ * --warmup    seconds to run before measuring (default 5)
+ * --duration  seconds to measure for (default 30)
+ * --keys      amount of distinct rows or keys (default 10000)
+ * </pre>
+ *
+ * @author Braydon
+ */
+public class LoadExample {
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String target = options.getOrDefault("target", "mysql");
+        int threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        int keys = Integer.parseInt(options.getOrDefault("keys", "10000"));
+
+        LoadReport report;
+        switch (target) {
+            case "mysql": {
+                MySQLDatabase database = StandIns.mysql("load", threads);
+                try {
+                    report = configure(new LoadGenerator(mysqlWorkload(database, keys)), options).run();
+                } finally {
+                    database.cleanup();
+                }
+                break;
+            }
+            case "redis": {
+                try (RespServer server = new RespServer()) {
+                    RedisDatabase database = StandIns.redis(server, 2);
+                    try {
+                        report = configure(new LoadGenerator(redisWorkload(database, keys)), options).run();
+                    } finally {
+                        database.cleanup();
+                    }
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown target \"" + target + "\", expected mysql or redis");
+        }
+        // Printing the throughput and latency percentiles, the response times include the time operations
+        // spent waiting to start behind slower ones, which is what the callers of the database would see
+        System.out.println("Target: " + target);
+        report.print(System.out);
+        System.exit(0);
+    }
+
+    /**
+     * Create a workload that selects and updates random rows of a table by their primary key
+     */
+    private static Workload mysqlWorkload(MySQLDatabase database, int keys) {
+        MySQLRepository repository = database.getDummyRepository();
+        Table table = new Table("load", new Column<?>[] {
+                new IntegerColumn("id", false),
+                new VarcharColumn("name", 64, false),
+                new LongColumn("score", false)
+        }, new String[] { "id" });
+        repository.executeQuery(table.getCreateQuery(true));
+        List<Column<?>[]> rows = new ArrayList<>(keys);
+        for (int id = 0; id < keys; id++) {
+            rows.add(new Column<?>[] {
+                    new IntegerColumn("id", id),
+                    new VarcharColumn("name", "player" + id),
+                    new LongColumn("score", 0L)
+            });
+        }
+        repository.executeBatch("INSERT INTO `load` (`id`, `name`, `score`) VALUES (?, ?, ?)", rows);
+
+        PreparedQuery select = PreparedQuery.compile("SELECT `name`, `score` FROM `load` WHERE `id` = ?", Types.INTEGER);
+        PreparedQuery update = PreparedQuery.compile("UPDATE `load` SET `score` = ? WHERE `id` = ?", Types.BIGINT, Types.INTEGER);
+        Consumer<SQLException> ignoreException = ex -> {};
+        return new Workload() {
+            @Override
+            public boolean read(ThreadLocalRandom random) {
+                Boolean found = repository.executeQuery(select, Parameters.local().addInt(random.nextInt(keys)), resultSet -> resultSet.next(),
+                        ignoreException);
+                return found != null;
+            }
+
+            @Override
+            public boolean write(ThreadLocalRandom random) {
+                return repository.executeInsert(update, Parameters.local().addLong(random.nextLong()).addInt(random.nextInt(keys)),
+                        ignoreException) >= 0;
+            }
+        };
+    }
+
+    /**
+     * Create a workload that gets keys from the slave pools and sets them on the master pool
+     */
+    private static Workload redisWorkload(RedisDatabase database, int keys) {
+        RedisRepository repository = database.getDummyRepository();
+        try (Jedis jedis = repository.getPool(true).getResource()) {
+            for (int key = 0; key < keys; key++)
+                jedis.set("load:" + key, "0");
+        }
+        return new Workload() {
+            @Override
+            public boolean read(ThreadLocalRandom random) {
+                try (Jedis jedis = repository.getPool(false).getResource()) {
+                    return jedis.get("load:" + random.nextInt(keys)) != null;
+                }
+            }
+
+            @Override
+            public boolean write(ThreadLocalRandom random) {
+                try (Jedis jedis = repository.getPool(true).getResource()) {
+                    return "OK".equals(jedis.set("load:" + random.nextInt(keys), Long.toString(random.nextLong())));
+                }
+            }
+        };
+    }
+
+    private static LoadGenerator configure(LoadGenerator generator, Map<String, String> options) {
+        // A rate above 0 starts operations at that rate (an open loop) whether or not
+        // the earlier ones completed, otherwise each thread runs operations back to back
+        return generator.withThreads(Integer.parseInt(options.getOrDefault("threads", "8")))
+                .withRate(Double.parseDouble(options.getOrDefault("rate", "0")))
+                .withWriteRatio(Double.parseDouble(options.getOrDefault("writes", "0.2")))
+                .withDuration((long) (Double.parseDouble(options.getOrDefault("warmup", "5")) * 1000D),
+                        (long) (Double.parseDouble(options.getOrDefault("duration", "30")) * 1000D));
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || (i + 1 >= args.length))
+                throw new IllegalArgumentException("Expected \"--name value\" but got \"" + args[i] + "\"");
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,214 @@
+package me.braydon.example.load;
+
+import lombok.Getter;
+import lombok.NonNull;
+import me.braydon.database.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class drives a {@link Workload} with a mix of reads and writes, and reports the throughput and latency.
+ * <p>
+ * In a closed loop, each thread starts its next operation as soon as the last one completes. In an open loop,
+ * operations are started at a fixed rate whether or not earlier ones have completed, like requests arriving
+ * from users, with the schedule split evenly between the threads.
+ * <p>
+ * Measuring latency from when an operation actually started hides the operations that should have started
+ * while the load generator was stuck waiting on a slow one (coordinated omission). So the response time
+ * is also reported corrected for this: in an open loop it's measured from when the operation was scheduled
+ * to start, and in a closed loop an operation slower than the expected interval between operations also
+ * records the latencies the operations queued behind it would have seen. The expected interval is the mean
+ * service time during the warm up.
+ *
+ * @author Braydon
+ */
+@Getter
+public class LoadGenerator {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1L);
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(100L);
+
+    private final Workload workload;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The operations to start per second, 0 for a closed loop
+     */
+    private double rate;
+    private double writeRatio = 0.2D;
+    private long warmUp = 5000L;
+    private long duration = 30000L;
+
+    /**
+     * @param workload the {@link Workload} to drive
+     */
+    public LoadGenerator(@NonNull Workload workload) {
+        this.workload = workload;
+    }
+
+    /**
+     * Set the amount of threads operations are executed on
+     *
+     * @param threads the amount of threads
+     * @return the load generator
+     */
+    public LoadGenerator withThreads(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("There must be at least 1 thread");
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Start operations at a fixed rate in an open loop, rather than as fast as the threads can in a closed loop
+     *
+     * @param rate the operations to start per second, 0 for a closed loop
+     * @return the load generator
+     */
+    public LoadGenerator withRate(double rate) {
+        if (rate < 0D)
+            throw new IllegalArgumentException("Rate cannot be negative");
+        this.rate = rate;
+        return this;
+    }
+
+    /**
+     * Set the portion of operations that are writes
+     *
+     * @param writeRatio the portion of writes, between 0 and 1
+     * @return the load generator
+     */
+    public LoadGenerator withWriteRatio(double writeRatio) {
+        if (writeRatio < 0D || (writeRatio > 1D))
+            throw new IllegalArgumentException("Write ratio must be between 0 and 1");
+        this.writeRatio = writeRatio;
+        return this;
+    }
+
+    /**
+     * Set how long to run for
+     *
+     * @param warmUp the time, in milliseconds, to run before measuring
+     * @param duration the time, in milliseconds, to measure for
+     * @return the load generator
+     */
+    public LoadGenerator withDuration(long warmUp, long duration) {
+        if (warmUp < 0L || (duration < 1L))
+            throw new IllegalArgumentException("Warm up cannot be negative and duration must be at least 1ms");
+        this.warmUp = warmUp;
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * Check whether operations are started at a fixed rate
+     *
+     * @return whether this is an open loop
+     */
+    public boolean isOpenLoop() {
+        return rate > 0D;
+    }
+
+    /**
+     * Warm up, then run the workload and report the results
+     *
+     * @return the report of the measured run
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public LoadReport run() throws InterruptedException {
+        long expectedInterval = 0L;
+        if (warmUp > 0L)
+            expectedInterval = (long) runPhase(warmUp, 0L).serviceTime.getMean();
+        Phase phase = runPhase(duration, expectedInterval);
+        return new LoadReport(isOpenLoop(), threads, rate, writeRatio, phase.elapsed, phase.reads.sum(), phase.writes.sum(),
+                phase.errors.sum(), phase.serviceTime, phase.responseTime);
+    }
+
+    /**
+     * Run the workload on every thread for the given time
+     */
+    private Phase runPhase(long millis, long expectedInterval) throws InterruptedException {
+        Phase phase = new Phase();
+        // Give the threads time to start, so the first scheduled operations aren't already late
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10L);
+        long end = start + TimeUnit.MILLISECONDS.toNanos(millis);
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            Thread thread = new Thread(() -> work(phase, index, start, end, expectedInterval), "Load Generator - " + (i + 1));
+            thread.setDaemon(true);
+            workers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : workers)
+            thread.join();
+        phase.elapsed = System.nanoTime() - start;
+        return phase;
+    }
+
+    private void work(@NonNull Phase phase, int index, long start, long end, long expectedInterval) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Each thread takes every n-th slot of the schedule, so together they start operations at the rate
+        double interval = isOpenLoop() ? NANOS_PER_SECOND / rate : 0D;
+        long slot = index;
+        while (true) {
+            long intended;
+            if (isOpenLoop()) {
+                intended = start + (long) (slot * interval);
+                slot += threads;
+                if (intended >= end)
+                    break;
+                // Parking can overshoot, so only park until shortly before the operation and spin the rest
+                long wait;
+                while ((wait = intended - System.nanoTime()) > SPIN_NANOS)
+                    LockSupport.parkNanos(wait - SPIN_NANOS);
+                while (System.nanoTime() < intended)
+                    Thread.yield();
+            } else if ((intended = System.nanoTime()) >= end)
+                break;
+
+            boolean write = random.nextDouble() < writeRatio;
+            long started = System.nanoTime();
+            boolean success;
+            try {
+                success = write ? workload.write(random) : workload.read(random);
+            } catch (Exception ex) {
+                success = false;
+            }
+            long finished = System.nanoTime();
+            long serviceTime = finished - started;
+            phase.serviceTime.record(serviceTime);
+            if (isOpenLoop())
+                phase.responseTime.record(finished - intended);
+            else recordCorrected(phase.responseTime, serviceTime, expectedInterval);
+            (write ? phase.writes : phase.reads).increment();
+            if (!success)
+                phase.errors.increment();
+        }
+    }
+
+    /**
+     * Record the given latency, along with the latencies of the operations that would have been
+     * started every expected interval while waiting for it, and so waited behind it
+     */
+    private static void recordCorrected(@NonNull LatencyHistogram histogram, long latency, long expectedInterval) {
+        histogram.record(latency);
+        if (expectedInterval <= 0L)
+            return;
+        for (long missed = latency - expectedInterval; missed >= expectedInterval; missed -= expectedInterval)
+            histogram.record(missed);
+    }
+
+    private static class Phase {
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+        private final LatencyHistogram responseTime = new LatencyHistogram();
+        private final LongAdder reads = new LongAdder();
+        private final LongAdder writes = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private long elapsed;
+    }
+}
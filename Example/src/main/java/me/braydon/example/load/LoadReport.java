@@ -0,0 +1,76 @@
+package me.braydon.example.load;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import me.braydon.database.metrics.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class represents the results of a {@link LoadGenerator} run
+ *
+ * @author Braydon
+ */
+@AllArgsConstructor @Getter
+public class LoadReport {
+    private static final double[] PERCENTILES = { 50D, 90D, 99D, 99.9D, 99.99D };
+
+    private final boolean openLoop;
+    private final int threads;
+
+    /**
+     * The operations started per second in an open loop, 0 for a closed loop
+     */
+    private final double rate;
+    private final double writeRatio;
+
+    /**
+     * The time, in nanoseconds, the run took
+     */
+    private final long elapsed;
+    private final long reads, writes, errors;
+
+    /**
+     * The time each operation took from when it actually started
+     */
+    private final LatencyHistogram serviceTime;
+
+    /**
+     * The time each operation took from when it should have started, corrected for coordinated omission
+     */
+    private final LatencyHistogram responseTime;
+
+    /**
+     * Get the completed operations per second
+     *
+     * @return the throughput
+     */
+    public double getThroughput() {
+        return elapsed == 0L ? 0D : (reads + writes) / (elapsed / (double) TimeUnit.SECONDS.toNanos(1L));
+    }
+
+    /**
+     * Print the report to the given stream
+     *
+     * @param out the stream to print to
+     */
+    public void print(@NonNull PrintStream out) {
+        out.printf("Mode: %s, %d threads, %.0f%% writes%n", openLoop ? String.format("open loop at %.0f ops/s", rate) : "closed loop",
+                threads, writeRatio * 100D);
+        out.printf("Operations: %d reads, %d writes, %d errors in %.1fs%n", reads, writes, errors, elapsed / 1_000_000_000D);
+        out.printf("Throughput: %.0f ops/s%n", getThroughput());
+        out.printf("%-10s %16s %16s%n", "Latency", "Service (us)", "Response (us)");
+        for (double percentile : PERCENTILES) {
+            out.printf("%-10s %16.1f %16.1f%n", "p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    micros(serviceTime.getPercentile(percentile)), micros(responseTime.getPercentile(percentile)));
+        }
+        out.printf("%-10s %16.1f %16.1f%n", "max", micros(serviceTime.getMax()), micros(responseTime.getMax()));
+        out.printf("%-10s %16.1f %16.1f%n", "mean", serviceTime.getMean() / 1000D, responseTime.getMean() / 1000D);
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1000D;
+    }
+}
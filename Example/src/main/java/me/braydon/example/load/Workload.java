@@ -0,0 +1,28 @@
+package me.braydon.example.load;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This class represents the operations a {@link LoadGenerator} drives
+ *
+ * @author Braydon
+ */
+public interface Workload {
+    /**
+     * Execute a read operation
+     *
+     * @param random the random of the calling thread
+     * @return whether the operation succeeded
+     * @throws Exception if the operation failed
+     */
+    boolean read(ThreadLocalRandom random) throws Exception;
+
+    /**
+     * Execute a write operation
+     *
+     * @param random the random of the calling thread
+     * @return whether the operation succeeded
+     * @throws Exception if the operation failed
+     */
+    boolean write(ThreadLocalRandom random) throws Exception;
+}
@@ -0,0 +1,26 @@
+package me.braydon.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so the allocation rate of each benchmark is reported.
+ * The arguments are the same as the JMH command line, e.g. a regex to only run matching benchmarks:
+ * <pre>{@code
+ * java -jar benchmarks/target/benchmarks.jar MySQLRepositoryBenchmark
+ * }</pre>
+ *
+ * @author Braydon
+ */
+public class Benchmarks {
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
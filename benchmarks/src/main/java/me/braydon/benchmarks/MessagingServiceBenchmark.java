@@ -0,0 +1,51 @@
+package me.braydon.benchmarks;
+
+import me.braydon.database.impl.redis.RedisDatabase;
+import me.braydon.standins.RespServer;
+import me.braydon.standins.StandIns;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Benchmarks the throughput of {@link RedisDatabase.MessagingService#dispatch(String, String)}.
+ * <p>
+ * Dispatching only queues the message, so each invocation dispatches a batch of messages and waits
+ * until the server has received all of them, measuring how fast messages actually get published.
+ *
+ * @author Braydon
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1) @Warmup(iterations = 3, time = 2) @Measurement(iterations = 5, time = 2)
+public class MessagingServiceBenchmark {
+    private static final int BATCH = 1000;
+    private static final String MESSAGE = "{\"type\":\"benchmark\",\"payload\":\"hello\"}";
+
+    private RespServer server;
+    private RedisDatabase database;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = new RespServer();
+        database = StandIns.redis(server, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws IOException {
+        database.cleanup();
+        server.close();
+    }
+
+    @Benchmark @Threads(1) @OperationsPerInvocation(BATCH)
+    public void dispatch() {
+        RedisDatabase.MessagingService messagingService = database.getMessagingService();
+        long target = server.getCount("PUBLISH") + BATCH;
+        for (int i = 0; i < BATCH; i++)
+            messagingService.dispatch("benchmark", MESSAGE);
+        while (server.getCount("PUBLISH") < target)
+            LockSupport.parkNanos(10_000L);
+    }
+}
@@ -0,0 +1,117 @@
+package me.braydon.benchmarks;
+
+import me.braydon.database.impl.mysql.MySQLDatabase;
+import me.braydon.database.impl.mysql.MySQLRepository;
+import me.braydon.database.impl.mysql.data.Column;
+import me.braydon.database.impl.mysql.data.Table;
+import me.braydon.database.impl.mysql.data.impl.IntegerColumn;
+import me.braydon.database.impl.mysql.data.impl.LongColumn;
+import me.braydon.database.impl.mysql.data.impl.VarcharColumn;
+import me.braydon.database.impl.mysql.query.Parameters;
+import me.braydon.database.impl.mysql.query.PreparedQuery;
+import me.braydon.standins.StandIns;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks binding and validating the parameters of {@link MySQLRepository} queries, comparing a
+ * {@link Column} array allocated for each query with a reused {@link Parameters} buffer
+ *
+ * @author Braydon
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1) @Warmup(iterations = 3, time = 2) @Measurement(iterations = 5, time = 2)
+public class MySQLRepositoryBenchmark {
+    private static final int ROWS = 1000;
+    private static final PreparedQuery UPDATE = PreparedQuery.compile("UPDATE `bench` SET `name` = ?, `score` = ? WHERE `id` = ?",
+            Types.VARCHAR, Types.BIGINT, Types.INTEGER);
+    private static final PreparedQuery SELECT = PreparedQuery.compile("SELECT `score` FROM `bench` WHERE `id` = ?", Types.INTEGER);
+
+    private MySQLDatabase database;
+    private MySQLRepository repository;
+    private Column<?>[] columns;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = StandIns.mysql("repository", 4);
+        repository = database.getDummyRepository();
+        Table table = new Table("bench", new Column<?>[] {
+                new IntegerColumn("id", false),
+                new VarcharColumn("name", 64, false),
+                new LongColumn("score", false)
+        }, new String[] { "id" });
+        repository.executeQuery(table.getCreateQuery(true));
+        List<Column<?>[]> rows = new ArrayList<>(ROWS);
+        for (int id = 0; id < ROWS; id++) {
+            rows.add(new Column<?>[] {
+                    new IntegerColumn("id", id),
+                    new VarcharColumn("name", "player" + id),
+                    new LongColumn("score", 0L)
+            });
+        }
+        repository.executeBatch("INSERT INTO `bench` (`id`, `name`, `score`) VALUES (?, ?, ?)", rows);
+        columns = new Column<?>[] {
+                new VarcharColumn("name", "player"),
+                new LongColumn("score", 1L),
+                new IntegerColumn("id", 1)
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() {
+        database.cleanup();
+    }
+
+    @Benchmark
+    public void validateColumns() {
+        UPDATE.validate(columns);
+    }
+
+    @Benchmark
+    public void validateParameters() {
+        UPDATE.validate(Parameters.local().addString("player").addLong(1L).addInt(1));
+    }
+
+    @Benchmark
+    public int updateColumns() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return repository.executeInsert(UPDATE, new Column<?>[] {
+                new VarcharColumn("name", "player"),
+                new LongColumn("score", random.nextLong()),
+                new IntegerColumn("id", random.nextInt(ROWS))
+        });
+    }
+
+    @Benchmark
+    public int updateParameters() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return repository.executeInsert(UPDATE, Parameters.local().addString("player").addLong(random.nextLong()).addInt(random.nextInt(ROWS)));
+    }
+
+    @Benchmark
+    public void selectColumns(Blackhole blackhole) {
+        repository.executeQuery(SELECT, new Column<?>[] { new IntegerColumn("id", ThreadLocalRandom.current().nextInt(ROWS)) }, resultSet -> {
+            try {
+                if (resultSet.next())
+                    blackhole.consume(resultSet.getLong(1));
+            } catch (SQLException ex) {
+                ex.printStackTrace();
+            }
+        });
+    }
+
+    @Benchmark
+    public long selectParameters() {
+        Long score = repository.executeQuery(SELECT, Parameters.local().addInt(ThreadLocalRandom.current().nextInt(ROWS)),
+                resultSet -> resultSet.next() ? resultSet.getLong(1) : -1L);
+        return score == null ? -1L : score;
+    }
+}
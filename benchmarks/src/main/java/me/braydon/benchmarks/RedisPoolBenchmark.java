@@ -0,0 +1,94 @@
+package me.braydon.benchmarks;
+
+import me.braydon.database.impl.redis.RedisDatabase;
+import me.braydon.database.impl.redis.RedisPool;
+import me.braydon.database.impl.redis.RedisPoolStrategy;
+import me.braydon.database.impl.redis.RedisPoolType;
+import me.braydon.standins.RespServer;
+import me.braydon.standins.StandIns;
+import org.openjdk.jmh.annotations.*;
+import redis.clients.jedis.Jedis;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks picking a {@link RedisPool} with {@link RedisDatabase#getPool(RedisPoolType)} using each
+ * {@link RedisPoolStrategy}, alone and contended by several threads, and borrowing a connection with
+ * {@link RedisPool#getResource()}
+ *
+ * @author Braydon
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1) @Warmup(iterations = 3, time = 2) @Measurement(iterations = 5, time = 2)
+public class RedisPoolBenchmark {
+    @Param({ "1", "4" })
+    private int slaves;
+
+    @Param({ "RANDOM", "ROUND_ROBIN", "LEAST_OUTSTANDING", "LATENCY_WEIGHTED" })
+    private String strategy;
+
+    private RespServer server;
+    private RedisDatabase database;
+    private RedisPool pool;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = new RespServer();
+        database = StandIns.redis(server, slaves, strategy(strategy));
+        pool = database.getPool(RedisPoolType.SLAVE);
+        try (Jedis jedis = pool.getResource()) {
+            jedis.set("key", "value");
+        }
+    }
+
+    /**
+     * Get the built-in {@link RedisPoolStrategy} with the given name, as JMH can only pass
+     * parameters of interface types by name
+     */
+    private static RedisPoolStrategy strategy(String name) {
+        switch (name) {
+            case "ROUND_ROBIN":
+                return RedisPoolStrategy.ROUND_ROBIN;
+            case "LEAST_OUTSTANDING":
+                return RedisPoolStrategy.LEAST_OUTSTANDING;
+            case "LATENCY_WEIGHTED":
+                return RedisPoolStrategy.LATENCY_WEIGHTED;
+            case "RANDOM":
+                return RedisPoolStrategy.RANDOM;
+            default:
+                throw new IllegalArgumentException("Unknown pool strategy " + name);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws IOException {
+        database.cleanup();
+        server.close();
+    }
+
+    @Benchmark @Threads(1)
+    public RedisPool getPool() {
+        return database.getPool(RedisPoolType.SLAVE);
+    }
+
+    @Benchmark @Threads(8)
+    public RedisPool getPoolContended() {
+        return database.getPool(RedisPoolType.SLAVE);
+    }
+
+    @Benchmark @Threads(1)
+    public long getResource() {
+        try (Jedis jedis = pool.getResource()) {
+            return jedis.getDB();
+        }
+    }
+
+    @Benchmark @Threads(1)
+    public String getResourceAndGet() {
+        try (Jedis jedis = pool.getResource()) {
+            return jedis.get("key");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package me.braydon.benchmarks;
+
+import me.braydon.database.impl.redis.RedisDatabase;
+import me.braydon.database.impl.redis.RedisPool;
+import me.braydon.database.impl.redis.RedisPoolType;
+import me.braydon.standins.RespServer;
+import me.braydon.standins.StandIns;
+import org.openjdk.jmh.annotations.*;
+import redis.clients.jedis.Jedis;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a GET through {@link RedisPool#getResource()}, which only checks out a connection that was
+ * authenticated and switched to the database when it was created, against also sending AUTH and SELECT
+ * on every borrow as the pool used to. The server delays each reply by the given latency, so the cost of
+ * the extra round trips to a remote server shows up
+ *
+ * @author Braydon
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1) @Warmup(iterations = 3, time = 2) @Measurement(iterations = 5, time = 2)
+public class RedisRoundTripBenchmark {
+    /**
+     * The time, in microseconds, each reply is delayed by
+     */
+    @Param({ "0", "100" })
+    private long latency;
+
+    private RespServer server;
+    private RedisDatabase database;
+    private RedisPool pool;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = new RespServer(latency);
+        database = StandIns.redis(server, 0);
+        pool = database.getPool(RedisPoolType.MASTER);
+        try (Jedis jedis = pool.getResource()) {
+            jedis.set("key", "value");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws IOException {
+        database.cleanup();
+        server.close();
+    }
+
+    @Benchmark
+    public String get() {
+        try (Jedis jedis = pool.getResource()) {
+            return jedis.get("key");
+        }
+    }
+
+    @Benchmark
+    public String getWithAuthAndSelect() {
+        try (Jedis jedis = pool.getResource()) {
+            jedis.auth(pool.getAuth());
+            jedis.select(database.getProperties().getDatabase());
+            return jedis.get("key");
+        }
+    }
+}
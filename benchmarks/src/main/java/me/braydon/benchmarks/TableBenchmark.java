@@ -0,0 +1,48 @@
+package me.braydon.benchmarks;
+
+import me.braydon.database.impl.mysql.data.Column;
+import me.braydon.database.impl.mysql.data.Index;
+import me.braydon.database.impl.mysql.data.Table;
+import me.braydon.database.impl.mysql.data.impl.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building the create query of a {@link Table}
+ *
+ * @author Braydon
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1) @Warmup(iterations = 3, time = 1) @Measurement(iterations = 5, time = 1)
+public class TableBenchmark {
+    private Table table;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        table = new Table("players", new Column<?>[] {
+                new IntegerColumn("id", true, false),
+                new VarcharColumn("uuid", 36, false),
+                new VarcharColumn("name", 16, false),
+                new LongColumn("firstJoin", false),
+                new LongColumn("lastJoin", false),
+                new DoubleColumn("balance", false),
+                new BooleanColumn("banned", false),
+                new TimestampColumn("updatedAt", false)
+        }, new String[] { "id" })
+                .withIndex(Index.unique("uuid_index", "uuid"))
+                .withIndex(Index.of("name_index", "name"))
+                .withIndex(Index.of("join_index", "firstJoin", "lastJoin"));
+    }
+
+    @Benchmark
+    public String createQuery() {
+        return table.getCreateQuery(false);
+    }
+
+    @Benchmark
+    public String createQueryIfNotExists() {
+        return table.getCreateQuery(true);
+    }
+}
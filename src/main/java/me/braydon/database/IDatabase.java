@@ -1,6 +1,7 @@
 package me.braydon.database;
 
 import lombok.NonNull;
+import me.braydon.database.metrics.DatabaseMetrics;
 import me.braydon.database.properties.DatabaseProperties;
 
 /**
@@ -47,6 +48,19 @@ public interface IDatabase<E extends DatabaseProperties> {
      */
     IDatabase<E> connect(@NonNull E properties, @NonNull String uri, Runnable onConnect);
 
+    /**
+     * Set the {@link DatabaseMetrics} that operations on this database are recorded to
+     * @param metrics the metrics to record to
+     * @return the database instance
+     */
+    IDatabase<E> withMetrics(@NonNull DatabaseMetrics metrics);
+
+    /**
+     * Get the {@link DatabaseMetrics} that operations on this database are recorded to
+     * @return the metrics, {@link DatabaseMetrics#NOOP} if none have been set
+     */
+    DatabaseMetrics getMetrics();
+
     /**
      * Cleanup the database and close connections
      */
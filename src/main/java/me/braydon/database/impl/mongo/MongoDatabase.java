@@ -2,12 +2,15 @@ package me.braydon.database.impl.mongo;
 
 import lombok.NonNull;
 import me.braydon.database.IDatabase;
+import me.braydon.database.metrics.DatabaseMetrics;
 import me.braydon.database.properties.URIProperties;
 
 /**
  * @author Braydon
  */
 public class MongoDatabase implements IDatabase<URIProperties> {
+	private DatabaseMetrics metrics = DatabaseMetrics.NOOP;
+
 	/**
 	 * Connect to the database server with the given properties
 	 *
@@ -33,6 +36,28 @@ public class MongoDatabase implements IDatabase<URIProperties> {
 		return null;
 	}
 	
+	/**
+	 * Set the {@link DatabaseMetrics} that operations on this database are recorded to
+	 *
+	 * @param metrics the metrics to record to
+	 * @return the database instance
+	 */
+	@Override
+	public IDatabase<URIProperties> withMetrics(@NonNull DatabaseMetrics metrics) {
+		this.metrics = metrics;
+		return this;
+	}
+	
+	/**
+	 * Get the {@link DatabaseMetrics} that operations on this database are recorded to
+	 *
+	 * @return the metrics
+	 */
+	@Override
+	public DatabaseMetrics getMetrics() {
+		return metrics;
+	}
+	
 	/**
 	 * Cleanup the database and close connections
 	 */
@@ -0,0 +1,394 @@
+package me.braydon.database.impl.mysql;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import me.braydon.database.DatabaseRepository;
+import me.braydon.database.impl.mysql.cache.QueryCache;
+import me.braydon.database.impl.mysql.data.Column;
+import me.braydon.database.impl.mysql.query.PreparedQuery;
+import me.braydon.database.impl.mysql.query.ResultSetHandler;
+import me.braydon.database.impl.mysql.query.RowMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An asynchronous implementation of the {@link DatabaseRepository} for the {@link MySQLDatabase}.
+ * <p>
+ * Queries are executed on a bounded executor that is sized using the {@link MySQLProperties}, and
+ * their results are returned as a {@link CompletableFuture}. Once the executor and its queue are
+ * full, callers are blocked until a query completes so work can't pile up without bound.
+ *
+ * @author Braydon
+ * @see MySQLProperties#withAsyncExecutor(int, int, boolean)
+ */
+@Slf4j(topic = "AsyncMySQLRepository")
+public class AsyncMySQLRepository extends DatabaseRepository<MySQLDatabase> {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10L;
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+    private final MySQLRepository repository;
+    private final ExecutorService executor;
+
+    /**
+     * The permits for queries that are running or waiting to run
+     */
+    private final Semaphore queuePermits;
+
+    /**
+     * The permits for queries that are running, this is only used when running on virtual
+     * threads as the executor itself doesn't limit the amount of queries that run at once
+     */
+    private final Semaphore runningPermits;
+
+    public AsyncMySQLRepository(@NonNull MySQLDatabase database) {
+        super(database);
+        MySQLProperties properties = database.getProperties();
+        if (properties == null || (database.getDataSource() == null))
+            throw new IllegalStateException("The database must be connected before creating an async repository");
+        repository = new MySQLRepository(database);
+
+        // Size the executor against the pool, as running more queries than there are connections would just block
+        int threads = properties.getAsyncThreads() > 0 ? properties.getAsyncThreads() : database.getDataSource().getMaximumPoolSize();
+        ExecutorService virtualExecutor = properties.isAsyncVirtualThreads() ? newVirtualThreadExecutor() : null;
+        if (virtualExecutor != null) {
+            executor = virtualExecutor;
+            runningPermits = new Semaphore(threads);
+        } else {
+            executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "MySQL Async - " + THREAD_ID.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            runningPermits = null;
+        }
+        queuePermits = new Semaphore(threads + properties.getAsyncQueueSize());
+        if (properties.isDebugging())
+            log.debug("Created async executor with " + threads + " " + (virtualExecutor == null ? "platform" : "virtual") + " threads");
+    }
+
+    /**
+     * Insert the given columns using the provided query
+     *
+     * @param query the query to execute
+     * @param columns the {@link Column} array to insert
+     * @return the future of the amount of rows affected
+     */
+    public CompletableFuture<Integer> executeInsert(@NonNull String query, @NonNull Column<?>[] columns) {
+        return executeInsert(PreparedQuery.of(query), columns);
+    }
+
+    /**
+     * Insert the given columns using the provided query
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to insert
+     * @return the future of the amount of rows affected
+     */
+    public CompletableFuture<Integer> executeInsert(@NonNull PreparedQuery query, @NonNull Column<?>[] columns) {
+        query.validate(columns);
+        // Mark the write on the caller, as the write itself happens on another thread
+        database.markWrite();
+        return submit(withConnection(connection -> repository.insert(connection, query, columns, null)));
+    }
+
+    /**
+     * Insert the given rows using the provided query as a batch. The batch
+     * size is taken from the {@link MySQLProperties} of the database
+     *
+     * @param query the query to execute for each row
+     * @param rows the rows to insert, each row being a {@link Column} array
+     * @return the future of the result of the batch
+     */
+    public CompletableFuture<BatchResult> executeBatch(@NonNull String query, @NonNull List<Column<?>[]> rows) {
+        return executeBatch(PreparedQuery.of(query), rows, database.getProperties().getBatchSize());
+    }
+
+    /**
+     * Insert the given rows using the provided query as a batch
+     *
+     * @param query the {@link PreparedQuery} to execute for each row
+     * @param rows the rows to insert, each row being a {@link Column} array
+     * @param batchSize the amount of rows to send to the server at a time
+     * @return the future of the result of the batch
+     */
+    public CompletableFuture<BatchResult> executeBatch(@NonNull PreparedQuery query, @NonNull List<Column<?>[]> rows, int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        for (Column<?>[] columns : rows)
+            query.validate(columns);
+        // Mark the write on the caller, as the write itself happens on another thread
+        database.markWrite();
+        return submit(withConnection(connection -> repository.batch(connection, query, rows, batchSize)));
+    }
+
+    /**
+     * Execute the given query
+     *
+     * @param query the query to execute
+     * @param handler the {@link ResultSetHandler} to handle the result with
+     * @return the future of the result of the handler
+     */
+    public <T> CompletableFuture<T> executeQuery(@NonNull String query, @NonNull ResultSetHandler<T> handler) {
+        return executeQuery(PreparedQuery.of(query), null, handler);
+    }
+
+    /**
+     * Execute the given query
+     *
+     * @param query the query to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param handler the {@link ResultSetHandler} to handle the result with
+     * @return the future of the result of the handler
+     */
+    public <T> CompletableFuture<T> executeQuery(@NonNull String query, Column<?>[] columns, @NonNull ResultSetHandler<T> handler) {
+        return executeQuery(PreparedQuery.of(query), columns, handler);
+    }
+
+    /**
+     * Execute the given query
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param handler the {@link ResultSetHandler} to handle the result with
+     * @return the future of the result of the handler
+     */
+    public <T> CompletableFuture<T> executeQuery(@NonNull PreparedQuery query, Column<?>[] columns, @NonNull ResultSetHandler<T> handler) {
+        if (columns != null)
+            query.validate(columns);
+        // Complete straight away if the result is cached, rather than waiting in the queue
+        QueryCache cache = database.getQueryCache();
+        if (cache != null && (query.isCacheable())) {
+            try {
+                ResultSet cached = cache.get(query, columns);
+                if (cached != null)
+                    return CompletableFuture.completedFuture(handler.handle(cached));
+            } catch (SQLException ex) {
+                CompletableFuture<T> future = new CompletableFuture<>();
+                future.completeExceptionally(ex);
+                return future;
+            }
+            // The miss was already counted, so fill the cache without looking the query up again
+            return submit(() -> handler.handle(repository.fill(cache, query, columns)));
+        }
+        return submit(() -> repository.query(query, columns, handler));
+    }
+
+    /**
+     * Execute the given query, mapping each row with the given {@link RowMapper}
+     *
+     * @param query the query to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param mapper the {@link RowMapper} to map each row with
+     * @return the future of the mapped rows
+     */
+    public <T> CompletableFuture<List<T>> executeList(@NonNull String query, Column<?>[] columns, @NonNull RowMapper<T> mapper) {
+        return executeQuery(PreparedQuery.of(query), columns, mapper.toList());
+    }
+
+    /**
+     * Execute the given query, mapping each row with the given {@link RowMapper}
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param mapper the {@link RowMapper} to map each row with
+     * @return the future of the mapped rows
+     */
+    public <T> CompletableFuture<List<T>> executeList(@NonNull PreparedQuery query, Column<?>[] columns, @NonNull RowMapper<T> mapper) {
+        return executeQuery(query, columns, mapper.toList());
+    }
+
+    /**
+     * Execute the given query, mapping each row to the given type
+     *
+     * @param query the query to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param type the class or record to map each row to
+     * @return the future of the mapped rows
+     * @see RowMapper#of(Class)
+     */
+    public <T> CompletableFuture<List<T>> executeList(@NonNull String query, Column<?>[] columns, @NonNull Class<T> type) {
+        return executeList(PreparedQuery.of(query), columns, RowMapper.of(type));
+    }
+
+    /**
+     * Execute the given query, mapping each row to the given type
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param type the class or record to map each row to
+     * @return the future of the mapped rows
+     * @see RowMapper#of(Class)
+     */
+    public <T> CompletableFuture<List<T>> executeList(@NonNull PreparedQuery query, Column<?>[] columns, @NonNull Class<T> type) {
+        return executeList(query, columns, RowMapper.of(type));
+    }
+
+    /**
+     * Execute the given query without reading a result, this is useful for queries such as creating tables
+     *
+     * @param query the query to execute
+     * @return the future that completes once the query has been executed
+     */
+    public CompletableFuture<Void> executeQuery(@NonNull String query) {
+        if (!PreparedQuery.of(query).isRead())
+            database.markWrite();
+        return submit(withConnection(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.execute();
+            }
+            repository.written(PreparedQuery.of(query));
+            return null;
+        }));
+    }
+
+    /**
+     * Execute the given work in a transaction on a single connection
+     *
+     * @param work the {@link TransactionWork} to execute
+     * @return the future of the result of the work
+     */
+    public <T> CompletableFuture<T> inTransaction(@NonNull TransactionWork<T> work) {
+        return inTransaction(null, false, work);
+    }
+
+    /**
+     * Execute the given work in a transaction on a single connection
+     *
+     * @param isolation the {@link IsolationLevel} of the transaction, null to use the server default
+     * @param readOnly whether the transaction only reads
+     * @param work the {@link TransactionWork} to execute
+     * @return the future of the result of the work
+     */
+    public <T> CompletableFuture<T> inTransaction(IsolationLevel isolation, boolean readOnly, @NonNull TransactionWork<T> work) {
+        if (!readOnly)
+            database.markWrite();
+        return submit(withConnection(connection -> repository.transaction(connection, isolation, readOnly, work)));
+    }
+
+    /**
+     * Get the amount of queries that can be submitted before callers are blocked
+     *
+     * @return the amount of available slots
+     */
+    public int getAvailableSlots() {
+        return queuePermits.availablePermits();
+    }
+
+    /**
+     * Shutdown the executor, waiting for queries that were already submitted to complete
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                log.warn("Timed out waiting for queries to complete after " + SHUTDOWN_TIMEOUT_SECONDS + "s");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Submit the given task to the executor, blocking if the executor and its queue are full
+     *
+     * @param task the task to submit
+     * @return the future of the result of the task
+     */
+    private <T> CompletableFuture<T> submit(@NonNull Task<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        // The read your writes window is tracked per thread, so carry the caller's last write over to the worker
+        Long lastWrite = database.getLastWrite();
+        try {
+            queuePermits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(ex);
+            return future;
+        }
+        try {
+            executor.execute(() -> {
+                T result = null;
+                Throwable failure = null;
+                try {
+                    if (runningPermits != null)
+                        runningPermits.acquireUninterruptibly();
+                    Long workerLastWrite = database.getLastWrite();
+                    database.setLastWrite(lastWrite);
+                    try {
+                        result = task.execute();
+                    } finally {
+                        database.setLastWrite(workerLastWrite);
+                        if (runningPermits != null)
+                            runningPermits.release();
+                    }
+                } catch (Throwable ex) {
+                    failure = ex;
+                } finally {
+                    queuePermits.release();
+                }
+                // Only complete the future once the permits are released, as dependent stages run on this
+                // thread and would otherwise hold them, deadlocking if they block on this repository
+                if (failure == null)
+                    future.complete(result);
+                else future.completeExceptionally(failure);
+            });
+        } catch (RejectedExecutionException ex) {
+            queuePermits.release();
+            future.completeExceptionally(ex);
+        }
+        return future;
+    }
+
+    /**
+     * Create an executor that runs each task on a new virtual thread
+     *
+     * @return the executor, null if virtual threads aren't supported by the JVM
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            // Virtual threads are only available in Java 21+, so we have to look them up reflectively
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Wrap the given task so it's executed using a connection from the pool
+     *
+     * @param task the task to wrap
+     * @return the wrapped task
+     */
+    private <T> Task<T> withConnection(@NonNull ConnectionTask<T> task) {
+        return () -> {
+            try (Connection connection = database.getConnection(database.getDataSource())) {
+                return task.execute(connection);
+            }
+        };
+    }
+
+    /**
+     * This class represents a task that is executed by the executor
+     *
+     * @param <T> the result type
+     */
+    @FunctionalInterface
+    private interface Task<T> {
+        T execute() throws SQLException;
+    }
+
+    /**
+     * This class represents a task that is executed using a connection from the pool
+     *
+     * @param <T> the result type
+     */
+    @FunctionalInterface
+    private interface ConnectionTask<T> {
+        T execute(Connection connection) throws SQLException;
+    }
+}
@@ -0,0 +1,42 @@
+package me.braydon.database.impl.mysql;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.sql.Statement;
+
+/**
+ * This class represents the result of a batch executed using the {@link MySQLRepository}
+ *
+ * @author Braydon
+ */
+@AllArgsConstructor @Getter
+public class BatchResult {
+    /**
+     * The amount of rows affected by each row in the batch, in the order they were added.
+     * <p>
+     * When the driver rewrites the batch into a multi-row statement, the entries will be
+     * {@link Statement#SUCCESS_NO_INFO} as the server only reports the total
+     */
+    private final int[] affectedRows;
+
+    /**
+     * The keys generated by the server for the batch, in the order they were generated
+     */
+    private final long[] generatedKeys;
+
+    /**
+     * Get the total amount of rows affected by the batch
+     *
+     * @return the total amount of rows affected, or -1 if the driver didn't report it
+     */
+    public int getTotalAffectedRows() {
+        int total = 0;
+        for (int affected : affectedRows) {
+            if (affected < 0)
+                return -1;
+            total += affected;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,24 @@
+package me.braydon.database.impl.mysql;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.sql.Connection;
+
+/**
+ * The isolation levels a {@link Transaction} can be executed with
+ *
+ * @author Braydon
+ */
+@AllArgsConstructor @Getter
+public enum IsolationLevel {
+    READ_UNCOMMITTED(Connection.TRANSACTION_READ_UNCOMMITTED),
+    READ_COMMITTED(Connection.TRANSACTION_READ_COMMITTED),
+    REPEATABLE_READ(Connection.TRANSACTION_REPEATABLE_READ),
+    SERIALIZABLE(Connection.TRANSACTION_SERIALIZABLE);
+
+    /**
+     * The JDBC level of this isolation level
+     */
+    private final int level;
+}
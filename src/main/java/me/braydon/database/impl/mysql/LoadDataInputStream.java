@@ -0,0 +1,155 @@
+package me.braydon.database.impl.mysql;
+
+import lombok.NonNull;
+import me.braydon.database.impl.mysql.data.Column;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * This class represents an {@link InputStream} that encodes rows to the default format read by LOAD DATA.
+ * <p>
+ * Rows are pulled from the iterator and encoded a chunk at a time as the driver reads the stream, so only
+ * a chunk of the rows is ever held in memory. Fields are separated by tabs and rows by new lines, with
+ * backslashes, tabs, new lines and other special bytes escaped, and null values written as "\N".
+ *
+ * @author Braydon
+ */
+class LoadDataInputStream extends InputStream {
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final byte[] NULL = { '\\', 'N' };
+
+    private final Iterator<Column<?>[]> rows;
+    private final int columns;
+    private byte[] buffer = new byte[CHUNK_SIZE + 1024];
+    private int position, limit;
+
+    /**
+     * The amount of rows and bytes that have been encoded
+     */
+    private long rowCount, byteCount;
+
+    LoadDataInputStream(@NonNull Iterator<Column<?>[]> rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == limit && (!fill()))
+            return -1;
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(@NonNull byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0)
+            return 0;
+        if (position == limit && (!fill()))
+            return -1;
+        int read = Math.min(length, limit - position);
+        System.arraycopy(buffer, position, bytes, offset, read);
+        position += read;
+        return read;
+    }
+
+    @Override
+    public int available() {
+        return limit - position;
+    }
+
+    /**
+     * Get the amount of rows that have been encoded
+     *
+     * @return the row count
+     */
+    long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Get the amount of bytes that have been encoded
+     *
+     * @return the byte count
+     */
+    long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Encode the next chunk of rows into the buffer
+     *
+     * @return whether any rows were encoded
+     * @throws IOException if a row doesn't match the table
+     */
+    private boolean fill() throws IOException {
+        position = 0;
+        limit = 0;
+        while (limit < CHUNK_SIZE && (rows.hasNext())) {
+            Column<?>[] row = rows.next();
+            if (row == null || (row.length != columns))
+                throw new IOException("Row " + (rowCount + 1) + " has " + (row == null ? 0 : row.length) + " columns, expected " + columns);
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0)
+                    write((byte) '\t');
+                byte[] value = row[i].encode();
+                if (value == null) {
+                    ensureCapacity(NULL.length);
+                    System.arraycopy(NULL, 0, buffer, limit, NULL.length);
+                    limit += NULL.length;
+                } else writeEscaped(value);
+            }
+            write((byte) '\n');
+            rowCount++;
+        }
+        byteCount += limit;
+        return limit > 0;
+    }
+
+    private void writeEscaped(@NonNull byte[] value) {
+        // Reserve space for the worst case, where every byte has to be escaped
+        ensureCapacity(value.length * 2);
+        for (byte b : value) {
+            switch (b) {
+                case '\\':
+                    buffer[limit++] = '\\';
+                    buffer[limit++] = '\\';
+                    break;
+                case '\t':
+                    buffer[limit++] = '\\';
+                    buffer[limit++] = 't';
+                    break;
+                case '\n':
+                    buffer[limit++] = '\\';
+                    buffer[limit++] = 'n';
+                    break;
+                case '\r':
+                    buffer[limit++] = '\\';
+                    buffer[limit++] = 'r';
+                    break;
+                case 0:
+                    buffer[limit++] = '\\';
+                    buffer[limit++] = '0';
+                    break;
+                case 26:
+                    buffer[limit++] = '\\';
+                    buffer[limit++] = 'Z';
+                    break;
+                default:
+                    buffer[limit++] = b;
+            }
+        }
+    }
+
+    private void write(byte b) {
+        ensureCapacity(1);
+        buffer[limit++] = b;
+    }
+
+    private void ensureCapacity(int length) {
+        if (limit + length > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, limit + length));
+    }
+}
@@ -0,0 +1,48 @@
+package me.braydon.database.impl.mysql;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * This class represents the result of a bulk load executed using the {@link MySQLRepository}
+ *
+ * @author Braydon
+ */
+@AllArgsConstructor @Getter
+public class LoadResult {
+    /**
+     * The amount of rows sent to the server
+     */
+    private final long rows;
+
+    /**
+     * The amount of rows the server reported as affected
+     */
+    private final long affectedRows;
+
+    /**
+     * The amount of bytes sent to the server
+     */
+    private final long bytes;
+
+    /**
+     * The time, in milliseconds, the load took
+     */
+    private final long time;
+
+    /**
+     * The warnings reported by the server, such as truncated values or skipped duplicates
+     */
+    private final List<String> warnings;
+
+    /**
+     * Get the amount of rows loaded per second
+     *
+     * @return the rows per second
+     */
+    public double getRowsPerSecond() {
+        return time == 0L ? rows : rows * 1000D / time;
+    }
+}
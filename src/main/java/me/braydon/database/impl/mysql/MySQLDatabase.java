@@ -2,15 +2,27 @@ package me.braydon.database.impl.mysql;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.util.DriverDataSource;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.braydon.database.IDatabase;
 import me.braydon.database.IRepositoryDatabase;
+import me.braydon.database.impl.mysql.cache.QueryCache;
+import me.braydon.database.impl.mysql.log.SlowQueryLog;
+import me.braydon.database.impl.mysql.query.PreparedQuery;
+import me.braydon.database.metrics.DatabaseMetrics;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The implementation of {@link IDatabase} for MySQL
@@ -21,15 +33,48 @@ import java.util.Map;
 public class MySQLDatabase implements IDatabase<MySQLProperties>, IRepositoryDatabase<MySQLRepository> {
     private static final Object LOCK = new Object();
 
+    /**
+     * The "max_allowed_packet" to assume if it couldn't be fetched from the server, this is the lowest default of the supported versions
+     */
+    private static final long DEFAULT_MAX_ALLOWED_PACKET = 4L * 1024L * 1024L;
+
     private final Map<String, String> dataSourceProperties;
     private MySQLProperties properties;
     private HikariDataSource dataSource;
+    private AsyncMySQLRepository asyncRepository;
+    private WriteBehindWriter writeBehindWriter;
+    private QueryCache queryCache;
+    private SlowQueryLog slowQueryLog;
+
+    /**
+     * The time, in milliseconds, the last warm up took, -1 if the pools haven't been warmed up
+     */
+    private long warmUpTime = -1L;
+    private volatile DatabaseMetrics metrics = DatabaseMetrics.NOOP;
+    private final List<MySQLReplica> replicas = new ArrayList<>();
+
+    /**
+     * The connected replicas, this is only replaced when connecting so reads can pick from it without locking
+     */
+    @Getter(AccessLevel.NONE) private volatile MySQLReplica[] connectedReplicas = new MySQLReplica[0];
+    @Getter(AccessLevel.NONE) private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /**
+     * The time, in nanoseconds, each thread last wrote to the primary
+     */
+    @Getter(AccessLevel.NONE) private final ThreadLocal<Long> lastWrite = new ThreadLocal<>();
+
+    /**
+     * The "max_allowed_packet" of the primary, 0 if it hasn't been fetched yet
+     */
+    @Getter(AccessLevel.NONE) private volatile long maxAllowedPacket;
 
     public MySQLDatabase() {
         this(new HashMap<String, String>() {{
             put("cachePrepStmts", "true");
             put("prepStmtCacheSize", "250");
             put("prepStmtCacheSqlLimit", "2048");
+            put("rewriteBatchedStatements", "true");
         }});
     }
 
@@ -42,7 +87,7 @@ public class MySQLDatabase implements IDatabase<MySQLProperties>, IRepositoryDat
      */
     @Override
     public IDatabase<MySQLProperties> connect(@NonNull MySQLProperties properties, Runnable onConnect) {
-        connect(properties, "jdbc:mysql://" + properties.getHost() + ":" + properties.getPort() + "/" + properties.getDatabase() + "?serverTimezone=America/New_York", onConnect);
+        connect(properties, buildUri(properties.getHost(), properties.getPort(), properties.getDatabase()), onConnect);
         return this;
     }
 
@@ -62,22 +107,282 @@ public class MySQLDatabase implements IDatabase<MySQLProperties>, IRepositoryDat
             this.properties = properties;
 
             long started = System.currentTimeMillis();
-            HikariConfig config = new HikariConfig();
-            config.setJdbcUrl(uri);
-            config.setUsername(properties.getUsername());
-            config.setPassword(properties.getPassword());
-            config.setDriverClassName("com.mysql.cj.jdbc.Driver");
-            for (Map.Entry<String, String> entry : dataSourceProperties.entrySet())
-                config.addDataSourceProperty(entry.getKey(), entry.getValue());
-            dataSource = new HikariDataSource(config);
+            dataSource = createDataSource(uri);
+            for (MySQLReplica replica : replicas) {
+                replica.setDataSource(createDataSource(replica.getUri() == null
+                        ? buildUri(replica.getHost(), replica.getPort(), properties.getDatabase()) : replica.getUri()));
+            }
+            connectedReplicas = replicas.toArray(new MySQLReplica[0]);
+            if (properties.isWarmUp())
+                warmUp();
+            if (properties.getQueryCacheSize() > 0)
+                queryCache = new QueryCache(properties.getQueryCacheSize(), properties.getQueryCacheTtl());
+            if (properties.getSlowQueryThreshold() > 0L) {
+                slowQueryLog = new SlowQueryLog(properties.getSlowQueryThreshold(), properties.getSlowQueryTemplates(),
+                        properties.getSlowQueryDumpInterval());
+            }
             if (properties.isDebugging())
-                log.debug("Connection established in " + (System.currentTimeMillis() - started) + "ms");
+                log.debug("Connection established with " + replicas.size() + " replicas in " + (System.currentTimeMillis() - started) + "ms");
             if (onConnect != null)
                 onConnect.run();
             return this;
         }
     }
 
+    /**
+     * Add a read replica to the database, this must be done before connecting. The
+     * replica is connected to using the same credentials and database as the primary
+     *
+     * @param host the host of the replica
+     * @param port the port of the replica
+     * @return the database instance
+     */
+    public MySQLDatabase withReplica(@NonNull String host, int port) {
+        synchronized (LOCK) {
+            if (dataSource != null)
+                throw new IllegalStateException("Replicas must be added before connecting");
+            replicas.add(new MySQLReplica(host, port, null));
+            return this;
+        }
+    }
+
+    /**
+     * Add a read replica to the database using the given uri, this must be done before
+     * connecting. The replica is connected to using the same credentials as the primary
+     *
+     * @param uri the uri to use to make a connection to the replica
+     * @return the database instance
+     */
+    public MySQLDatabase withReplica(@NonNull String uri) {
+        synchronized (LOCK) {
+            if (dataSource != null)
+                throw new IllegalStateException("Replicas must be added before connecting");
+            replicas.add(new MySQLReplica(null, -1, uri));
+            return this;
+        }
+    }
+
+    /**
+     * Get the data source that read queries should use. This is a replica picked using the
+     * {@link ReplicaStrategy} of the properties, or the primary if there are no replicas or
+     * the current thread wrote within the read your writes window
+     *
+     * @return the data source to read from
+     */
+    public HikariDataSource getReadDataSource() {
+        MySQLReplica[] replicas = connectedReplicas;
+        MySQLProperties properties = this.properties;
+        if (replicas.length == 0 || (properties == null))
+            return dataSource;
+        long window = properties.getReadYourWritesWindow();
+        if (window > 0L) {
+            Long lastWrite = this.lastWrite.get();
+            if (lastWrite != null && (System.nanoTime() - lastWrite < TimeUnit.MILLISECONDS.toNanos(window)))
+                return dataSource;
+        }
+        if (replicas.length == 1)
+            return replicas[0].getDataSource();
+        switch (properties.getReplicaStrategy()) {
+            case RANDOM:
+                return replicas[ThreadLocalRandom.current().nextInt(replicas.length)].getDataSource();
+            case LEAST_ACTIVE: {
+                MySQLReplica least = replicas[0];
+                for (int i = 1; i < replicas.length; i++) {
+                    if (replicas[i].getActiveConnections() < least.getActiveConnections())
+                        least = replicas[i];
+                }
+                return least.getDataSource();
+            }
+            default:
+                return replicas[Math.floorMod(nextReplica.getAndIncrement(), replicas.length)].getDataSource();
+        }
+    }
+
+    /**
+     * Warm up the connection pools. Each pool is filled to its minimum idle size in parallel, and the
+     * warm up statements of the properties are prepared on every connection so the driver doesn't have
+     * to parse them when they're first used
+     *
+     * @return the time, in milliseconds, the warm up took
+     * @see MySQLProperties#withWarmUp(String...)
+     */
+    public long warmUp() {
+        MySQLProperties properties = this.properties;
+        if (properties == null || (dataSource == null))
+            throw new IllegalStateException("The database must be connected before warming up");
+        long started = System.nanoTime();
+        List<HikariDataSource> dataSources = new ArrayList<>();
+        dataSources.add(dataSource);
+        for (MySQLReplica replica : connectedReplicas)
+            dataSources.add(replica.getDataSource());
+        int connections = 0;
+        for (HikariDataSource dataSource : dataSources)
+            connections += Math.max(1, dataSource.getMinimumIdle());
+
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(connections, runnable -> {
+            Thread thread = new Thread(runnable, "MySQL Warm Up - " + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger failed = new AtomicInteger();
+        try {
+            List<CompletableFuture<?>> futures = new ArrayList<>(connections);
+            for (HikariDataSource dataSource : dataSources) {
+                int count = Math.max(1, dataSource.getMinimumIdle());
+                CountDownLatch borrowed = new CountDownLatch(count);
+                for (int i = 0; i < count; i++) {
+                    futures.add(CompletableFuture.runAsync(() -> {
+                        if (!warmUp(dataSource, borrowed, properties.getWarmUpStatements()))
+                            failed.incrementAndGet();
+                    }, executor));
+                }
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            executor.shutdown();
+        }
+        long elapsed = System.nanoTime() - started;
+        metrics.onOperation("mysql.warmup", elapsed, failed.get() == 0);
+        warmUpTime = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        if (failed.get() > 0)
+            log.warn(failed.get() + " of " + connections + " connections failed to warm up");
+        if (properties.isDebugging())
+            log.debug("Warmed up " + connections + " connections with " + properties.getWarmUpStatements().size() + " statements in " + warmUpTime + "ms");
+        return warmUpTime;
+    }
+
+    /**
+     * Borrow a connection from the given data source and prepare the given statements on it
+     *
+     * @param dataSource the data source to borrow from
+     * @param borrowed the latch counted down once each connection of the data source is borrowed
+     * @param statements the statements to prepare
+     * @return whether the connection was warmed up
+     */
+    private boolean warmUp(@NonNull HikariDataSource dataSource, @NonNull CountDownLatch borrowed, @NonNull List<String> statements) {
+        Connection connection = null;
+        try {
+            connection = getConnection(dataSource);
+            for (String statement : statements) {
+                PreparedQuery.of(statement);
+                connection.prepareStatement(statement).close();
+            }
+            return true;
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+            return false;
+        } finally {
+            borrowed.countDown();
+            if (connection != null) {
+                // Hold the connection until every connection is borrowed, otherwise the pool would hand the same one out again
+                try {
+                    borrowed.await(dataSource.getConnectionTimeout(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                try {
+                    connection.close();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Borrow a connection from the given data source, recording the time spent
+     * waiting for it to the {@link DatabaseMetrics} of this database
+     *
+     * @param dataSource the data source to borrow from, either the primary or a replica
+     * @return the connection
+     * @throws SQLException if a connection couldn't be borrowed
+     */
+    public Connection getConnection(@NonNull HikariDataSource dataSource) throws SQLException {
+        DatabaseMetrics metrics = this.metrics;
+        if (metrics == DatabaseMetrics.NOOP)
+            return dataSource.getConnection();
+        long started = System.nanoTime();
+        Connection connection;
+        try {
+            connection = dataSource.getConnection();
+        } catch (SQLException ex) {
+            metrics.onOperation("mysql.borrow", System.nanoTime() - started, false);
+            throw ex;
+        }
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        metrics.onBorrow(dataSource.getPoolName(), System.nanoTime() - started,
+                pool == null ? 0 : pool.getActiveConnections(), pool == null ? 0 : pool.getIdleConnections());
+        return connection;
+    }
+
+    /**
+     * Mark the current thread as having written to the primary, so its reads are routed to the
+     * primary for the read your writes window of the properties
+     */
+    public void markWrite() {
+        MySQLProperties properties = this.properties;
+        if (connectedReplicas.length > 0 && (properties != null && properties.getReadYourWritesWindow() > 0L))
+            lastWrite.set(System.nanoTime());
+    }
+
+    /**
+     * Get the time the current thread last wrote to the primary, so it can be carried
+     * over to another thread that executes work for it
+     *
+     * @return the time, from {@link System#nanoTime()}, null if the thread hasn't written
+     */
+    Long getLastWrite() {
+        return lastWrite.get();
+    }
+
+    /**
+     * Set the time the current thread last wrote to the primary
+     *
+     * @param lastWrite the time, from {@link System#nanoTime()}, null if the thread hasn't written
+     * @see #getLastWrite()
+     */
+    void setLastWrite(Long lastWrite) {
+        if (lastWrite == null)
+            this.lastWrite.remove();
+        else this.lastWrite.set(lastWrite);
+    }
+
+    /**
+     * Get the largest packet, in bytes, the primary accepts. This is fetched from the
+     * server the first time it's requested and then kept until the database is cleaned up
+     *
+     * @param connection the connection to the primary to fetch it with
+     * @return the max allowed packet
+     */
+    long getMaxAllowedPacket(@NonNull Connection connection) {
+        long maxAllowedPacket = this.maxAllowedPacket;
+        if (maxAllowedPacket > 0L)
+            return maxAllowedPacket;
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT @@max_allowed_packet")) {
+            maxAllowedPacket = resultSet.next() ? resultSet.getLong(1) : 0L;
+        } catch (SQLException ex) {
+            if (properties != null && (properties.isDebugging()))
+                log.debug("Failed to fetch max_allowed_packet, using the default of " + DEFAULT_MAX_ALLOWED_PACKET + " bytes", ex);
+        }
+        if (maxAllowedPacket <= 0L)
+            maxAllowedPacket = DEFAULT_MAX_ALLOWED_PACKET;
+        return this.maxAllowedPacket = maxAllowedPacket;
+    }
+
+    /**
+     * Set the {@link DatabaseMetrics} that operations on this database are recorded to
+     *
+     * @param metrics the metrics to record to
+     * @return the database instance
+     */
+    @Override
+    public MySQLDatabase withMetrics(@NonNull DatabaseMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
     /**
      * Get a dummy connection of the repository for this database type
      *
@@ -92,17 +397,95 @@ public class MySQLDatabase implements IDatabase<MySQLProperties>, IRepositoryDat
         }
     }
 
+    /**
+     * Get the {@link AsyncMySQLRepository} for this database, the repository is created
+     * the first time it's requested and shared from then on
+     *
+     * @return the async repository
+     */
+    public AsyncMySQLRepository getAsyncRepository() {
+        synchronized (LOCK) {
+            if (asyncRepository == null)
+                asyncRepository = new AsyncMySQLRepository(this);
+            return asyncRepository;
+        }
+    }
+
+    /**
+     * Get the {@link WriteBehindWriter} for this database, the writer is created
+     * the first time it's requested and shared from then on
+     *
+     * @return the write behind writer
+     */
+    public WriteBehindWriter getWriteBehindWriter() {
+        synchronized (LOCK) {
+            if (writeBehindWriter == null)
+                writeBehindWriter = new WriteBehindWriter(this);
+            return writeBehindWriter;
+        }
+    }
+
     /**
      * Cleanup the database and close connections
      */
     @Override
     public void cleanup() {
         synchronized (LOCK) {
+            // Flush any queued writes before the connections are closed
+            if (writeBehindWriter != null)
+                writeBehindWriter.close();
+            writeBehindWriter = null;
+            if (asyncRepository != null)
+                asyncRepository.shutdown();
+            asyncRepository = null;
+            if (queryCache != null)
+                queryCache.invalidateAll();
+            queryCache = null;
+            if (slowQueryLog != null)
+                slowQueryLog.close();
+            slowQueryLog = null;
             dataSourceProperties.clear();
             properties = null;
             if (dataSource != null && (!dataSource.isClosed()))
                 dataSource.close();
             dataSource = null;
+            connectedReplicas = new MySQLReplica[0];
+            maxAllowedPacket = 0L;
+            for (MySQLReplica replica : replicas) {
+                HikariDataSource replicaDataSource = replica.getDataSource();
+                if (replicaDataSource != null && (!replicaDataSource.isClosed()))
+                    replicaDataSource.close();
+                replica.setDataSource(null);
+            }
+            replicas.clear();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Create a data source for the given uri using the properties of the database
+     *
+     * @param uri the uri to connect to
+     * @return the data source
+     */
+    private HikariDataSource createDataSource(@NonNull String uri) {
+        HikariConfig config = new HikariConfig();
+        properties.getPoolConfig().copyStateTo(config);
+        // Copying the config shares its driver properties with the caller, so our defaults are merged into a
+        // separate copy rather than the pool config, where they'd carry over to any other database it's used for.
+        // The driver properties set in the properties take priority over our defaults
+        Properties driverProperties = new Properties();
+        driverProperties.putAll(dataSourceProperties);
+        driverProperties.putAll(config.getDataSourceProperties());
+        // Keep a driver set in the pool config, so a MySQL compatible engine can be connected to
+        String driverClassName = config.getDriverClassName() == null ? "com.mysql.cj.jdbc.Driver" : config.getDriverClassName();
+        config.setDataSource(new DriverDataSource(uri, driverClassName, driverProperties, properties.getUsername(), properties.getPassword()));
+        config.setJdbcUrl(uri);
+        config.setUsername(properties.getUsername());
+        config.setPassword(properties.getPassword());
+        return new HikariDataSource(config);
+    }
+
+    static String buildUri(@NonNull String host, int port, @NonNull String database) {
+        return "jdbc:mysql://" + host + ":" + port + "/" + database + "?serverTimezone=America/New_York";
+    }
+}
@@ -1,9 +1,18 @@
 package me.braydon.database.impl.mysql;
 
+import com.zaxxer.hikari.HikariConfig;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
+import me.braydon.database.impl.mysql.cache.QueryCache;
+import me.braydon.database.impl.mysql.log.SlowQueryLog;
 import me.braydon.database.properties.AuthenticationProperties;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * MySQL properties for a database hold information such as the host, port, username, password, and database
  *
@@ -12,12 +21,315 @@ import me.braydon.database.properties.AuthenticationProperties;
 @Getter
 public class MySQLProperties extends AuthenticationProperties {
     public static final int DEFAULT_PORT = 3306;
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int DEFAULT_ASYNC_QUEUE_SIZE = 1024;
+    public static final int DEFAULT_WRITE_BEHIND_QUEUE_SIZE = 65536;
+    public static final int DEFAULT_WRITE_BEHIND_FLUSH_SIZE = 1000;
+    public static final long DEFAULT_WRITE_BEHIND_FLUSH_INTERVAL = 1000L;
+    public static final int DEFAULT_SLOW_QUERY_TEMPLATES = 100;
 
     private final String database;
 
+    /**
+     * The config the data sources are created from, the url, credentials and driver are set when connecting
+     */
+    private final HikariConfig poolConfig;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * The amount of rows fetched at a time when streaming a query, 0 to stream rows one by one
+     */
+    private int fetchSize;
+
+    /**
+     * The amount of threads used by the {@link AsyncMySQLRepository}, 0 to
+     * use the maximum pool size of the data source
+     */
+    private int asyncThreads;
+    private int asyncQueueSize = DEFAULT_ASYNC_QUEUE_SIZE;
+    private boolean asyncVirtualThreads = true;
+
+    private int writeBehindQueueSize = DEFAULT_WRITE_BEHIND_QUEUE_SIZE;
+    private int writeBehindFlushSize = DEFAULT_WRITE_BEHIND_FLUSH_SIZE;
+    private long writeBehindFlushInterval = DEFAULT_WRITE_BEHIND_FLUSH_INTERVAL;
+
+    /**
+     * The maximum amount of results held by the {@link QueryCache}, 0 if the cache is disabled
+     */
+    private int queryCacheSize;
+    private long queryCacheTtl;
+
+    private ReplicaStrategy replicaStrategy = ReplicaStrategy.ROUND_ROBIN;
+
+    /**
+     * The time, in milliseconds, a thread's reads are routed to the primary after it writes, 0 to always use the replicas
+     */
+    private long readYourWritesWindow;
+
+    /**
+     * The time, in milliseconds, a query has to take to be logged by the {@link SlowQueryLog}, 0 if the log is disabled
+     */
+    private long slowQueryThreshold;
+    private int slowQueryTemplates = DEFAULT_SLOW_QUERY_TEMPLATES;
+    private long slowQueryDumpInterval;
+
+    /**
+     * Whether the pools are filled to their minimum idle size when connecting
+     */
+    private boolean warmUp;
+    @Getter(AccessLevel.NONE) private final List<String> warmUpStatements = new ArrayList<>();
+
     public MySQLProperties(@NonNull String host, int port, String username, @NonNull String password, @NonNull String database) {
+        this(host, port, username, password, database, new HikariConfig());
+    }
+
+    public MySQLProperties(@NonNull String host, int port, String username, @NonNull String password, @NonNull String database,
+                           @NonNull HikariConfig poolConfig) {
         super(host, port, username, password);
         this.database = database;
+        this.poolConfig = poolConfig;
+    }
+
+    /**
+     * Set the size of the connection pools
+     *
+     * @param maximumPoolSize the maximum amount of connections in a pool
+     * @param minimumIdle the minimum amount of idle connections kept in a pool
+     * @return the properties
+     */
+    public MySQLProperties withPoolSize(int maximumPoolSize, int minimumIdle) {
+        if (maximumPoolSize < 1)
+            throw new IllegalArgumentException("Maximum pool size must be at least 1");
+        if (minimumIdle < 0 || (minimumIdle > maximumPoolSize))
+            throw new IllegalArgumentException("Minimum idle must be between 0 and the maximum pool size");
+        poolConfig.setMaximumPoolSize(maximumPoolSize);
+        poolConfig.setMinimumIdle(minimumIdle);
+        return this;
+    }
+
+    /**
+     * Set the timeouts of the connection pools
+     *
+     * @param connectionTimeout the time, in milliseconds, to wait for a connection from a pool
+     * @param idleTimeout the time, in milliseconds, a connection can sit idle before it's closed
+     * @param maxLifetime the time, in milliseconds, a connection is kept before it's replaced
+     * @return the properties
+     */
+    public MySQLProperties withTimeouts(long connectionTimeout, long idleTimeout, long maxLifetime) {
+        poolConfig.setConnectionTimeout(connectionTimeout);
+        poolConfig.setIdleTimeout(idleTimeout);
+        poolConfig.setMaxLifetime(maxLifetime);
+        return this;
+    }
+
+    /**
+     * Set how often idle connections are pinged to keep them from being closed by the server or network
+     *
+     * @param keepaliveTime the interval, in milliseconds, between pings, 0 to disable them
+     * @return the properties
+     */
+    public MySQLProperties withKeepalive(long keepaliveTime) {
+        poolConfig.setKeepaliveTime(keepaliveTime);
+        return this;
+    }
+
+    /**
+     * Log a warning when a connection is held for longer than the given threshold
+     *
+     * @param threshold the time, in milliseconds, a connection can be held for, 0 to disable leak detection
+     * @return the properties
+     */
+    public MySQLProperties withLeakDetection(long threshold) {
+        poolConfig.setLeakDetectionThreshold(threshold);
+        return this;
+    }
+
+    /**
+     * Set a property of the driver, this overrides the defaults of the {@link MySQLDatabase}
+     *
+     * @param key the property key
+     * @param value the property value
+     * @return the properties
+     */
+    public MySQLProperties withDataSourceProperty(@NonNull String key, @NonNull String value) {
+        poolConfig.addDataSourceProperty(key, value);
+        return this;
+    }
+
+    /**
+     * Set the amount of rows that are sent to the server in a single batch
+     *
+     * @param batchSize the batch size
+     * @return the properties
+     */
+    public MySQLProperties withBatchSize(int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Set the amount of rows that are fetched at a time when streaming a query
+     *
+     * @param fetchSize the fetch size, 0 to stream rows one by one
+     * @return the properties
+     * @apiNote Fetch sizes above 0 use a server side cursor, which requires the
+     *          "useCursorFetch" data source property to be enabled
+     */
+    public MySQLProperties withFetchSize(int fetchSize) {
+        if (fetchSize < 0)
+            throw new IllegalArgumentException("Fetch size cannot be negative");
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    /**
+     * Set the size of the executor used by the {@link AsyncMySQLRepository}
+     *
+     * @param threads the amount of queries that can run at once, 0 to use the maximum pool size of the data source
+     * @param queueSize the amount of queries that can be waiting to run before callers are blocked
+     * @return the properties
+     */
+    public MySQLProperties withAsyncExecutor(int threads, int queueSize) {
+        return withAsyncExecutor(threads, queueSize, asyncVirtualThreads);
+    }
+
+    /**
+     * Set the size of the executor used by the {@link AsyncMySQLRepository}
+     *
+     * @param threads the amount of queries that can run at once, 0 to use the maximum pool size of the data source
+     * @param queueSize the amount of queries that can be waiting to run before callers are blocked
+     * @param virtualThreads whether or not to run queries on virtual threads if the JVM supports them
+     * @return the properties
+     */
+    public MySQLProperties withAsyncExecutor(int threads, int queueSize, boolean virtualThreads) {
+        if (threads < 0)
+            throw new IllegalArgumentException("Async thread count cannot be negative");
+        if (queueSize < 0)
+            throw new IllegalArgumentException("Async queue size cannot be negative");
+        asyncThreads = threads;
+        asyncQueueSize = queueSize;
+        asyncVirtualThreads = virtualThreads;
+        return this;
+    }
+
+    /**
+     * Set the thresholds used by the {@link WriteBehindWriter}
+     *
+     * @param queueSize the amount of writes that can be queued before callers are blocked
+     * @param flushSize the amount of queued writes that triggers a flush
+     * @param flushInterval the interval, in milliseconds, between flushes
+     * @return the properties
+     */
+    public MySQLProperties withWriteBehind(int queueSize, int flushSize, long flushInterval) {
+        if (queueSize < 1 || (flushSize < 1))
+            throw new IllegalArgumentException("Write behind queue and flush sizes must be at least 1");
+        if (flushInterval < 1L)
+            throw new IllegalArgumentException("Write behind flush interval must be at least 1ms");
+        writeBehindQueueSize = queueSize;
+        writeBehindFlushSize = flushSize;
+        writeBehindFlushInterval = flushInterval;
+        return this;
+    }
+
+    /**
+     * Enable the {@link QueryCache} for read queries executed through the repository
+     *
+     * @param maxEntries the maximum amount of results to cache
+     * @param ttl the time, in milliseconds, a result is cached for
+     * @return the properties
+     * @apiNote Only queries that open their own connection are cached, queries executed on a
+     *          provided connection always go to the database. Cache misses are read from the
+     *          primary rather than a replica, so a lagging replica can't refill an invalidated result
+     */
+    public MySQLProperties withQueryCache(int maxEntries, long ttl) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("The query cache must be able to hold at least 1 entry");
+        if (ttl < 1L)
+            throw new IllegalArgumentException("The query cache ttl must be at least 1ms");
+        queryCacheSize = maxEntries;
+        queryCacheTtl = ttl;
+        return this;
+    }
+
+    /**
+     * Set the {@link ReplicaStrategy} used to pick the replica a read query is routed to
+     *
+     * @param replicaStrategy the replica strategy
+     * @return the properties
+     */
+    public MySQLProperties withReplicaStrategy(@NonNull ReplicaStrategy replicaStrategy) {
+        this.replicaStrategy = replicaStrategy;
+        return this;
+    }
+
+    /**
+     * Route the reads of a thread to the primary for the given window after the thread writes,
+     * so the thread doesn't read stale data from a replica that hasn't caught up yet
+     *
+     * @param window the time, in milliseconds, to read from the primary for, 0 to always use the replicas
+     * @return the properties
+     */
+    public MySQLProperties withReadYourWrites(long window) {
+        if (window < 0L)
+            throw new IllegalArgumentException("Read your writes window cannot be negative");
+        readYourWritesWindow = window;
+        return this;
+    }
+
+    /**
+     * Enable the {@link SlowQueryLog} for queries executed through the repository
+     *
+     * @param threshold the time, in milliseconds, a query has to take to be logged
+     * @param maxTemplates the maximum amount of query templates to keep
+     * @return the properties
+     */
+    public MySQLProperties withSlowQueryLog(long threshold, int maxTemplates) {
+        return withSlowQueryLog(threshold, maxTemplates, 0L);
+    }
+
+    /**
+     * Enable the {@link SlowQueryLog} for queries executed through the repository
+     *
+     * @param threshold the time, in milliseconds, a query has to take to be logged
+     * @param maxTemplates the maximum amount of query templates to keep
+     * @param dumpInterval the interval, in milliseconds, between logging the slowest templates, 0 to never log them
+     * @return the properties
+     */
+    public MySQLProperties withSlowQueryLog(long threshold, int maxTemplates, long dumpInterval) {
+        if (threshold < 1L)
+            throw new IllegalArgumentException("The slow query threshold must be at least 1ms");
+        if (maxTemplates < 1)
+            throw new IllegalArgumentException("The slow query log must be able to hold at least 1 template");
+        if (dumpInterval < 0L)
+            throw new IllegalArgumentException("The slow query dump interval cannot be negative");
+        slowQueryThreshold = threshold;
+        slowQueryTemplates = maxTemplates;
+        slowQueryDumpInterval = dumpInterval;
+        return this;
+    }
+
+    /**
+     * Warm up the connection pools when connecting. Each pool is filled to its minimum idle size, and
+     * the given statements are prepared on every connection so the statement cache of the driver is warm
+     *
+     * @param statements the hot statements to prepare
+     * @return the properties
+     */
+    public MySQLProperties withWarmUp(@NonNull String... statements) {
+        warmUp = true;
+        warmUpStatements.addAll(Arrays.asList(statements));
+        return this;
+    }
+
+    /**
+     * Get the statements prepared on every connection when warming up
+     *
+     * @return the warm up statements
+     */
+    public List<String> getWarmUpStatements() {
+        return Collections.unmodifiableList(warmUpStatements);
     }
 
     @Override
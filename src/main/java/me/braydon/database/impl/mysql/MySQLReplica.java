@@ -0,0 +1,37 @@
+package me.braydon.database.impl.mysql;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * This class represents a read replica of a {@link MySQLDatabase}, read queries are
+ * routed to the replicas while writes and transactions go to the primary
+ *
+ * @author Braydon
+ * @see MySQLDatabase#withReplica(String, int)
+ */
+@RequiredArgsConstructor @Getter
+public class MySQLReplica {
+    private final String host;
+    private final int port;
+
+    /**
+     * The uri to connect to the replica with, null to build it from the host and port
+     */
+    private final String uri;
+    @Setter(AccessLevel.PROTECTED) private HikariDataSource dataSource;
+
+    /**
+     * Get the amount of connections to this replica that are currently in use
+     *
+     * @return the amount of active connections
+     */
+    public int getActiveConnections() {
+        HikariPoolMXBean pool = dataSource == null ? null : dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+}
@@ -1,11 +1,27 @@
 package me.braydon.database.impl.mysql;
 
+import com.mysql.cj.jdbc.JdbcStatement;
+import com.zaxxer.hikari.HikariDataSource;
 import lombok.NonNull;
 import me.braydon.database.DatabaseRepository;
+import me.braydon.database.impl.mysql.cache.QueryCache;
 import me.braydon.database.impl.mysql.data.Column;
+import me.braydon.database.impl.mysql.data.Table;
+import me.braydon.database.impl.mysql.log.SlowQueryLog;
+import me.braydon.database.impl.mysql.query.Parameters;
+import me.braydon.database.impl.mysql.query.PreparedQuery;
+import me.braydon.database.impl.mysql.query.ResultSetHandler;
+import me.braydon.database.impl.mysql.query.ResultSetIterator;
+import me.braydon.database.impl.mysql.query.RowMapper;
+import me.braydon.database.impl.mysql.query.Upsert;
+import me.braydon.database.metrics.DatabaseMetrics;
 
 import java.sql.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implementation of the {@link DatabaseRepository} for the {@link MySQLDatabase}
@@ -13,6 +29,11 @@ import java.util.function.Consumer;
  * @author Braydon
  */
 public class MySQLRepository extends DatabaseRepository<MySQLDatabase> {
+    /**
+     * The maximum amount of warnings to keep from a bulk load
+     */
+    private static final int MAX_LOAD_WARNINGS = 64;
+
     public MySQLRepository(MySQLDatabase database) {
         super(database);
     }
@@ -51,7 +72,7 @@ public class MySQLRepository extends DatabaseRepository<MySQLDatabase> {
      */
     public int executeInsert(@NonNull String query, @NonNull Column<?>[] columns, Consumer<ResultSet> onComplete,
                                 Consumer<SQLException> onException) {
-        try (Connection connection = database.getDataSource().getConnection()) {
+        try (Connection connection = database.getConnection(database.getDataSource())) {
             return executeInsert(connection, query, columns, onComplete, onException);
         } catch (SQLException ex) {
             if (onException != null)
@@ -99,28 +120,240 @@ public class MySQLRepository extends DatabaseRepository<MySQLDatabase> {
      */
     public int executeInsert(@NonNull Connection connection, @NonNull String query, @NonNull Column<?>[] columns,
                                 Consumer<ResultSet> onComplete, Consumer<SQLException> onException) {
-        int questionMarks = 0;
-        for (char character : query.toCharArray()) {
-            if (character == '?') {
-                questionMarks++;
-            }
+        return executeInsert(connection, PreparedQuery.of(query), columns, onComplete, onException);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and insert the given columns using the provided query
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to insert
+     * @return the amount of rows affected
+     */
+    public int executeInsert(@NonNull PreparedQuery query, @NonNull Column<?>[] columns) {
+        return executeInsert(query, columns, null, null);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and insert the given columns using the provided query
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to insert
+     * @param onComplete the {@link Consumer} of {@link ResultSet} that gets called when the query has completed
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the amount of rows affected
+     */
+    public int executeInsert(@NonNull PreparedQuery query, @NonNull Column<?>[] columns, Consumer<ResultSet> onComplete,
+                             Consumer<SQLException> onException) {
+        try (Connection connection = database.getConnection(database.getDataSource())) {
+            return executeInsert(connection, query, columns, onComplete, onException);
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
         }
-        if (questionMarks != columns.length)
-            throw new IllegalArgumentException("Invalid amount of columns for query \"" + query + "\"");
-        int affectedRows = 0;
-        try (PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-            int columnIndex = 1;
-            for (Column<?> column : columns)
-                statement.setString(columnIndex++, column.getValue() == null ? null : column.getValue().toString());
-            affectedRows = statement.executeUpdate();
-            if (onComplete != null)
-                onComplete.accept(statement.getGeneratedKeys());
+        return -1;
+    }
+
+    /**
+     * Insert the given columns using the provided query
+     *
+     * @param connection the connection to execute the query on
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to insert
+     * @param onComplete the {@link Consumer} of {@link ResultSet} that gets called when the query has completed
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the amount of rows affected
+     */
+    public int executeInsert(@NonNull Connection connection, @NonNull PreparedQuery query, @NonNull Column<?>[] columns,
+                             Consumer<ResultSet> onComplete, Consumer<SQLException> onException) {
+        query.validate(columns);
+        try {
+            return insert(connection, query, columns, onComplete);
         } catch (SQLException ex) {
             if (onException != null)
                 onException.accept(ex);
             ex.printStackTrace();
         }
-        return affectedRows;
+        return 0;
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and insert the given parameters using the provided query
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param parameters the {@link Parameters} to insert
+     * @return the amount of rows affected, -1 if the insert failed
+     */
+    public int executeInsert(@NonNull PreparedQuery query, @NonNull Parameters parameters) {
+        return executeInsert(query, parameters, null);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and insert the given parameters using the provided query
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param parameters the {@link Parameters} to insert
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the amount of rows affected, -1 if the insert failed
+     */
+    public int executeInsert(@NonNull PreparedQuery query, @NonNull Parameters parameters, Consumer<SQLException> onException) {
+        try (Connection connection = database.getConnection(database.getDataSource())) {
+            return executeInsert(connection, query, parameters, onException);
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        }
+        return -1;
+    }
+
+    /**
+     * Insert the given parameters using the provided query
+     *
+     * @param connection the connection to execute the query on
+     * @param query the {@link PreparedQuery} to execute
+     * @param parameters the {@link Parameters} to insert
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the amount of rows affected, -1 if the insert failed
+     */
+    public int executeInsert(@NonNull Connection connection, @NonNull PreparedQuery query, @NonNull Parameters parameters,
+                             Consumer<SQLException> onException) {
+        query.validate(parameters);
+        try {
+            return insert(connection, query, parameters);
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        }
+        return -1;
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and insert the given rows using the provided query
+     * as a batch. The batch size is taken from the {@link MySQLProperties} of the database
+     *
+     * @param query the query to execute for each row
+     * @param rows the rows to insert, each row being a {@link Column} array
+     * @return the result of the batch, null if it failed
+     */
+    public BatchResult executeBatch(@NonNull String query, @NonNull List<Column<?>[]> rows) {
+        return executeBatch(query, rows, database.getProperties().getBatchSize());
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and insert the given rows using the provided query
+     * as a batch
+     *
+     * @param query the query to execute for each row
+     * @param rows the rows to insert, each row being a {@link Column} array
+     * @param batchSize the amount of rows to send to the server at a time
+     * @return the result of the batch, null if it failed
+     */
+    public BatchResult executeBatch(@NonNull String query, @NonNull List<Column<?>[]> rows, int batchSize) {
+        return executeBatch(query, rows, batchSize, null);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and insert the given rows using the provided query
+     * as a batch
+     *
+     * @param query the query to execute for each row
+     * @param rows the rows to insert, each row being a {@link Column} array
+     * @param batchSize the amount of rows to send to the server at a time
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the result of the batch, null if it failed
+     */
+    public BatchResult executeBatch(@NonNull String query, @NonNull List<Column<?>[]> rows, int batchSize,
+                                    Consumer<SQLException> onException) {
+        try (Connection connection = database.getConnection(database.getDataSource())) {
+            return executeBatch(connection, query, rows, batchSize, onException);
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Insert the given rows using the provided query as a batch
+     *
+     * @param connection the connection to execute the batch on
+     * @param query the query to execute for each row
+     * @param rows the rows to insert, each row being a {@link Column} array
+     * @param batchSize the amount of rows to send to the server at a time
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the result of the batch, null if it failed
+     * @apiNote The driver will only rewrite the batch into multi-row statements if the
+     *          "rewriteBatchedStatements" data source property is enabled, which is the default
+     */
+    public BatchResult executeBatch(@NonNull Connection connection, @NonNull String query, @NonNull List<Column<?>[]> rows,
+                                    int batchSize, Consumer<SQLException> onException) {
+        return executeBatch(connection, PreparedQuery.of(query), rows, batchSize, onException);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and insert the given rows using the provided query
+     * as a batch. The batch size is taken from the {@link MySQLProperties} of the database
+     *
+     * @param query the {@link PreparedQuery} to execute for each row
+     * @param rows the rows to insert, each row being a {@link Column} array
+     * @return the result of the batch, null if it failed
+     */
+    public BatchResult executeBatch(@NonNull PreparedQuery query, @NonNull List<Column<?>[]> rows) {
+        return executeBatch(query, rows, database.getProperties().getBatchSize(), null);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and insert the given rows using the provided query
+     * as a batch
+     *
+     * @param query the {@link PreparedQuery} to execute for each row
+     * @param rows the rows to insert, each row being a {@link Column} array
+     * @param batchSize the amount of rows to send to the server at a time
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the result of the batch, null if it failed
+     */
+    public BatchResult executeBatch(@NonNull PreparedQuery query, @NonNull List<Column<?>[]> rows, int batchSize,
+                                    Consumer<SQLException> onException) {
+        try (Connection connection = database.getConnection(database.getDataSource())) {
+            return executeBatch(connection, query, rows, batchSize, onException);
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Insert the given rows using the provided query as a batch
+     *
+     * @param connection the connection to execute the batch on
+     * @param query the {@link PreparedQuery} to execute for each row
+     * @param rows the rows to insert, each row being a {@link Column} array
+     * @param batchSize the amount of rows to send to the server at a time
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the result of the batch, null if it failed
+     * @apiNote The driver will only rewrite the batch into multi-row statements if the
+     *          "rewriteBatchedStatements" data source property is enabled, which is the default
+     */
+    public BatchResult executeBatch(@NonNull Connection connection, @NonNull PreparedQuery query, @NonNull List<Column<?>[]> rows,
+                                    int batchSize, Consumer<SQLException> onException) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        for (Column<?>[] columns : rows)
+            query.validate(columns);
+        try {
+            return batch(connection, query, rows, batchSize);
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        }
+        return null;
     }
 
     /**
@@ -165,13 +398,7 @@ public class MySQLRepository extends DatabaseRepository<MySQLDatabase> {
      */
     public void executeQuery(@NonNull String query, Column<?>[] columns, @NonNull Consumer<ResultSet> onComplete,
                              Consumer<SQLException> onException) {
-        try (Connection connection = database.getDataSource().getConnection()) {
-            executeQuery(connection, query, columns, onComplete, onException);
-        } catch (SQLException ex) {
-            if (onException != null)
-                onException.accept(ex);
-            ex.printStackTrace();
-        }
+        executeQuery(PreparedQuery.of(query), columns, onComplete, onException);
     }
 
     /**
@@ -198,29 +425,37 @@ public class MySQLRepository extends DatabaseRepository<MySQLDatabase> {
      */
     public void executeQuery(@NonNull Connection connection, @NonNull String query, Column<?>[] columns,
                                 @NonNull Consumer<ResultSet> onComplete, Consumer<SQLException> onException) {
-        if (columns != null) {
-            int questionMarks = 0;
-            for (char character : query.toCharArray()) {
-                if (character == '?') {
-                    questionMarks++;
-                }
-            }
-            if (questionMarks != columns.length)
-                throw new IllegalArgumentException("Invalid amount of columns for query \"" + query + "\"");
-        }
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            if (columns != null) {
-                int columnIndex = 1;
-                for (Column<?> column : columns)
-                    statement.setString(columnIndex++, (column.getValue() == null ? null : column.getValue().toString()));
-            }
-            try (ResultSet resultSet = statement.executeQuery()) {
+        executeQuery(connection, PreparedQuery.of(query), columns, onComplete, onException);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and execute the given query
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param onComplete the {@link Consumer} of {@link ResultSet} that gets called when the query has completed
+     */
+    public void executeQuery(@NonNull PreparedQuery query, Column<?>[] columns, @NonNull Consumer<ResultSet> onComplete) {
+        executeQuery(query, columns, onComplete, null);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and execute the given query
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param onComplete the {@link Consumer} of {@link ResultSet} that gets called when the query has completed
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     */
+    public void executeQuery(@NonNull PreparedQuery query, Column<?>[] columns, @NonNull Consumer<ResultSet> onComplete,
+                             Consumer<SQLException> onException) {
+        if (columns != null)
+            query.validate(columns);
+        try {
+            query(query, columns, resultSet -> {
                 onComplete.accept(resultSet);
-            } catch (SQLException ex) {
-                if (onException != null)
-                    onException.accept(ex);
-                ex.printStackTrace();
-            }
+                return null;
+            });
         } catch (SQLException ex) {
             if (onException != null)
                 onException.accept(ex);
@@ -229,80 +464,1140 @@ public class MySQLRepository extends DatabaseRepository<MySQLDatabase> {
     }
 
     /**
-     * Open a new connection using the {@link MySQLDatabase} and execute the given query
+     * Execute the given query
      *
-     * @param query the query to execute
+     * @param connection the connection to execute the query on
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param onComplete the {@link Consumer} of {@link ResultSet} that gets called when the query has completed
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
      */
-    public void executeQuery(@NonNull String query) {
-        executeQuery(query, (Runnable) null);
+    public void executeQuery(@NonNull Connection connection, @NonNull PreparedQuery query, Column<?>[] columns,
+                             @NonNull Consumer<ResultSet> onComplete, Consumer<SQLException> onException) {
+        if (columns != null)
+            query.validate(columns);
+        try {
+            query(connection, query, columns, resultSet -> {
+                onComplete.accept(resultSet);
+                return null;
+            });
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        }
     }
 
     /**
-     * Open a new connection using the {@link MySQLDatabase} and execute the given query
+     * Execute the given query, using the {@link QueryCache} of the database if it's enabled
      *
-     * @param query the query to execute
-     * @param onComplete the {@link Consumer} of {@link ResultSet} that gets called when the query has completed
+     * @param query the {@link PreparedQuery} to execute
+     * @param parameters the {@link Parameters} to use in the query
+     * @param handler the {@link ResultSetHandler} to handle the result with
+     * @return the result of the handler, null if the query failed
      */
-    public void executeQuery(@NonNull String query, Runnable onComplete) {
-        executeQuery(query, onComplete, null);
+    public <T> T executeQuery(@NonNull PreparedQuery query, @NonNull Parameters parameters, @NonNull ResultSetHandler<T> handler) {
+        return executeQuery(query, parameters, handler, null);
     }
 
     /**
-     * Open a new connection using the {@link MySQLDatabase} and execute the given query
+     * Execute the given query, using the {@link QueryCache} of the database if it's enabled
      *
-     * @param query the query to execute
-     * @param onComplete the {@link Consumer} of {@link ResultSet} that gets called when the query has completed
+     * @param query the {@link PreparedQuery} to execute
+     * @param parameters the {@link Parameters} to use in the query
+     * @param handler the {@link ResultSetHandler} to handle the result with
      * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the result of the handler, null if the query failed
      */
-    public void executeQuery(@NonNull String query, Runnable onComplete, Consumer<SQLException> onException) {
-        try (Connection connection = database.getDataSource().getConnection()) {
-            executeQuery(connection, query, onComplete);
+    public <T> T executeQuery(@NonNull PreparedQuery query, @NonNull Parameters parameters, @NonNull ResultSetHandler<T> handler,
+                              Consumer<SQLException> onException) {
+        query.validate(parameters);
+        try {
+            return query(query, parameters, handler);
         } catch (SQLException ex) {
             if (onException != null)
                 onException.accept(ex);
             ex.printStackTrace();
         }
+        return null;
     }
 
     /**
      * Execute the given query
      *
      * @param connection the connection to execute the query on
+     * @param query the {@link PreparedQuery} to execute
+     * @param parameters the {@link Parameters} to use in the query
+     * @param handler the {@link ResultSetHandler} to handle the result with
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the result of the handler, null if the query failed
+     */
+    public <T> T executeQuery(@NonNull Connection connection, @NonNull PreparedQuery query, @NonNull Parameters parameters,
+                              @NonNull ResultSetHandler<T> handler, Consumer<SQLException> onException) {
+        query.validate(parameters);
+        try {
+            return query(connection, query, parameters, handler);
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and execute the given query, mapping each row with the given {@link RowMapper}
+     *
      * @param query the query to execute
+     * @param mapper the {@link RowMapper} to map each row with
+     * @return the mapped rows, empty if the query failed
      */
-    public void executeQuery(@NonNull Connection connection, @NonNull String query) {
-        executeQuery(connection, query, null);
+    public <T> List<T> executeList(@NonNull String query, @NonNull RowMapper<T> mapper) {
+        return executeList(query, null, mapper, null);
     }
 
     /**
-     * Execute the given query
+     * Open a new connection using the {@link MySQLDatabase} and execute the given query, mapping each row with the given {@link RowMapper}
      *
-     * @param connection the connection to execute the query on
      * @param query the query to execute
-     * @param onComplete the {@link Consumer} of {@link ResultSet} that gets called when the query has completed
+     * @param columns the {@link Column} array to use in the query
+     * @param mapper the {@link RowMapper} to map each row with
+     * @return the mapped rows, empty if the query failed
      */
-    public void executeQuery(@NonNull Connection connection, @NonNull String query, Runnable onComplete) {
-        executeQuery(connection, query, onComplete, null);
+    public <T> List<T> executeList(@NonNull String query, Column<?>[] columns, @NonNull RowMapper<T> mapper) {
+        return executeList(query, columns, mapper, null);
     }
 
     /**
-     * Execute the given query
+     * Open a new connection using the {@link MySQLDatabase} and execute the given query, mapping each row with the given {@link RowMapper}
+     *
+     * @param query the query to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param mapper the {@link RowMapper} to map each row with
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the mapped rows, empty if the query failed
+     */
+    public <T> List<T> executeList(@NonNull String query, Column<?>[] columns, @NonNull RowMapper<T> mapper,
+                                   Consumer<SQLException> onException) {
+        return executeList(PreparedQuery.of(query), columns, mapper, onException);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and execute the given query, mapping each row with the given {@link RowMapper}
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param mapper the {@link RowMapper} to map each row with
+     * @return the mapped rows, empty if the query failed
+     */
+    public <T> List<T> executeList(@NonNull PreparedQuery query, Column<?>[] columns, @NonNull RowMapper<T> mapper) {
+        return executeList(query, columns, mapper, null);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and execute the given query, mapping each row with the given {@link RowMapper}
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param mapper the {@link RowMapper} to map each row with
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the mapped rows, empty if the query failed
+     */
+    public <T> List<T> executeList(@NonNull PreparedQuery query, Column<?>[] columns, @NonNull RowMapper<T> mapper,
+                                   Consumer<SQLException> onException) {
+        if (columns != null)
+            query.validate(columns);
+        try {
+            return query(query, columns, mapper.toList());
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Execute the given query, mapping each row with the given {@link RowMapper}
      *
      * @param connection the connection to execute the query on
      * @param query the query to execute
-     * @param onComplete the {@link Consumer} of {@link ResultSet} that gets called when the query has completed
+     * @param columns the {@link Column} array to use in the query
+     * @param mapper the {@link RowMapper} to map each row with
      * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the mapped rows, empty if the query failed
      */
-    public void executeQuery(@NonNull Connection connection, @NonNull String query, Runnable onComplete,
-                             Consumer<SQLException> onException) {
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.execute();
-            if (onComplete != null)
-                onComplete.run();
+    public <T> List<T> executeList(@NonNull Connection connection, @NonNull String query, Column<?>[] columns,
+                                   @NonNull RowMapper<T> mapper, Consumer<SQLException> onException) {
+        return executeList(connection, PreparedQuery.of(query), columns, mapper, onException);
+    }
+
+    /**
+     * Execute the given query, mapping each row with the given {@link RowMapper}
+     *
+     * @param connection the connection to execute the query on
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param mapper the {@link RowMapper} to map each row with
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the mapped rows, empty if the query failed
+     */
+    public <T> List<T> executeList(@NonNull Connection connection, @NonNull PreparedQuery query, Column<?>[] columns,
+                                   @NonNull RowMapper<T> mapper, Consumer<SQLException> onException) {
+        if (columns != null)
+            query.validate(columns);
+        try {
+            return query(connection, query, columns, mapper.toList());
         } catch (SQLException ex) {
             if (onException != null)
                 onException.accept(ex);
             ex.printStackTrace();
         }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and execute the given query, mapping each row to the given type
+     *
+     * @param query the query to execute
+     * @param type the class or record to map each row to
+     * @return the mapped rows, empty if the query failed
+     * @see RowMapper#of(Class)
+     */
+    public <T> List<T> executeList(@NonNull String query, @NonNull Class<T> type) {
+        return executeList(query, null, type, null);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and execute the given query, mapping each row to the given type
+     *
+     * @param query the query to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param type the class or record to map each row to
+     * @return the mapped rows, empty if the query failed
+     * @see RowMapper#of(Class)
+     */
+    public <T> List<T> executeList(@NonNull String query, Column<?>[] columns, @NonNull Class<T> type) {
+        return executeList(query, columns, type, null);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and execute the given query, mapping each row to the given type
+     *
+     * @param query the query to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param type the class or record to map each row to
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the mapped rows, empty if the query failed
+     * @see RowMapper#of(Class)
+     */
+    public <T> List<T> executeList(@NonNull String query, Column<?>[] columns, @NonNull Class<T> type,
+                                   Consumer<SQLException> onException) {
+        return executeList(PreparedQuery.of(query), columns, type, onException);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and execute the given query, mapping each row to the given type
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param type the class or record to map each row to
+     * @return the mapped rows, empty if the query failed
+     * @see RowMapper#of(Class)
+     */
+    public <T> List<T> executeList(@NonNull PreparedQuery query, Column<?>[] columns, @NonNull Class<T> type) {
+        return executeList(query, columns, type, null);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and execute the given query, mapping each row to the given type
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param type the class or record to map each row to
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the mapped rows, empty if the query failed
+     * @see RowMapper#of(Class)
+     */
+    public <T> List<T> executeList(@NonNull PreparedQuery query, Column<?>[] columns, @NonNull Class<T> type,
+                                   Consumer<SQLException> onException) {
+        return executeList(query, columns, RowMapper.of(type), onException);
+    }
+
+    /**
+     * Execute the given query, mapping each row to the given type
+     *
+     * @param connection the connection to execute the query on
+     * @param query the query to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param type the class or record to map each row to
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the mapped rows, empty if the query failed
+     * @see RowMapper#of(Class)
+     */
+    public <T> List<T> executeList(@NonNull Connection connection, @NonNull String query, Column<?>[] columns,
+                                   @NonNull Class<T> type, Consumer<SQLException> onException) {
+        return executeList(connection, PreparedQuery.of(query), columns, type, onException);
+    }
+
+    /**
+     * Execute the given query, mapping each row to the given type
+     *
+     * @param connection the connection to execute the query on
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param type the class or record to map each row to
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the mapped rows, empty if the query failed
+     * @see RowMapper#of(Class)
+     */
+    public <T> List<T> executeList(@NonNull Connection connection, @NonNull PreparedQuery query, Column<?>[] columns,
+                                   @NonNull Class<T> type, Consumer<SQLException> onException) {
+        return executeList(connection, query, columns, RowMapper.of(type), onException);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and stream the rows of the given query.
+     * The fetch size is taken from the {@link MySQLProperties} of the database
+     *
+     * @param query the query to execute
+     * @param mapper the {@link RowMapper} to map each row with
+     * @return the lazily evaluated stream of mapped rows
+     * @apiNote The stream holds the connection until it has been fully consumed or closed,
+     *          so it should be used in a try-with-resources block
+     */
+    public <T> Stream<T> executeStream(@NonNull String query, @NonNull RowMapper<T> mapper) {
+        return executeStream(query, null, mapper);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and stream the rows of the given query.
+     * The fetch size is taken from the {@link MySQLProperties} of the database
+     *
+     * @param query the query to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param mapper the {@link RowMapper} to map each row with
+     * @return the lazily evaluated stream of mapped rows
+     * @apiNote The stream holds the connection until it has been fully consumed or closed,
+     *          so it should be used in a try-with-resources block
+     */
+    public <T> Stream<T> executeStream(@NonNull String query, Column<?>[] columns, @NonNull RowMapper<T> mapper) {
+        return executeStream(PreparedQuery.of(query), columns, mapper, database.getProperties().getFetchSize(), null);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and stream the rows of the given query
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param mapper the {@link RowMapper} to map each row with
+     * @param fetchSize the amount of rows to fetch at a time, 0 to stream rows one by one
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the lazily evaluated stream of mapped rows, empty if the query failed
+     * @apiNote The stream holds the connection until it has been fully consumed or closed,
+     *          so it should be used in a try-with-resources block
+     */
+    public <T> Stream<T> executeStream(@NonNull PreparedQuery query, Column<?>[] columns, @NonNull RowMapper<T> mapper,
+                                       int fetchSize, Consumer<SQLException> onException) {
+        if (columns != null)
+            query.validate(columns);
+        try {
+            return stream(query, columns, mapper, fetchSize);
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        }
+        return Stream.empty();
+    }
+
+    /**
+     * Stream the rows of the given query
+     *
+     * @param connection the connection to execute the query on
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param mapper the {@link RowMapper} to map each row with
+     * @param fetchSize the amount of rows to fetch at a time, 0 to stream rows one by one
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the lazily evaluated stream of mapped rows, empty if the query failed
+     * @apiNote The connection can't be used for other queries until the stream has been fully consumed
+     *          or closed. Closing the stream doesn't close the connection
+     */
+    public <T> Stream<T> executeStream(@NonNull Connection connection, @NonNull PreparedQuery query, Column<?>[] columns,
+                                       @NonNull RowMapper<T> mapper, int fetchSize, Consumer<SQLException> onException) {
+        if (columns != null)
+            query.validate(columns);
+        try {
+            return stream(connection, query, columns, mapper, fetchSize);
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        }
+        return Stream.empty();
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and execute the given query
+     *
+     * @param query the query to execute
+     */
+    public void executeQuery(@NonNull String query) {
+        executeQuery(query, (Runnable) null);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and execute the given query
+     *
+     * @param query the query to execute
+     * @param onComplete the {@link Consumer} of {@link ResultSet} that gets called when the query has completed
+     */
+    public void executeQuery(@NonNull String query, Runnable onComplete) {
+        executeQuery(query, onComplete, null);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and execute the given query
+     *
+     * @param query the query to execute
+     * @param onComplete the {@link Consumer} of {@link ResultSet} that gets called when the query has completed
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     */
+    public void executeQuery(@NonNull String query, Runnable onComplete, Consumer<SQLException> onException) {
+        try (Connection connection = database.getConnection(database.getDataSource())) {
+            executeQuery(connection, query, onComplete);
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Execute the given query
+     *
+     * @param connection the connection to execute the query on
+     * @param query the query to execute
+     */
+    public void executeQuery(@NonNull Connection connection, @NonNull String query) {
+        executeQuery(connection, query, null);
+    }
+
+    /**
+     * Execute the given query
+     *
+     * @param connection the connection to execute the query on
+     * @param query the query to execute
+     * @param onComplete the {@link Consumer} of {@link ResultSet} that gets called when the query has completed
+     */
+    public void executeQuery(@NonNull Connection connection, @NonNull String query, Runnable onComplete) {
+        executeQuery(connection, query, onComplete, null);
+    }
+
+    /**
+     * Execute the given query
+     *
+     * @param connection the connection to execute the query on
+     * @param query the query to execute
+     * @param onComplete the {@link Consumer} of {@link ResultSet} that gets called when the query has completed
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     */
+    public void executeQuery(@NonNull Connection connection, @NonNull String query, Runnable onComplete,
+                             Consumer<SQLException> onException) {
+        long started = System.nanoTime();
+        boolean success = false;
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.execute();
+            success = true;
+            written(PreparedQuery.of(query));
+            if (onComplete != null)
+                onComplete.run();
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        } finally {
+            record("mysql.execute", started, success, PreparedQuery.of(query), Collections.emptyList());
+        }
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and upsert the given rows
+     *
+     * @param upsert the {@link Upsert} to execute
+     * @param rows the rows to upsert, each row being a {@link Column} array in the order of the table columns
+     * @return the amount of rows affected, -1 if the upsert failed
+     * @see #executeUpsert(Connection, Upsert, List, Consumer)
+     */
+    public int executeUpsert(@NonNull Upsert upsert, @NonNull List<Column<?>[]> rows) {
+        return executeUpsert(upsert, rows, null);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and upsert the given rows
+     *
+     * @param upsert the {@link Upsert} to execute
+     * @param rows the rows to upsert, each row being a {@link Column} array in the order of the table columns
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the amount of rows affected, -1 if the upsert failed
+     * @see #executeUpsert(Connection, Upsert, List, Consumer)
+     */
+    public int executeUpsert(@NonNull Upsert upsert, @NonNull List<Column<?>[]> rows, Consumer<SQLException> onException) {
+        try (Connection connection = database.getConnection(database.getDataSource())) {
+            return executeUpsert(connection, upsert, rows, onException);
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        }
+        return -1;
+    }
+
+    /**
+     * Upsert the given rows, packing as many rows as possible into each query.
+     * <p>
+     * The rows are split into chunks of at most the batch size from the {@link MySQLProperties}, which
+     * are made smaller where needed to keep each query under the "max_allowed_packet" of the server.
+     * The chunks aren't executed in a transaction, so if one fails the chunks before it stay written.
+     *
+     * @param connection the connection to execute the upsert on
+     * @param upsert the {@link Upsert} to execute
+     * @param rows the rows to upsert, each row being a {@link Column} array in the order of the table columns
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the amount of rows affected, counting 1 for each inserted row and 2 for each updated row, -1 if the upsert failed
+     */
+    public int executeUpsert(@NonNull Connection connection, @NonNull Upsert upsert, @NonNull List<Column<?>[]> rows,
+                             Consumer<SQLException> onException) {
+        for (Column<?>[] columns : rows)
+            upsert.validate(columns);
+        try {
+            return upsert(connection, upsert, rows);
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        }
+        return -1;
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and bulk load the given rows into the provided table
+     *
+     * @param table the {@link Table} to load the rows into
+     * @param rows the rows to load, each row being a {@link Column} array in the order of the table columns
+     * @return the result of the load, null if the load failed
+     * @see #executeLoad(Connection, Table, Iterator, Consumer)
+     */
+    public LoadResult executeLoad(@NonNull Table table, @NonNull Iterator<Column<?>[]> rows) {
+        return executeLoad(table, rows, null);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and bulk load the given rows into the provided table
+     *
+     * @param table the {@link Table} to load the rows into
+     * @param rows the rows to load, each row being a {@link Column} array in the order of the table columns
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the result of the load, null if the load failed
+     * @see #executeLoad(Connection, Table, Iterator, Consumer)
+     */
+    public LoadResult executeLoad(@NonNull Table table, @NonNull Iterator<Column<?>[]> rows, Consumer<SQLException> onException) {
+        try (Connection connection = database.getConnection(database.getDataSource())) {
+            return executeLoad(connection, table, rows, onException);
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Bulk load the given rows into the provided table using "LOAD DATA LOCAL INFILE".
+     * <p>
+     * The rows are encoded as they're read by the driver and streamed to the server, so there's
+     * no temporary file and only a small chunk of the rows is held in memory at a time. This is
+     * considerably faster than batched inserts for large amounts of rows.
+     *
+     * @param connection the connection to execute the load on
+     * @param table the {@link Table} to load the rows into
+     * @param rows the rows to load, each row being a {@link Column} array in the order of the table columns
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the result of the load, null if the load failed
+     * @apiNote This requires "local_infile" to be enabled on the server and "allowLoadLocalInfile=true"
+     *          to be set as a data source property. Temporal values are sent in the time zone of the JVM
+     */
+    public LoadResult executeLoad(@NonNull Connection connection, @NonNull Table table, @NonNull Iterator<Column<?>[]> rows,
+                                  Consumer<SQLException> onException) {
+        try {
+            return load(connection, table, rows);
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and execute the given work in a transaction
+     *
+     * @param work the {@link TransactionWork} to execute
+     * @return the result of the work, null if the transaction failed
+     */
+    public <T> T inTransaction(@NonNull TransactionWork<T> work) {
+        return inTransaction(null, false, work, null);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and execute the given work in a transaction
+     *
+     * @param isolation the {@link IsolationLevel} of the transaction, null to use the server default
+     * @param readOnly whether the transaction only reads, allowing the server to skip tracking it for writes
+     * @param work the {@link TransactionWork} to execute
+     * @return the result of the work, null if the transaction failed
+     */
+    public <T> T inTransaction(IsolationLevel isolation, boolean readOnly, @NonNull TransactionWork<T> work) {
+        return inTransaction(isolation, readOnly, work, null);
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and execute the given work in a transaction.
+     * The transaction is committed once the work returns, or rolled back if the work throws
+     *
+     * @param isolation the {@link IsolationLevel} of the transaction, null to use the server default
+     * @param readOnly whether the transaction only reads, allowing the server to skip tracking it for writes
+     * @param work the {@link TransactionWork} to execute
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the result of the work, null if the transaction failed
+     */
+    public <T> T inTransaction(IsolationLevel isolation, boolean readOnly, @NonNull TransactionWork<T> work,
+                               Consumer<SQLException> onException) {
+        try (Connection connection = database.getConnection(database.getDataSource())) {
+            return transaction(connection, isolation, readOnly, work);
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Execute the given work in a transaction, committing once the work returns or rolling back if it throws
+     *
+     * @param connection the connection to execute the transaction on, this should be a pooled connection
+     *                   as its transaction settings are left for the pool to reset
+     * @param isolation the {@link IsolationLevel} of the transaction, null to use the server default
+     * @param readOnly whether the transaction only reads
+     * @param work the {@link TransactionWork} to execute
+     * @return the result of the work
+     * @throws SQLException if the transaction failed
+     */
+    <T> T transaction(@NonNull Connection connection, IsolationLevel isolation, boolean readOnly,
+                      @NonNull TransactionWork<T> work) throws SQLException {
+        if (isolation != null)
+            connection.setTransactionIsolation(isolation.getLevel());
+        if (readOnly)
+            connection.setReadOnly(true);
+        connection.setAutoCommit(false);
+        Transaction transaction = new Transaction(this, connection, database.getProperties().getBatchSize());
+        long started = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = work.execute(transaction);
+            transaction.flush();
+            connection.commit();
+            success = true;
+            transaction.committed();
+            return result;
+        } catch (Throwable ex) {
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackEx) {
+                ex.addSuppressed(rollbackEx);
+            }
+            throw ex;
+        } finally {
+            database.getMetrics().onOperation("mysql.transaction", System.nanoTime() - started, success);
+        }
+    }
+
+    /**
+     * Insert the given columns using the provided query
+     *
+     * @param connection the connection to execute the query on
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to insert
+     * @param onComplete the {@link Consumer} of {@link ResultSet} that gets called with the generated keys
+     * @return the amount of rows affected
+     * @throws SQLException if the query failed
+     */
+    int insert(@NonNull Connection connection, @NonNull PreparedQuery query, @NonNull Column<?>[] columns,
+               Consumer<ResultSet> onComplete) throws SQLException {
+        long started = System.nanoTime();
+        boolean success = false;
+        try (PreparedStatement statement = onComplete == null ? connection.prepareStatement(query.getSql())
+                : connection.prepareStatement(query.getSql(), Statement.RETURN_GENERATED_KEYS)) {
+            query.bind(statement, columns);
+            int affectedRows = statement.executeUpdate();
+            if (onComplete != null)
+                onComplete.accept(statement.getGeneratedKeys());
+            success = true;
+            return affectedRows;
+        } finally {
+            record("mysql.insert", started, success, query, Collections.singletonList(columns));
+            written(query);
+        }
+    }
+
+    /**
+     * Insert the given parameters using the provided query
+     *
+     * @param connection the connection to execute the query on
+     * @param query the {@link PreparedQuery} to execute
+     * @param parameters the {@link Parameters} to insert
+     * @return the amount of rows affected
+     * @throws SQLException if the query failed
+     */
+    int insert(@NonNull Connection connection, @NonNull PreparedQuery query, @NonNull Parameters parameters) throws SQLException {
+        // Measured up front, as the parameters may be reused once they're bound
+        int binds = parameters.size();
+        long boundBytes = parameters.estimateSize();
+        long started = System.nanoTime();
+        boolean success = false;
+        try (PreparedStatement statement = connection.prepareStatement(query.getSql())) {
+            parameters.bind(statement);
+            int affectedRows = statement.executeUpdate();
+            success = true;
+            return affectedRows;
+        } finally {
+            record("mysql.insert", started, success, query, binds, boundBytes);
+            written(query);
+        }
+    }
+
+    /**
+     * Insert the given rows using the provided query as a batch
+     *
+     * @param connection the connection to execute the batch on
+     * @param query the {@link PreparedQuery} to execute for each row
+     * @param rows the rows to insert, each row being a {@link Column} array
+     * @param batchSize the amount of rows to send to the server at a time
+     * @return the result of the batch
+     * @throws SQLException if the batch failed
+     */
+    BatchResult batch(@NonNull Connection connection, @NonNull PreparedQuery query, @NonNull List<Column<?>[]> rows,
+                      int batchSize) throws SQLException {
+        int[] affectedRows = new int[rows.size()];
+        long[] generatedKeys = new long[rows.size()];
+        int generatedKeyCount = 0;
+        long started = System.nanoTime();
+        boolean success = false;
+        try (PreparedStatement statement = connection.prepareStatement(query.getSql(), Statement.RETURN_GENERATED_KEYS)) {
+            int rowIndex = 0, batched = 0;
+            for (Column<?>[] columns : rows) {
+                query.bind(statement, columns);
+                statement.addBatch();
+
+                // Once the batch is full, or we're at the last row, send the batch to the server
+                if (++batched == batchSize || (rowIndex + batched == rows.size())) {
+                    int[] counts = statement.executeBatch();
+                    System.arraycopy(counts, 0, affectedRows, rowIndex, counts.length);
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            // Grow the keys array if the server generated more keys than rows (e.g. multi-row inserts)
+                            if (generatedKeyCount == generatedKeys.length)
+                                generatedKeys = Arrays.copyOf(generatedKeys, Math.max(1, generatedKeys.length * 2));
+                            generatedKeys[generatedKeyCount++] = keys.getLong(1);
+                        }
+                    }
+                    rowIndex += batched;
+                    batched = 0;
+                }
+            }
+            success = true;
+        } finally {
+            record("mysql.batch", started, success, query, rows);
+            written(query);
+        }
+        return new BatchResult(affectedRows, generatedKeyCount == generatedKeys.length ? generatedKeys
+                : Arrays.copyOf(generatedKeys, generatedKeyCount));
+    }
+
+    /**
+     * Upsert the given rows in chunks that fit in a single packet
+     *
+     * @param connection the connection to execute the upsert on
+     * @param upsert the {@link Upsert} to execute
+     * @param rows the rows to upsert, each row being a {@link Column} array in the order of the table columns
+     * @return the amount of rows affected
+     * @throws SQLException if a chunk failed
+     */
+    int upsert(@NonNull Connection connection, @NonNull Upsert upsert, @NonNull List<Column<?>[]> rows) throws SQLException {
+        // Leave some room for the packet header and anything the estimate missed
+        long maxSize = database.getMaxAllowedPacket(connection) - 1024L;
+        int maxRows = Math.min(upsert.getMaxRows(), database.getProperties().getBatchSize());
+        int affectedRows = 0;
+        int start = 0;
+        while (start < rows.size()) {
+            long size = upsert.getBaseSize();
+            int end = start;
+            while (end < rows.size() && (end - start < maxRows)) {
+                long rowSize = upsert.estimateSize(rows.get(end));
+                // A row too large for a packet on its own is still sent, letting the server reject it
+                if (end > start && (size + rowSize > maxSize))
+                    break;
+                size += rowSize;
+                end++;
+            }
+            List<Column<?>[]> chunk = rows.subList(start, end);
+            PreparedQuery query = upsert.getQuery(chunk.size());
+            long started = System.nanoTime();
+            boolean success = false;
+            try (PreparedStatement statement = connection.prepareStatement(query.getSql())) {
+                int columnIndex = 1;
+                for (Column<?>[] columns : chunk) {
+                    for (Column<?> column : columns)
+                        column.bind(statement, columnIndex++);
+                }
+                affectedRows += statement.executeUpdate();
+                success = true;
+            } finally {
+                record("mysql.upsert", started, success, query, chunk);
+                written(query);
+            }
+            start = end;
+        }
+        return affectedRows;
+    }
+
+    /**
+     * Bulk load the given rows into the provided table, streaming them to the server as they're encoded
+     *
+     * @param connection the connection to execute the load on
+     * @param table the {@link Table} to load the rows into
+     * @param rows the rows to load, each row being a {@link Column} array in the order of the table columns
+     * @return the result of the load
+     * @throws SQLException if the load failed
+     */
+    LoadResult load(@NonNull Connection connection, @NonNull Table table, @NonNull Iterator<Column<?>[]> rows) throws SQLException {
+        StringJoiner columns = new StringJoiner(", ", "(", ")");
+        for (Column<?> column : table.getColumns())
+            columns.add("`" + column.getName() + "`");
+        // The values are already encoded, so tell the server not to convert them from another character set
+        PreparedQuery query = PreparedQuery.of("LOAD DATA LOCAL INFILE 'stream' INTO TABLE `" + table.getName() + "` CHARACTER SET binary " +
+                "FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' " + columns);
+        LoadDataInputStream stream = new LoadDataInputStream(rows, table.getColumns().length);
+        long started = System.nanoTime();
+        boolean success = false;
+        try (Statement statement = connection.createStatement()) {
+            // Hand the driver our stream rather than having it open a file with the name in the query
+            statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(stream);
+            long affectedRows = statement.executeLargeUpdate(query.getSql());
+
+            List<String> warnings = new ArrayList<>();
+            int warningCount = 0;
+            for (SQLWarning warning = statement.getWarnings(); warning != null; warning = warning.getNextWarning()) {
+                if (warningCount++ < MAX_LOAD_WARNINGS)
+                    warnings.add(warning.getMessage());
+            }
+            if (warningCount > MAX_LOAD_WARNINGS)
+                warnings.add("... and " + (warningCount - MAX_LOAD_WARNINGS) + " more");
+            success = true;
+            return new LoadResult(stream.getRowCount(), affectedRows, stream.getByteCount(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), Collections.unmodifiableList(warnings));
+        } finally {
+            record("mysql.load", started, success, query, Collections.emptyList());
+            database.getMetrics().onBytes("mysql.load", stream.getByteCount(), 0L);
+            written(query);
+        }
+    }
+
+    /**
+     * Execute the given query, using the {@link QueryCache} of the database if it's enabled
+     * and the query is cacheable. A connection is only opened if the result isn't cached,
+     * results that are cached are always read from the primary
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param handler the {@link ResultSetHandler} to handle the result with
+     * @return the result of the handler
+     * @throws SQLException if the query failed
+     */
+    <T> T query(@NonNull PreparedQuery query, Column<?>[] columns, @NonNull ResultSetHandler<T> handler) throws SQLException {
+        QueryCache cache = database.getQueryCache();
+        if (cache == null || (!query.isCacheable())) {
+            try (Connection connection = database.getConnection(dataSource(query))) {
+                return query(connection, query, columns, handler);
+            }
+        }
+        ResultSet cached = cache.get(query, columns);
+        return handler.handle(cached == null ? fill(cache, query, columns) : cached);
+    }
+
+    /**
+     * Execute the given query and cache its result, after it wasn't found in the given {@link QueryCache}.
+     * This doesn't look the query up again, so the miss is only counted once
+     *
+     * @param cache the cache the query wasn't found in
+     * @param query the {@link PreparedQuery} to execute, this must be cacheable
+     * @param columns the {@link Column} array to use in the query
+     * @return a view of the cached result, positioned before the first row
+     * @throws SQLException if the query failed
+     */
+    ResultSet fill(@NonNull QueryCache cache, @NonNull PreparedQuery query, Column<?>[] columns) throws SQLException {
+        long[] versions = cache.getVersions(query);
+        // Fill the cache from the primary, a lagging replica could return a result from before the write
+        // that invalidated it, which would then be cached for the whole ttl
+        try (Connection connection = database.getConnection(database.getDataSource())) {
+            return query(connection, query, columns, resultSet -> cache.put(query, columns, resultSet, versions));
+        }
+    }
+
+    /**
+     * Execute the given query, using the {@link QueryCache} of the database if it's enabled
+     * and the query is cacheable. A connection is only opened if the result isn't cached,
+     * results that are cached are always read from the primary
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param parameters the {@link Parameters} to use in the query
+     * @param handler the {@link ResultSetHandler} to handle the result with
+     * @return the result of the handler
+     * @throws SQLException if the query failed
+     */
+    <T> T query(@NonNull PreparedQuery query, @NonNull Parameters parameters, @NonNull ResultSetHandler<T> handler) throws SQLException {
+        QueryCache cache = database.getQueryCache();
+        if (cache == null || (!query.isCacheable())) {
+            try (Connection connection = database.getConnection(dataSource(query))) {
+                return query(connection, query, parameters, handler);
+            }
+        }
+        ResultSet cached = cache.get(query, parameters);
+        if (cached == null) {
+            long[] versions = cache.getVersions(query);
+            // Fill the cache from the primary, a lagging replica could return a result from before the write
+            // that invalidated it, which would then be cached for the whole ttl
+            try (Connection connection = database.getConnection(database.getDataSource())) {
+                cached = query(connection, query, parameters, resultSet -> cache.put(query, parameters, resultSet, versions));
+            }
+        }
+        return handler.handle(cached);
+    }
+
+    /**
+     * Execute the given query
+     *
+     * @param connection the connection to execute the query on
+     * @param query the {@link PreparedQuery} to execute
+     * @param parameters the {@link Parameters} to use in the query
+     * @param handler the {@link ResultSetHandler} to handle the result with
+     * @return the result of the handler
+     * @throws SQLException if the query failed
+     */
+    <T> T query(@NonNull Connection connection, @NonNull PreparedQuery query, @NonNull Parameters parameters,
+                @NonNull ResultSetHandler<T> handler) throws SQLException {
+        // Measured up front, as the parameters may be reused by the handler
+        int binds = parameters.size();
+        long boundBytes = parameters.estimateSize();
+        long started = System.nanoTime();
+        boolean success = false;
+        try (PreparedStatement statement = connection.prepareStatement(query.getSql())) {
+            parameters.bind(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                T result = handler.handle(resultSet);
+                success = true;
+                return result;
+            }
+        } finally {
+            record("mysql.query", started, success, query, binds, boundBytes);
+        }
+    }
+
+    /**
+     * Get the data source the given query should be executed on, reads that don't lock
+     * are routed to the replicas and everything else goes to the primary
+     *
+     * @param query the query to execute
+     * @return the data source
+     */
+    private HikariDataSource dataSource(@NonNull PreparedQuery query) {
+        return query.isRead() && (!query.isLocking()) ? database.getReadDataSource() : database.getDataSource();
+    }
+
+    /**
+     * Record the given operation to the {@link SlowQueryLog} and {@link DatabaseMetrics} of the database
+     *
+     * @param operation the name of the operation
+     * @param started the time, in nanoseconds, the operation started
+     * @param success whether the operation completed without an error
+     * @param query the query that was executed
+     * @param rows the rows of columns that were sent with the query
+     */
+    private void record(@NonNull String operation, long started, boolean success, @NonNull PreparedQuery query,
+                        @NonNull Iterable<Column<?>[]> rows) {
+        long nanos = System.nanoTime() - started;
+        SlowQueryLog slowQueryLog = database.getSlowQueryLog();
+        if (slowQueryLog != null && (slowQueryLog.isSlow(nanos))) {
+            int binds = 0;
+            for (Column<?>[] columns : rows)
+                binds += columns.length;
+            slowQueryLog.record(query.getSql(), binds, nanos);
+        }
+        DatabaseMetrics metrics = database.getMetrics();
+        if (metrics == DatabaseMetrics.NOOP)
+            return;
+        metrics.onOperation(operation, nanos, success);
+
+        // Estimate the size of the query and its values, rather than asking the driver for the exact amount
+        long sent = query.getSql().length();
+        for (Column<?>[] columns : rows) {
+            for (Column<?> column : columns) {
+                Object value = column.getValue();
+                if (value instanceof byte[])
+                    sent += ((byte[]) value).length;
+                else if (value instanceof CharSequence)
+                    sent += ((CharSequence) value).length();
+                else if (value != null)
+                    sent += Long.BYTES;
+            }
+        }
+        metrics.onBytes(operation, sent, 0L);
+    }
+
+    /**
+     * Record the given operation to the {@link SlowQueryLog} and {@link DatabaseMetrics} of the database
+     *
+     * @param operation the name of the operation
+     * @param started the time, in nanoseconds, the operation started
+     * @param success whether the operation completed without an error
+     * @param query the query that was executed
+     * @param binds the amount of values that were bound to the query
+     * @param boundBytes the estimated size, in bytes, of the bound values
+     */
+    private void record(@NonNull String operation, long started, boolean success, @NonNull PreparedQuery query,
+                        int binds, long boundBytes) {
+        long nanos = System.nanoTime() - started;
+        SlowQueryLog slowQueryLog = database.getSlowQueryLog();
+        if (slowQueryLog != null && (slowQueryLog.isSlow(nanos)))
+            slowQueryLog.record(query.getSql(), binds, nanos);
+        DatabaseMetrics metrics = database.getMetrics();
+        if (metrics == DatabaseMetrics.NOOP)
+            return;
+        metrics.onOperation(operation, nanos, success);
+        metrics.onBytes(operation, query.getSql().length() + boundBytes, 0L);
+    }
+
+    /**
+     * Called once the given query has been executed on the primary, this marks the
+     * current thread as having written and invalidates the results cached for the
+     * tables written to by the query
+     *
+     * @param query the query that was executed
+     */
+    void written(@NonNull PreparedQuery query) {
+        if (query.isRead())
+            return;
+        database.markWrite();
+        QueryCache cache = database.getQueryCache();
+        if (cache == null)
+            return;
+        // If we couldn't tell which tables the query writes to, we have to assume it could be any
+        if (query.getTables().isEmpty())
+            cache.invalidateAll();
+        else cache.invalidate(query.getTables());
+    }
+
+    /**
+     * Execute the given query
+     *
+     * @param connection the connection to execute the query on
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param handler the {@link ResultSetHandler} to handle the result with
+     * @return the result of the handler
+     * @throws SQLException if the query failed
+     */
+    <T> T query(@NonNull Connection connection, @NonNull PreparedQuery query, Column<?>[] columns,
+                @NonNull ResultSetHandler<T> handler) throws SQLException {
+        long started = System.nanoTime();
+        boolean success = false;
+        try (PreparedStatement statement = connection.prepareStatement(query.getSql())) {
+            if (columns != null)
+                query.bind(statement, columns);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                T result = handler.handle(resultSet);
+                success = true;
+                return result;
+            }
+        } finally {
+            record("mysql.query", started, success, query, columns == null ? Collections.emptyList() : Collections.singletonList(columns));
+        }
+    }
+
+    /**
+     * Open a new connection using the {@link MySQLDatabase} and stream the rows of the given query,
+     * the connection is closed along with the stream
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param mapper the {@link RowMapper} to map each row with
+     * @param fetchSize the amount of rows to fetch at a time, 0 to stream rows one by one
+     * @return the lazily evaluated stream of mapped rows
+     * @throws SQLException if the query failed
+     */
+    <T> Stream<T> stream(@NonNull PreparedQuery query, Column<?>[] columns, @NonNull RowMapper<T> mapper, int fetchSize) throws SQLException {
+        Connection connection = database.getConnection(dataSource(query));
+        try {
+            return stream(connection, query, columns, mapper, fetchSize, connection);
+        } catch (SQLException ex) {
+            try {
+                connection.close();
+            } catch (SQLException closeEx) {
+                ex.addSuppressed(closeEx);
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Stream the rows of the given query
+     *
+     * @param connection the connection to execute the query on
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param mapper the {@link RowMapper} to map each row with
+     * @param fetchSize the amount of rows to fetch at a time, 0 to stream rows one by one
+     * @param resources the resources to close along with the stream
+     * @return the lazily evaluated stream of mapped rows
+     * @throws SQLException if the query failed
+     */
+    <T> Stream<T> stream(@NonNull Connection connection, @NonNull PreparedQuery query, Column<?>[] columns,
+                         @NonNull RowMapper<T> mapper, int fetchSize, @NonNull AutoCloseable... resources) throws SQLException {
+        if (fetchSize < 0)
+            throw new IllegalArgumentException("Fetch size cannot be negative");
+        long started = System.nanoTime();
+        PreparedStatement statement = connection.prepareStatement(query.getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            // A fetch size of Integer.MIN_VALUE tells the driver to stream rows one by one instead of buffering them
+            statement.setFetchSize(fetchSize == 0 ? Integer.MIN_VALUE : fetchSize);
+            if (columns != null)
+                query.bind(statement, columns);
+            ResultSet resultSet = statement.executeQuery();
+
+            AutoCloseable[] closeables = new AutoCloseable[resources.length + 1];
+            closeables[0] = statement;
+            System.arraycopy(resources, 0, closeables, 1, resources.length);
+            ResultSetIterator<T> iterator = new ResultSetIterator<>(resultSet, mapper, closeables);
+            // Only the time until the first rows are ready is recorded, as the rest depends on the consumer
+            record("mysql.stream", started, true, query, columns == null ? Collections.emptyList() : Collections.singletonList(columns));
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                    .onClose(iterator::close);
+        } catch (SQLException ex) {
+            statement.close();
+            record("mysql.stream", started, false, query, Collections.emptyList());
+            throw ex;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package me.braydon.database.impl.mysql;
+
+/**
+ * The strategies used to pick the {@link MySQLReplica} a read query is routed to
+ *
+ * @author Braydon
+ */
+public enum ReplicaStrategy {
+    /**
+     * Pick a random replica
+     */
+    RANDOM,
+
+    /**
+     * Pick each replica in turn
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Pick the replica with the least connections currently in use
+     */
+    LEAST_ACTIVE
+}
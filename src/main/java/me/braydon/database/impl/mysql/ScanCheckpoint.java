@@ -0,0 +1,153 @@
+package me.braydon.database.impl.mysql;
+
+import lombok.NonNull;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.StringJoiner;
+
+/**
+ * This class represents the progress of a {@link TableScanner}, this can be stored and
+ * passed to a new scanner to resume the scan where it left off.
+ * <p>
+ * The key space of the table is split into ranges of primary keys, and the checkpoint tracks
+ * the next key to read for each range. The checkpoint is only advanced once the rows of a page
+ * have been consumed, so rows after the last checkpoint may be consumed again when resuming.
+ *
+ * @author Braydon
+ * @see TableScanner#withCheckpoint(ScanCheckpoint)
+ */
+public final class ScanCheckpoint implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long[] lowers, uppers, next;
+    private final boolean[] done;
+
+    private ScanCheckpoint(@NonNull long[] lowers, @NonNull long[] uppers, @NonNull long[] next, @NonNull boolean[] done) {
+        this.lowers = lowers;
+        this.uppers = uppers;
+        this.next = next;
+        this.done = done;
+    }
+
+    /**
+     * Split the given key space into ranges of roughly equal size
+     *
+     * @param min the lowest key
+     * @param max the highest key
+     * @param ranges the amount of ranges to split into
+     * @return the checkpoint, positioned at the start of each range
+     */
+    static ScanCheckpoint split(long min, long max, int ranges) {
+        if (min > max)
+            throw new IllegalArgumentException("The lowest key cannot be higher than the highest key");
+        // The key space may be wider than a long can hold, so work out the bounds without overflowing
+        BigInteger start = BigInteger.valueOf(min);
+        BigInteger span = BigInteger.valueOf(max).subtract(start).add(BigInteger.ONE);
+        int count = (int) Math.min(ranges, span.min(BigInteger.valueOf(Integer.MAX_VALUE)).longValue());
+        long[] lowers = new long[count];
+        long[] uppers = new long[count];
+        BigInteger divisor = BigInteger.valueOf(count);
+        for (int i = 0; i < count; i++) {
+            lowers[i] = start.add(span.multiply(BigInteger.valueOf(i)).divide(divisor)).longValue();
+            uppers[i] = start.add(span.multiply(BigInteger.valueOf(i + 1L)).divide(divisor)).subtract(BigInteger.ONE).longValue();
+        }
+        return new ScanCheckpoint(lowers, uppers, lowers.clone(), new boolean[count]);
+    }
+
+    /**
+     * Decode a checkpoint from the given string
+     *
+     * @param encoded the encoded checkpoint
+     * @return the checkpoint
+     * @throws IllegalArgumentException if the string isn't a valid checkpoint
+     * @see #encode()
+     */
+    public static ScanCheckpoint decode(@NonNull String encoded) {
+        String[] ranges = encoded.isEmpty() ? new String[0] : encoded.split(";");
+        long[] lowers = new long[ranges.length];
+        long[] uppers = new long[ranges.length];
+        long[] next = new long[ranges.length];
+        boolean[] done = new boolean[ranges.length];
+        try {
+            for (int i = 0; i < ranges.length; i++) {
+                String[] parts = ranges[i].split(",");
+                if (parts.length != 3)
+                    throw new IllegalArgumentException("Invalid range \"" + ranges[i] + "\" in checkpoint");
+                lowers[i] = Long.parseLong(parts[0]);
+                uppers[i] = Long.parseLong(parts[1]);
+                done[i] = parts[2].equals("done");
+                next[i] = done[i] ? uppers[i] : Long.parseLong(parts[2]);
+            }
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid checkpoint \"" + encoded + "\"", ex);
+        }
+        return new ScanCheckpoint(lowers, uppers, next, done);
+    }
+
+    /**
+     * Encode this checkpoint to a string, each range is encoded as "lower,upper,next"
+     * or "lower,upper,done", with the ranges separated by a semicolon
+     *
+     * @return the encoded checkpoint
+     * @see #decode(String)
+     */
+    public synchronized String encode() {
+        StringJoiner joiner = new StringJoiner(";");
+        for (int i = 0; i < lowers.length; i++)
+            joiner.add(lowers[i] + "," + uppers[i] + "," + (done[i] ? "done" : String.valueOf(next[i])));
+        return joiner.toString();
+    }
+
+    /**
+     * Get the amount of ranges the key space is split into
+     *
+     * @return the range count
+     */
+    public int getRanges() {
+        return lowers.length;
+    }
+
+    /**
+     * Check whether every range has been scanned
+     *
+     * @return whether the scan is complete
+     */
+    public synchronized boolean isComplete() {
+        for (boolean rangeDone : done) {
+            if (!rangeDone)
+                return false;
+        }
+        return true;
+    }
+
+    long getUpper(int range) {
+        return uppers[range];
+    }
+
+    synchronized long getNext(int range) {
+        return next[range];
+    }
+
+    synchronized boolean isDone(int range) {
+        return done[range];
+    }
+
+    /**
+     * Advance the given range past the given key
+     *
+     * @param range the index of the range
+     * @param lastKey the last key that was consumed
+     * @param exhausted whether there are no more rows in the range
+     */
+    synchronized void advance(int range, long lastKey, boolean exhausted) {
+        if (exhausted || (lastKey >= uppers[range]))
+            done[range] = true;
+        else next[range] = lastKey + 1L;
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
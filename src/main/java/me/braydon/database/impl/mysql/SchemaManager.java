@@ -0,0 +1,201 @@
+package me.braydon.database.impl.mysql;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import me.braydon.database.impl.mysql.data.Column;
+import me.braydon.database.impl.mysql.data.Index;
+import me.braydon.database.impl.mysql.data.Table;
+import me.braydon.database.impl.mysql.data.impl.VarcharColumn;
+import me.braydon.database.impl.mysql.query.PreparedQuery;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * This class represents a manager that brings the schema of a {@link MySQLDatabase} in line with a set of {@link Table}s.
+ * <p>
+ * The live schema of every table is read from INFORMATION_SCHEMA in a single query, and compared against the
+ * definitions to work out the statements needed: a create for each missing table, and a single alter for each
+ * table that is missing columns or indexes. As each statement only touches its own table, the statements are
+ * executed in parallel over the connection pool.
+ * <p>
+ * Only additions are made, columns and indexes that exist but differ from their definition are left alone
+ * so data is never dropped or rewritten at startup.
+ *
+ * @author Braydon
+ */
+@Slf4j(topic = "SchemaManager")
+public class SchemaManager {
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+    private final MySQLDatabase database;
+    private final MySQLRepository repository;
+    private final List<Table> tables;
+
+    public SchemaManager(@NonNull MySQLDatabase database, @NonNull Table... tables) {
+        this(database, Arrays.asList(tables));
+    }
+
+    public SchemaManager(@NonNull MySQLDatabase database, @NonNull Collection<Table> tables) {
+        if (database.getDataSource() == null)
+            throw new IllegalStateException("The database must be connected before creating a schema manager");
+        Set<String> names = new HashSet<>();
+        for (Table table : tables) {
+            if (!names.add(table.getName().toLowerCase(Locale.ROOT)))
+                throw new IllegalArgumentException("Table \"" + table.getName() + "\" is defined more than once");
+        }
+        this.database = database;
+        repository = new MySQLRepository(database);
+        this.tables = new ArrayList<>(tables);
+    }
+
+    /**
+     * Work out the statements needed to bring the live schema in line with the tables
+     *
+     * @return the statements, empty if the schema is up to date
+     * @throws SQLException if the live schema failed to be read
+     */
+    public List<String> plan() throws SQLException {
+        if (tables.isEmpty())
+            return Collections.emptyList();
+        Map<String, LiveTable> live;
+        try (Connection connection = database.getConnection(database.getDataSource())) {
+            live = readLiveSchema(connection);
+        }
+        List<String> statements = new ArrayList<>();
+        for (Table table : tables) {
+            LiveTable liveTable = live.get(table.getName().toLowerCase(Locale.ROOT));
+            if (liveTable == null) {
+                statements.add(table.getCreateQuery(true));
+                continue;
+            }
+            List<String> changes = new ArrayList<>();
+            String previous = null;
+            for (Column<?> column : table.getColumns()) {
+                // Keep the order of the definition by adding each missing column after the one before it
+                if (!liveTable.columns.contains(column.getName().toLowerCase(Locale.ROOT)))
+                    changes.add("ADD COLUMN " + Table.getColumnDefinition(column) + (previous == null ? " FIRST" : " AFTER `" + previous + "`"));
+                previous = column.getName();
+            }
+            for (Index index : table.getIndexes()) {
+                if (!liveTable.indexes.contains(index.getName().toLowerCase(Locale.ROOT)))
+                    changes.add("ADD " + index.getDefinition());
+            }
+            if (!changes.isEmpty())
+                statements.add("ALTER TABLE `" + table.getName() + "` " + String.join(", ", changes) + ";");
+        }
+        return statements;
+    }
+
+    /**
+     * Bring the live schema in line with the tables
+     *
+     * @return the statements that were executed
+     */
+    public List<String> apply() {
+        return apply(null);
+    }
+
+    /**
+     * Bring the live schema in line with the tables, executing the statements in parallel
+     *
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the statements that were executed
+     */
+    public List<String> apply(Consumer<SQLException> onException) {
+        long started = System.currentTimeMillis();
+        List<String> statements;
+        try {
+            statements = plan();
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+            return Collections.emptyList();
+        }
+        if (statements.isEmpty())
+            return statements;
+
+        // Don't use more threads than there are connections, as they'd only wait for one
+        int threads = Math.min(statements.size(), database.getDataSource().getMaximumPoolSize());
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "MySQL Schema - " + THREAD_ID.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        boolean[] executed = new boolean[statements.size()];
+        try {
+            List<CompletableFuture<?>> futures = new ArrayList<>(statements.size());
+            for (int i = 0; i < statements.size(); i++) {
+                int index = i;
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try (Connection connection = database.getConnection(database.getDataSource())) {
+                        repository.executeQuery(connection, statements.get(index), () -> executed[index] = true, onException);
+                    } catch (SQLException ex) {
+                        if (onException != null)
+                            onException.accept(ex);
+                        ex.printStackTrace();
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            executor.shutdown();
+        }
+        List<String> applied = new ArrayList<>(statements.size());
+        for (int i = 0; i < statements.size(); i++) {
+            if (executed[i])
+                applied.add(statements.get(i));
+        }
+        if (database.getProperties().isDebugging())
+            log.debug("Applied " + applied.size() + "/" + statements.size() + " schema changes in " + (System.currentTimeMillis() - started) + "ms");
+        return applied;
+    }
+
+    /**
+     * Read the columns and indexes of the tables from INFORMATION_SCHEMA
+     *
+     * @param connection the connection to read with
+     * @return the live tables, keyed by their lowercase name
+     * @throws SQLException if the schema failed to be read
+     */
+    private Map<String, LiveTable> readLiveSchema(@NonNull Connection connection) throws SQLException {
+        StringBuilder names = new StringBuilder();
+        Column<?>[] columns = new Column<?>[tables.size() * 2];
+        for (int i = 0; i < tables.size(); i++) {
+            names.append(i == 0 ? "?" : ", ?");
+            columns[i] = new VarcharColumn("TABLE_NAME", tables.get(i).getName());
+            columns[tables.size() + i] = columns[i];
+        }
+        PreparedQuery query = PreparedQuery.compile(
+                "SELECT TABLE_NAME, COLUMN_NAME, NULL AS INDEX_NAME FROM INFORMATION_SCHEMA.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME IN (" + names + ") " +
+                "UNION ALL " +
+                "SELECT TABLE_NAME, NULL, INDEX_NAME FROM INFORMATION_SCHEMA.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME IN (" + names + ")");
+        return repository.query(connection, query, columns, resultSet -> {
+            Map<String, LiveTable> live = new HashMap<>();
+            while (resultSet.next()) {
+                LiveTable table = live.computeIfAbsent(resultSet.getString(1).toLowerCase(Locale.ROOT), name -> new LiveTable());
+                String column = resultSet.getString(2);
+                String index = resultSet.getString(3);
+                if (column != null)
+                    table.columns.add(column.toLowerCase(Locale.ROOT));
+                if (index != null)
+                    table.indexes.add(index.toLowerCase(Locale.ROOT));
+            }
+            return live;
+        });
+    }
+
+    private static class LiveTable {
+        private final Set<String> columns = new HashSet<>();
+        private final Set<String> indexes = new HashSet<>();
+    }
+}
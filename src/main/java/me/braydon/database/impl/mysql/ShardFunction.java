@@ -0,0 +1,80 @@
+package me.braydon.database.impl.mysql;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * This class represents a function that decides which shard of a {@link ShardedMySQLDatabase} a shard key belongs to
+ *
+ * @author Braydon
+ */
+@FunctionalInterface
+public interface ShardFunction {
+    /**
+     * Get the shard the given key belongs to
+     *
+     * @param key the shard key
+     * @param shards the amount of shards
+     * @return the index of the shard, between 0 and the amount of shards
+     */
+    int shard(@NonNull Object key, int shards);
+
+    /**
+     * Get a function that spreads keys evenly over the shards by their hash. The hash only depends
+     * on the value of the key, so a key maps to the same shard across restarts as long as the amount
+     * of shards doesn't change.
+     * <p>
+     * Supported keys are numbers (hashed by their long value, so an int and a long of the same value
+     * map to the same shard), strings, byte arrays and {@link UUID}s
+     *
+     * @return the function
+     */
+    static ShardFunction hash() {
+        return (key, shards) -> {
+            int hash;
+            if (key instanceof Number)
+                hash = Long.hashCode(((Number) key).longValue());
+            else if (key instanceof CharSequence)
+                hash = key.toString().hashCode();
+            else if (key instanceof byte[])
+                hash = Arrays.hashCode((byte[]) key);
+            else if (key instanceof UUID)
+                hash = key.hashCode();
+            else throw new IllegalArgumentException("Unsupported shard key type " + key.getClass().getName());
+
+            // Mix the bits so keys that only differ in their high bits, such as sequential ids, still spread out
+            hash ^= hash >>> 16;
+            hash *= 0x85EBCA6B;
+            hash ^= hash >>> 13;
+            hash *= 0xC2B2AE35;
+            hash ^= hash >>> 16;
+            return Math.floorMod(hash, shards);
+        };
+    }
+
+    /**
+     * Get a function that splits numeric keys into ranges, a key belongs to the first
+     * shard whose upper bound is higher than the key, or the last shard if there is none
+     *
+     * @param upperBounds the exclusive upper bound of each shard except the last, in ascending order
+     * @return the function
+     */
+    static ShardFunction range(@NonNull long... upperBounds) {
+        long[] bounds = upperBounds.clone();
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] <= bounds[i - 1])
+                throw new IllegalArgumentException("Range bounds must be in ascending order");
+        }
+        return (key, shards) -> {
+            if (!(key instanceof Number))
+                throw new IllegalArgumentException("Range sharding requires a numeric shard key");
+            if (bounds.length != shards - 1)
+                throw new IllegalStateException("Expected " + (shards - 1) + " range bounds for " + shards + " shards, got " + bounds.length);
+            int index = Arrays.binarySearch(bounds, ((Number) key).longValue());
+            // An exact match is the lower bound of the next shard, otherwise it's the insertion point
+            return index >= 0 ? index + 1 : -(index + 1);
+        };
+    }
+}
@@ -0,0 +1,277 @@
+package me.braydon.database.impl.mysql;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import me.braydon.database.IDatabase;
+import me.braydon.database.IRepositoryDatabase;
+import me.braydon.database.metrics.DatabaseMetrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The implementation of {@link IDatabase} for MySQL split over several servers.
+ * <p>
+ * Each shard is a {@link MySQLDatabase} with its own connection pool, connected with the same properties.
+ * Queries with a shard key are routed to the shard chosen by the {@link ShardFunction}, and queries without
+ * one are executed on every shard in parallel with their results merged, see {@link ShardedMySQLRepository}.
+ *
+ * @author Braydon
+ */
+@Getter @Slf4j(topic = "ShardedMySQLDatabase")
+public class ShardedMySQLDatabase implements IDatabase<MySQLProperties>, IRepositoryDatabase<ShardedMySQLRepository> {
+    private static final Object LOCK = new Object();
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+    private final ShardFunction shardFunction;
+    @Getter(AccessLevel.NONE) private final List<MySQLDatabase> shards = new ArrayList<>();
+    @Getter(AccessLevel.NONE) private final List<ShardAddress> addresses = new ArrayList<>();
+
+    /**
+     * The connected shards, this is only replaced when connecting so queries can be routed without locking
+     */
+    @Getter(AccessLevel.NONE) private volatile MySQLDatabase[] connectedShards = new MySQLDatabase[0];
+
+    /**
+     * The repository of each connected shard, in the same order as the shards
+     */
+    @Getter(AccessLevel.NONE) private volatile MySQLRepository[] repositories = new MySQLRepository[0];
+    private MySQLProperties properties;
+    private volatile DatabaseMetrics metrics = DatabaseMetrics.NOOP;
+
+    /**
+     * The executor used to open the queries of a scatter on every shard at once
+     */
+    @Getter(AccessLevel.PACKAGE) private ExecutorService scatterExecutor;
+
+    /**
+     * @param shardFunction the {@link ShardFunction} that decides which shard a shard key belongs to
+     */
+    public ShardedMySQLDatabase(@NonNull ShardFunction shardFunction) {
+        this.shardFunction = shardFunction;
+    }
+
+    /**
+     * Add a shard to the database, this must be done before connecting. The shard is connected to using
+     * the same credentials and database as the properties. Shards must always be added in the same order,
+     * as the index of a shard decides which keys it holds
+     *
+     * @param host the host of the shard
+     * @param port the port of the shard
+     * @return the database instance
+     */
+    public ShardedMySQLDatabase withShard(@NonNull String host, int port) {
+        return addShard(new ShardAddress(host, port, null));
+    }
+
+    /**
+     * Add a shard to the database, this must be done before connecting. Shards must always
+     * be added in the same order, as the index of a shard decides which keys it holds
+     *
+     * @param uri the uri to connect to the shard with
+     * @return the database instance
+     */
+    public ShardedMySQLDatabase withShard(@NonNull String uri) {
+        return addShard(new ShardAddress(null, -1, uri));
+    }
+
+    /**
+     * Connect to every shard with the given properties
+     *
+     * @param properties the properties to connect with
+     * @param onConnect  the {@link Runnable} that's called when a connection is established with every shard
+     * @return the database instance
+     */
+    @Override
+    public IDatabase<MySQLProperties> connect(@NonNull MySQLProperties properties, Runnable onConnect) {
+        synchronized (LOCK) {
+            if (this.properties != null)
+                throw new IllegalStateException("Already connected");
+            if (shards.isEmpty())
+                throw new IllegalStateException("At least one shard must be added before connecting");
+            this.properties = properties;
+            long started = System.currentTimeMillis();
+            scatterExecutor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "MySQL Scatter - " + THREAD_ID.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            for (int i = 0; i < shards.size(); i++) {
+                ShardAddress address = addresses.get(i);
+                shards.get(i).connect(properties, address.uri == null
+                        ? MySQLDatabase.buildUri(address.host, address.port, properties.getDatabase()) : address.uri);
+            }
+            MySQLRepository[] repositories = new MySQLRepository[shards.size()];
+            for (int i = 0; i < repositories.length; i++)
+                repositories[i] = new MySQLRepository(shards.get(i));
+            this.repositories = repositories;
+            connectedShards = shards.toArray(new MySQLDatabase[0]);
+            if (properties.isDebugging())
+                log.debug("Connection established with " + shards.size() + " shards in " + (System.currentTimeMillis() - started) + "ms");
+            if (onConnect != null)
+                onConnect.run();
+            return this;
+        }
+    }
+
+    /**
+     * Add a shard for each of the given uris and connect to every shard with the given properties.
+     * This is the same as adding each uri with {@link #withShard(String)} in order, then connecting
+     *
+     * @param properties the properties to connect with
+     * @param uri the uris of the shards in order, separated by whitespace as a jdbc url may contain commas
+     * @param onConnect the {@link Runnable} that's called when a connection is established with every shard
+     * @return the database instance
+     */
+    @Override
+    public IDatabase<MySQLProperties> connect(@NonNull MySQLProperties properties, @NonNull String uri, Runnable onConnect) {
+        synchronized (LOCK) {
+            if (this.properties != null)
+                throw new IllegalStateException("Already connected");
+            // Mixing both ways of adding shards would make the order of the shards, and so which keys they hold, unclear
+            if (!shards.isEmpty())
+                throw new IllegalStateException("Shards were already added with withShard, connect without a uri instead");
+            if (uri.trim().isEmpty())
+                throw new IllegalArgumentException("At least one shard uri must be given");
+            for (String shardUri : uri.trim().split("\\s+"))
+                withShard(shardUri);
+            return connect(properties, onConnect);
+        }
+    }
+
+    /**
+     * Set the {@link DatabaseMetrics} that operations on every shard are recorded to
+     *
+     * @param metrics the metrics to record to
+     * @return the database instance
+     */
+    @Override
+    public ShardedMySQLDatabase withMetrics(@NonNull DatabaseMetrics metrics) {
+        synchronized (LOCK) {
+            this.metrics = metrics;
+            for (MySQLDatabase shard : shards)
+                shard.withMetrics(metrics);
+            return this;
+        }
+    }
+
+    /**
+     * Get the connected shard the given shard key belongs to
+     *
+     * @param shardKey the shard key
+     * @return the shard
+     */
+    public MySQLDatabase getShardFor(@NonNull Object shardKey) {
+        MySQLDatabase[] shards = connectedShards;
+        return shards[indexFor(shardKey, shards.length)];
+    }
+
+    /**
+     * Get the shard at the given index, before connecting this can be used to configure the shard, such as adding replicas
+     *
+     * @param index the index of the shard
+     * @return the shard
+     */
+    public MySQLDatabase getShard(int index) {
+        return shards.get(index);
+    }
+
+    /**
+     * Get every shard, in the order they were added
+     *
+     * @return the shards
+     */
+    public List<MySQLDatabase> getShards() {
+        return Collections.unmodifiableList(shards);
+    }
+
+    /**
+     * Get a dummy connection of the repository for this database type
+     *
+     * @return the repository
+     */
+    @Override
+    public ShardedMySQLRepository getDummyRepository() {
+        synchronized (LOCK) {
+            return new ShardedMySQLRepository(this);
+        }
+    }
+
+    /**
+     * Cleanup every shard and close its connections
+     */
+    @Override
+    public void cleanup() {
+        synchronized (LOCK) {
+            if (scatterExecutor != null)
+                scatterExecutor.shutdown();
+            scatterExecutor = null;
+            connectedShards = new MySQLDatabase[0];
+            repositories = new MySQLRepository[0];
+            for (MySQLDatabase shard : shards)
+                shard.cleanup();
+            shards.clear();
+            addresses.clear();
+            properties = null;
+        }
+    }
+
+    /**
+     * Get the repository of the connected shard the given shard key belongs to
+     *
+     * @param shardKey the shard key
+     * @return the repository
+     */
+    MySQLRepository getRepositoryFor(@NonNull Object shardKey) {
+        MySQLRepository[] repositories = this.repositories;
+        return repositories[indexFor(shardKey, repositories.length)];
+    }
+
+    /**
+     * Get the repository of every connected shard, in the order the shards were added
+     *
+     * @return the repositories
+     */
+    MySQLRepository[] getRepositories() {
+        return repositories;
+    }
+
+    private int indexFor(@NonNull Object shardKey, int shards) {
+        if (shards == 0)
+            throw new IllegalStateException("The database must be connected before routing queries");
+        int index = shardFunction.shard(shardKey, shards);
+        if (index < 0 || (index >= shards))
+            throw new IllegalStateException("Shard function returned shard " + index + " for " + shards + " shards");
+        return index;
+    }
+
+    private ShardedMySQLDatabase addShard(@NonNull ShardAddress address) {
+        synchronized (LOCK) {
+            if (properties != null)
+                throw new IllegalStateException("Shards must be added before connecting");
+            MySQLDatabase shard = new MySQLDatabase();
+            shard.withMetrics(metrics);
+            shards.add(shard);
+            addresses.add(address);
+            return this;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class ShardAddress {
+        private final String host;
+        private final int port;
+
+        /**
+         * The uri to connect to the shard with, null to build it from the host and port
+         */
+        private final String uri;
+    }
+}
@@ -0,0 +1,331 @@
+package me.braydon.database.impl.mysql;
+
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import me.braydon.database.DatabaseRepository;
+import me.braydon.database.impl.mysql.data.Column;
+import me.braydon.database.impl.mysql.query.PreparedQuery;
+import me.braydon.database.impl.mysql.query.RowMapper;
+import me.braydon.database.impl.mysql.query.UncheckedSQLException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Implementation of the {@link DatabaseRepository} for the {@link ShardedMySQLDatabase}.
+ * <p>
+ * Queries with a shard key are executed on the shard the key belongs to. Queries without one are executed on
+ * every shard, and their rows are gathered into a single lazily evaluated stream, either one shard after another
+ * or merged in the order of a {@link Comparator} when each shard returns its rows in that order.
+ *
+ * @author Braydon
+ */
+public class ShardedMySQLRepository extends DatabaseRepository<ShardedMySQLDatabase> {
+    public ShardedMySQLRepository(ShardedMySQLDatabase database) {
+        super(database);
+    }
+
+    /**
+     * Get the repository of the shard the given shard key belongs to, this can be used for
+     * anything the shard key decides the shard of, such as batches and transactions
+     *
+     * @param shardKey the shard key
+     * @return the repository
+     */
+    public MySQLRepository getRepository(@NonNull Object shardKey) {
+        return database.getRepositoryFor(shardKey);
+    }
+
+    /**
+     * Insert the given columns using the provided query on the shard the given shard key belongs to
+     *
+     * @param shardKey the shard key
+     * @param query the query to execute
+     * @param columns the {@link Column} array to insert
+     * @return the amount of rows affected
+     */
+    public int executeInsert(@NonNull Object shardKey, @NonNull String query, @NonNull Column<?>[] columns) {
+        return executeInsert(shardKey, PreparedQuery.of(query), columns, null);
+    }
+
+    /**
+     * Insert the given columns using the provided query on the shard the given shard key belongs to
+     *
+     * @param shardKey the shard key
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to insert
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the amount of rows affected
+     */
+    public int executeInsert(@NonNull Object shardKey, @NonNull PreparedQuery query, @NonNull Column<?>[] columns,
+                             Consumer<SQLException> onException) {
+        return getRepository(shardKey).executeInsert(query, columns, null, onException);
+    }
+
+    /**
+     * Execute the given query on the shard the given shard key belongs to
+     *
+     * @param shardKey the shard key
+     * @param query the query to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param onComplete the {@link Consumer} of {@link ResultSet} that gets called when the query has completed
+     */
+    public void executeQuery(@NonNull Object shardKey, @NonNull String query, Column<?>[] columns, @NonNull Consumer<ResultSet> onComplete) {
+        executeQuery(shardKey, PreparedQuery.of(query), columns, onComplete, null);
+    }
+
+    /**
+     * Execute the given query on the shard the given shard key belongs to
+     *
+     * @param shardKey the shard key
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param onComplete the {@link Consumer} of {@link ResultSet} that gets called when the query has completed
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     */
+    public void executeQuery(@NonNull Object shardKey, @NonNull PreparedQuery query, Column<?>[] columns,
+                             @NonNull Consumer<ResultSet> onComplete, Consumer<SQLException> onException) {
+        getRepository(shardKey).executeQuery(query, columns, onComplete, onException);
+    }
+
+    /**
+     * Execute the given query on every shard, and stream the rows of each shard one shard after another
+     *
+     * @param query the query to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param mapper the {@link RowMapper} to map each row with
+     * @return the lazily evaluated stream of mapped rows, this must be closed to release the connections
+     * @see #executeScatter(PreparedQuery, Column[], RowMapper, Comparator, long, Consumer)
+     */
+    public <T> Stream<T> executeScatter(@NonNull String query, Column<?>[] columns, @NonNull RowMapper<T> mapper) {
+        return executeScatter(PreparedQuery.of(query), columns, mapper, null, -1L, null);
+    }
+
+    /**
+     * Execute the given query on every shard, and stream the rows of the shards merged in the given order
+     *
+     * @param query the query to execute, this must order its rows the same as the comparator and must not have a limit
+     * @param columns the {@link Column} array to use in the query
+     * @param mapper the {@link RowMapper} to map each row with
+     * @param order the {@link Comparator} the rows of each shard are ordered by
+     * @param limit the maximum amount of rows to return
+     * @return the lazily evaluated stream of mapped rows, this must be closed to release the connections
+     * @see #executeScatter(PreparedQuery, Column[], RowMapper, Comparator, long, Consumer)
+     */
+    public <T> Stream<T> executeScatter(@NonNull String query, Column<?>[] columns, @NonNull RowMapper<T> mapper,
+                                        @NonNull Comparator<? super T> order, long limit) {
+        return executeScatter(PreparedQuery.of(query), columns, mapper, order, limit, null);
+    }
+
+    /**
+     * Execute the given query on every shard, and stream the rows of the shards.
+     * <p>
+     * With an order, the query is opened on every shard in parallel and the rows are merged by repeatedly taking
+     * the lowest of the next row of each shard, so the query must return the rows of each shard in that order
+     * (e.g. with an ORDER BY), and only one row of each shard is held at a time. Without one, the rows would be
+     * read one shard after another, so each shard is only queried once the shard before it has been read. The
+     * rows are streamed from the server, and a shard left waiting behind the others would be disconnected by the
+     * server once its "net_write_timeout" passes. With a limit, the limit is appended to the query of each shard
+     * as no shard can contribute more rows than the limit, so each shard only sends as many rows as could be returned.
+     *
+     * @param query the {@link PreparedQuery} to execute, this must not have a limit if one is given
+     * @param columns the {@link Column} array to use in the query
+     * @param mapper the {@link RowMapper} to map each row with
+     * @param order the {@link Comparator} the rows of each shard are ordered by, null to stream one shard after another
+     * @param limit the maximum amount of rows to return, -1 for no limit
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the lazily evaluated stream of mapped rows, this must be closed to release the connections.
+     *         With an order, an empty stream is returned if the query fails on any shard. Without one, this
+     *         happens if it fails on the first shard, and a failure on a later shard is thrown as an
+     *         {@link UncheckedSQLException} once the stream reaches it
+     */
+    public <T> Stream<T> executeScatter(@NonNull PreparedQuery query, Column<?>[] columns, @NonNull RowMapper<T> mapper,
+                                        Comparator<? super T> order, long limit, Consumer<SQLException> onException) {
+        if (columns != null)
+            query.validate(columns);
+        PreparedQuery shardQuery = limit < 0L ? query : PreparedQuery.of(query.getSql() + " LIMIT " + limit);
+        MySQLRepository[] repositories = database.getRepositories();
+        if (repositories.length == 0)
+            throw new IllegalStateException("The database must be connected before executing queries");
+        if (order == null) {
+            ShardIterator<T> iterator = new ShardIterator<>(repositories, shardQuery, columns, mapper);
+            try {
+                // Open the first shard straight away, so a query that fails everywhere is reported like an ordered one
+                iterator.hasNext();
+            } catch (UncheckedSQLException ex) {
+                iterator.close();
+                if (onException != null)
+                    onException.accept(ex.getCause());
+                ex.getCause().printStackTrace();
+                return Stream.empty();
+            }
+            Stream<T> concatenated = StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                    .onClose(iterator::close);
+            return limit < 0L ? concatenated : concatenated.limit(limit);
+        }
+
+        // Open the query on every shard at once, so the shards execute it in parallel
+        List<CompletableFuture<Stream<T>>> futures = new ArrayList<>(repositories.length);
+        for (MySQLRepository repository : repositories)
+            futures.add(CompletableFuture.supplyAsync(() -> open(repository, shardQuery, columns, mapper), database.getScatterExecutor()));
+        List<Stream<T>> streams = new ArrayList<>(repositories.length);
+        SQLException exception = null;
+        for (CompletableFuture<Stream<T>> future : futures) {
+            try {
+                streams.add(future.join());
+            } catch (CompletionException ex) {
+                SQLException cause = ex.getCause() instanceof UncheckedSQLException
+                        ? ((UncheckedSQLException) ex.getCause()).getCause() : new SQLException(ex.getCause());
+                if (exception == null)
+                    exception = cause;
+                else exception.addSuppressed(cause);
+            }
+        }
+        if (exception != null) {
+            for (Stream<T> stream : streams)
+                stream.close();
+            if (onException != null)
+                onException.accept(exception);
+            exception.printStackTrace();
+            return Stream.empty();
+        }
+        List<Iterator<T>> iterators = new ArrayList<>(streams.size());
+        for (Stream<T> stream : streams)
+            iterators.add(stream.iterator());
+        Stream<T> merged = StreamSupport.stream(Spliterators.spliteratorUnknownSize(new MergeIterator<>(iterators, order),
+                Spliterator.ORDERED), false).onClose(() -> {
+            for (Stream<T> stream : streams)
+                stream.close();
+        });
+        return limit < 0L ? merged : merged.limit(limit);
+    }
+
+    /**
+     * Open a stream of the rows of the given query on the shard of the given repository
+     */
+    private static <T> Stream<T> open(@NonNull MySQLRepository repository, @NonNull PreparedQuery query, Column<?>[] columns,
+                                      @NonNull RowMapper<T> mapper) {
+        try {
+            return repository.stream(query, columns, mapper, 0);
+        } catch (SQLException ex) {
+            throw new UncheckedSQLException(ex);
+        }
+    }
+
+    /**
+     * An {@link Iterator} over the rows of every shard one shard after another, only opening
+     * the query on a shard once the shard before it has been read
+     */
+    private static class ShardIterator<T> implements Iterator<T>, AutoCloseable {
+        private final MySQLRepository[] repositories;
+        private final PreparedQuery query;
+        private final Column<?>[] columns;
+        private final RowMapper<T> mapper;
+
+        /**
+         * The index of the next shard to open
+         */
+        private int next;
+        private Stream<T> stream;
+        private Iterator<T> iterator;
+        private boolean closed;
+
+        private ShardIterator(@NonNull MySQLRepository[] repositories, @NonNull PreparedQuery query, Column<?>[] columns,
+                              @NonNull RowMapper<T> mapper) {
+            this.repositories = repositories;
+            this.query = query;
+            this.columns = columns;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!closed) {
+                if (iterator != null && (iterator.hasNext()))
+                    return true;
+                // Release the connection of the shard that was read before opening the next one
+                closeStream();
+                if (next >= repositories.length)
+                    return false;
+                stream = open(repositories[next++], query, columns, mapper);
+                iterator = stream.iterator();
+            }
+            return false;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return iterator.next();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            closeStream();
+        }
+
+        private void closeStream() {
+            if (stream != null)
+                stream.close();
+            stream = null;
+            iterator = null;
+        }
+    }
+
+    /**
+     * An {@link Iterator} over the rows of every shard, merged in order
+     */
+    private static class MergeIterator<T> implements Iterator<T> {
+        private final List<Iterator<T>> iterators;
+        private final PriorityQueue<Head<T>> heads;
+        private boolean started;
+
+        private MergeIterator(@NonNull List<Iterator<T>> iterators, @NonNull Comparator<? super T> order) {
+            this.iterators = iterators;
+            heads = new PriorityQueue<>(Math.max(1, iterators.size()), (first, second) -> {
+                int compared = order.compare(first.row, second.row);
+                // Keep the order stable between shards for rows that compare equal
+                return compared != 0 ? compared : Integer.compare(first.shard, second.shard);
+            });
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!started) {
+                for (int shard = 0; shard < iterators.size(); shard++)
+                    advance(shard);
+                started = true;
+            }
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            Head<T> head = heads.poll();
+            advance(head.shard);
+            return head.row;
+        }
+
+        private void advance(int shard) {
+            Iterator<T> iterator = iterators.get(shard);
+            if (iterator.hasNext())
+                heads.add(new Head<>(iterator.next(), shard));
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Head<T> {
+        private final T row;
+        private final int shard;
+    }
+}
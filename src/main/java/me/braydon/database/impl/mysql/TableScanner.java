@@ -0,0 +1,307 @@
+package me.braydon.database.impl.mysql;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import me.braydon.database.impl.mysql.data.Column;
+import me.braydon.database.impl.mysql.data.Table;
+import me.braydon.database.impl.mysql.data.impl.IntegerColumn;
+import me.braydon.database.impl.mysql.data.impl.LongColumn;
+import me.braydon.database.impl.mysql.query.PreparedQuery;
+import me.braydon.database.impl.mysql.query.RowMapper;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * This class represents a scanner that reads every row of a {@link Table} in parallel.
+ * <p>
+ * The key space of the primary key is split into ranges, which are read concurrently on a fork join pool.
+ * Each range is read a page at a time with keyset pagination ("WHERE pk &gt;= ? ORDER BY pk LIMIT n"), so
+ * every page is a short index range read no matter how far into the table it is, unlike paging with an
+ * offset. There are more ranges than connections so threads that finish early steal the remaining ranges.
+ * <p>
+ * Progress is tracked in a {@link ScanCheckpoint}, which can be stored and used to resume a scan that
+ * failed or was stopped. The key space is taken when the scan starts, so rows inserted with a key past
+ * the highest key at that point aren't scanned.
+ *
+ * @author Braydon
+ */
+@Slf4j(topic = "TableScanner")
+public class TableScanner {
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+    private static final int DEFAULT_PAGE_SIZE = 1000;
+
+    /**
+     * The amount of ranges to split the key space into for each connection
+     */
+    private static final int RANGES_PER_CONNECTION = 4;
+
+    private final MySQLDatabase database;
+    private final MySQLRepository repository;
+    private final Table table;
+    private final String primaryKey;
+    private final String columns;
+
+    /**
+     * The index of the primary key in the selected columns, starting from 1
+     */
+    private final int keyIndex;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private int connections;
+    private int ranges;
+    private ScanCheckpoint checkpoint;
+    private Consumer<ScanCheckpoint> onCheckpoint;
+
+    /**
+     * @param database the {@link MySQLDatabase} to scan
+     * @param table the {@link Table} to scan, this must have a single integer primary key
+     */
+    public TableScanner(@NonNull MySQLDatabase database, @NonNull Table table) {
+        if (database.getDataSource() == null)
+            throw new IllegalStateException("The database must be connected before creating a table scanner");
+        String[] primaryKeys = table.getPrimaryKeys();
+        if (primaryKeys == null || (primaryKeys.length != 1))
+            throw new IllegalArgumentException("Table \"" + table.getName() + "\" must have a single primary key to be scanned");
+        Column<?> keyColumn = table.getColumn(primaryKeys[0]);
+        if (!(keyColumn instanceof IntegerColumn) && (!(keyColumn instanceof LongColumn)))
+            throw new IllegalArgumentException("The primary key of table \"" + table.getName() + "\" must be an integer to be scanned");
+        this.database = database;
+        repository = new MySQLRepository(database);
+        this.table = table;
+        primaryKey = "`" + keyColumn.getName() + "`";
+        StringJoiner joiner = new StringJoiner(", ");
+        int keyIndex = 0;
+        Column<?>[] tableColumns = table.getColumns();
+        for (int i = 0; i < tableColumns.length; i++) {
+            joiner.add("`" + tableColumns[i].getName() + "`");
+            if (tableColumns[i] == keyColumn)
+                keyIndex = i + 1;
+        }
+        columns = joiner.toString();
+        this.keyIndex = keyIndex;
+        connections = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), database.getDataSource().getMaximumPoolSize()));
+    }
+
+    /**
+     * Set the amount of rows to read in each query
+     *
+     * @param pageSize the page size
+     * @return the scanner
+     */
+    public TableScanner withPageSize(int pageSize) {
+        if (pageSize < 1)
+            throw new IllegalArgumentException("The page size must be at least 1");
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Set the maximum amount of connections to read with at once, this is also the
+     * amount of threads. This defaults to the amount of processors, capped at the pool size
+     *
+     * @param connections the maximum amount of connections
+     * @return the scanner
+     */
+    public TableScanner withConnections(int connections) {
+        if (connections < 1)
+            throw new IllegalArgumentException("The scanner must be able to use at least 1 connection");
+        this.connections = connections;
+        return this;
+    }
+
+    /**
+     * Set the amount of ranges to split the key space into, this defaults to 4 for each connection.
+     * This is ignored when resuming from a checkpoint
+     *
+     * @param ranges the amount of ranges
+     * @return the scanner
+     */
+    public TableScanner withRanges(int ranges) {
+        if (ranges < 1)
+            throw new IllegalArgumentException("The key space must be split into at least 1 range");
+        this.ranges = ranges;
+        return this;
+    }
+
+    /**
+     * Resume the scan from the given checkpoint
+     *
+     * @param checkpoint the {@link ScanCheckpoint} to resume from, null to scan from the start
+     * @return the scanner
+     */
+    public TableScanner withCheckpoint(ScanCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+        return this;
+    }
+
+    /**
+     * Set the {@link Consumer} that gets called with the checkpoint once a page has been consumed,
+     * this is called from the threads of the scan so storing the checkpoint should be quick
+     *
+     * @param onCheckpoint the consumer, null for none
+     * @return the scanner
+     */
+    public TableScanner withCheckpointListener(Consumer<ScanCheckpoint> onCheckpoint) {
+        this.onCheckpoint = onCheckpoint;
+        return this;
+    }
+
+    /**
+     * Scan every row of the table
+     *
+     * @param mapper the {@link RowMapper} to map each row with
+     * @param consumer the {@link Consumer} of each mapped row, this is called from several threads at once
+     * @return the checkpoint of the scan, which is complete unless the scan failed
+     * @see #scan(RowMapper, Consumer, Consumer)
+     */
+    public <T> ScanCheckpoint scan(@NonNull RowMapper<T> mapper, @NonNull Consumer<T> consumer) {
+        return scan(mapper, consumer, null);
+    }
+
+    /**
+     * Scan every row of the table. If a page fails to be read, or the mapper or consumer throws, the
+     * ranges still being read are stopped and the checkpoint can be used to resume the scan later
+     *
+     * @param mapper the {@link RowMapper} to map each row with
+     * @param consumer the {@link Consumer} of each mapped row, this is called from several threads at once
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return the checkpoint of the scan, which is complete unless the scan failed
+     * @throws RuntimeException if thrown by the mapper or consumer, once every range has stopped
+     */
+    public <T> ScanCheckpoint scan(@NonNull RowMapper<T> mapper, @NonNull Consumer<T> consumer, Consumer<SQLException> onException) {
+        long started = System.currentTimeMillis();
+        ScanCheckpoint checkpoint = this.checkpoint;
+        try {
+            if (checkpoint == null)
+                checkpoint = split();
+        } catch (SQLException ex) {
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+            return null;
+        }
+        PreparedQuery query = PreparedQuery.of("SELECT " + columns + " FROM `" + table.getName() + "` WHERE " + primaryKey + " >= ? AND "
+                + primaryKey + " <= ? ORDER BY " + primaryKey + " LIMIT " + pageSize);
+        Semaphore permits = new Semaphore(connections);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        LongAdder rows = new LongAdder();
+
+        ForkJoinPool pool = new ForkJoinPool(connections, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("MySQL Scanner - " + THREAD_ID.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(checkpoint.getRanges());
+            for (int range = 0; range < checkpoint.getRanges(); range++) {
+                if (checkpoint.isDone(range))
+                    continue;
+                int index = range;
+                ScanCheckpoint rangeCheckpoint = checkpoint;
+                tasks.add(pool.submit(() -> scanRange(rangeCheckpoint, index, query, mapper, consumer, permits, failure, rows)));
+            }
+            for (ForkJoinTask<?> task : tasks)
+                task.join();
+        } finally {
+            pool.shutdown();
+        }
+        Throwable thrown = failure.get();
+        // Rethrow what the mapper or consumer threw, now that none of the ranges are still running
+        if (thrown instanceof RuntimeException)
+            throw (RuntimeException) thrown;
+        if (thrown instanceof Error)
+            throw (Error) thrown;
+        if (thrown instanceof SQLException) {
+            SQLException ex = (SQLException) thrown;
+            if (onException != null)
+                onException.accept(ex);
+            ex.printStackTrace();
+        }
+        if (database.getProperties().isDebugging())
+            log.debug("Scanned " + rows.sum() + " rows from table \"" + table.getName() + "\" in " + checkpoint.getRanges() + " ranges in " + (System.currentTimeMillis() - started) + "ms");
+        return checkpoint;
+    }
+
+    /**
+     * Read every page of the given range, stopping early if another range failed. Anything thrown
+     * is stored as the failure rather than thrown, so every range stops before the scan returns
+     */
+    private <T> void scanRange(@NonNull ScanCheckpoint checkpoint, int range, @NonNull PreparedQuery query, @NonNull RowMapper<T> mapper,
+                               @NonNull Consumer<T> consumer, @NonNull Semaphore permits, @NonNull AtomicReference<Throwable> failure,
+                               @NonNull LongAdder rows) {
+        LongColumn lower = new LongColumn("lower", (Long) null);
+        Column<?>[] bounds = { lower, new LongColumn("upper", checkpoint.getUpper(range)) };
+        while (failure.get() == null && (!checkpoint.isDone(range))) {
+            lower.setValue(checkpoint.getNext(range));
+            List<T> page = new ArrayList<>(pageSize);
+            long lastKey;
+            try {
+                permits.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try (Connection connection = database.getConnection(database.getReadDataSource())) {
+                lastKey = repository.query(connection, query, bounds, resultSet -> {
+                    RowMapper<T> rowMapper = mapper.forResultSet(resultSet);
+                    long key = Long.MIN_VALUE;
+                    while (resultSet.next()) {
+                        page.add(rowMapper.map(resultSet));
+                        key = resultSet.getLong(keyIndex);
+                    }
+                    return key;
+                });
+            } catch (Throwable ex) {
+                // This includes anything thrown by the mapper, which stops the other ranges the same way
+                failure.compareAndSet(null, ex);
+                return;
+            } finally {
+                permits.release();
+            }
+            // Consume the page without holding a connection, so slow consumers don't starve the other ranges
+            try {
+                for (T row : page)
+                    consumer.accept(row);
+            } catch (Throwable ex) {
+                failure.compareAndSet(null, ex);
+                return;
+            }
+            rows.add(page.size());
+            checkpoint.advance(range, lastKey, page.size() < pageSize);
+            if (onCheckpoint != null)
+                onCheckpoint.accept(checkpoint);
+        }
+    }
+
+    /**
+     * Split the current key space of the table into ranges
+     *
+     * @return the checkpoint, positioned at the start of each range
+     * @throws SQLException if the key space failed to be read
+     */
+    private ScanCheckpoint split() throws SQLException {
+        PreparedQuery query = PreparedQuery.of("SELECT MIN(" + primaryKey + "), MAX(" + primaryKey + ") FROM `" + table.getName() + "`");
+        try (Connection connection = database.getConnection(database.getReadDataSource())) {
+            return repository.query(connection, query, (Column<?>[]) null, resultSet -> {
+                resultSet.next();
+                long min = resultSet.getLong(1);
+                // An empty table has no key space to split, so there's nothing to scan
+                if (resultSet.wasNull())
+                    return ScanCheckpoint.decode("");
+                return ScanCheckpoint.split(min, resultSet.getLong(2), ranges > 0 ? ranges : connections * RANGES_PER_CONNECTION);
+            });
+        }
+    }
+}
@@ -0,0 +1,700 @@
+package me.braydon.database.impl.mysql;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import me.braydon.database.impl.mysql.data.Column;
+import me.braydon.database.impl.mysql.data.Table;
+import me.braydon.database.impl.mysql.data.impl.*;
+import me.braydon.database.impl.mysql.query.PreparedQuery;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * This class represents a read-only, in-process snapshot of a {@link Table}, for small tables that are read constantly.
+ * <p>
+ * The rows are stored by column: integer, long, double and boolean columns in primitive arrays, and varchar columns
+ * as codes into a dictionary of their distinct values. The primary key is indexed with an open addressing hash
+ * table, so looking up a row and reading its values doesn't allocate or touch the network.
+ * <p>
+ * When the table has a watermark column that increases whenever a row changes (such as an updated at timestamp or a
+ * version), the snapshot is refreshed by only reading the rows with a watermark at or past the highest one seen so
+ * far. Each refresh builds a new {@link Version} which replaces the current one atomically, so readers always see a
+ * consistent version. Deleted rows are only dropped by a full reload, so tables should soft delete their rows.
+ *
+ * @author Braydon
+ */
+@Slf4j(topic = "TableSnapshot")
+public class TableSnapshot {
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+    private static final byte INT = 0, LONG = 1, DOUBLE = 2, BOOLEAN = 3, STRING = 4, OBJECT = 5;
+
+    private final MySQLDatabase database;
+    private final MySQLRepository repository;
+    @Getter private final Table table;
+    private final byte[] kinds;
+    private final String[] names;
+
+    /**
+     * The index of the primary key in the columns of the table
+     */
+    private final int keyIndex;
+
+    /**
+     * The index of the watermark in the columns of the table, -1 if there is none
+     */
+    private final int watermarkIndex;
+    private final PreparedQuery loadQuery, refreshQuery;
+    private final Object refreshLock = new Object();
+
+    /**
+     * The codes of the strings in the dictionary, this is only used while refreshing
+     */
+    private final Map<String, Integer> dictionaryCodes = new HashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * The current version of the snapshot, null if it hasn't been loaded
+     */
+    private volatile Version version;
+
+    /**
+     * @param database the {@link MySQLDatabase} to load the table from
+     * @param table the {@link Table} to snapshot, this must have a single integer primary key
+     */
+    public TableSnapshot(@NonNull MySQLDatabase database, @NonNull Table table) {
+        this(database, table, null);
+    }
+
+    /**
+     * @param database the {@link MySQLDatabase} to load the table from
+     * @param table the {@link Table} to snapshot, this must have a single integer primary key
+     * @param watermarkColumn the name of an integer or timestamp column that increases whenever a row
+     *                        is inserted or updated, null to reload the whole table on each refresh
+     */
+    public TableSnapshot(@NonNull MySQLDatabase database, @NonNull Table table, String watermarkColumn) {
+        if (database.getDataSource() == null)
+            throw new IllegalStateException("The database must be connected before creating a table snapshot");
+        String[] primaryKeys = table.getPrimaryKeys();
+        if (primaryKeys == null || (primaryKeys.length != 1))
+            throw new IllegalArgumentException("Table \"" + table.getName() + "\" must have a single primary key to be snapshot");
+        Column<?> keyColumn = table.getColumn(primaryKeys[0]);
+        if (!(keyColumn instanceof IntegerColumn) && (!(keyColumn instanceof LongColumn)))
+            throw new IllegalArgumentException("The primary key of table \"" + table.getName() + "\" must be an integer to be snapshot");
+        Column<?> watermark = watermarkColumn == null ? null : table.getColumn(watermarkColumn);
+        if (watermarkColumn != null && (watermark == null))
+            throw new IllegalArgumentException("Table \"" + table.getName() + "\" has no column named \"" + watermarkColumn + "\"");
+        if (watermark != null && (!(watermark instanceof IntegerColumn) && !(watermark instanceof LongColumn) && !(watermark instanceof TimestampColumn)))
+            throw new IllegalArgumentException("The watermark of table \"" + table.getName() + "\" must be an integer or timestamp column");
+        this.database = database;
+        repository = new MySQLRepository(database);
+        this.table = table;
+
+        Column<?>[] columns = table.getColumns();
+        kinds = new byte[columns.length];
+        names = new String[columns.length];
+        StringJoiner selected = new StringJoiner(", ");
+        int keyIndex = -1, watermarkIndex = -1;
+        for (int i = 0; i < columns.length; i++) {
+            Column<?> column = columns[i];
+            kinds[i] = kindOf(column);
+            names[i] = column.getName();
+            selected.add("`" + column.getName() + "`");
+            if (column == keyColumn)
+                keyIndex = i;
+            if (column == watermark)
+                watermarkIndex = i;
+        }
+        this.keyIndex = keyIndex;
+        this.watermarkIndex = watermarkIndex;
+        loadQuery = PreparedQuery.of("SELECT " + selected + " FROM `" + table.getName() + "`");
+        refreshQuery = watermark == null ? null : PreparedQuery.of("SELECT " + selected + " FROM `" + table.getName() + "` WHERE `"
+                + watermark.getName() + "` >= ?");
+    }
+
+    /**
+     * Get the current version of the snapshot, this should be read once and then used for every lookup
+     * that needs to see the same rows, as a refresh may replace the current version at any point
+     *
+     * @return the current version
+     * @throws IllegalStateException if the snapshot hasn't been loaded
+     */
+    public Version getVersion() {
+        Version version = this.version;
+        if (version == null)
+            throw new IllegalStateException("The snapshot of table \"" + table.getName() + "\" hasn't been loaded");
+        return version;
+    }
+
+    /**
+     * Refresh the snapshot, loading the whole table if it hasn't been loaded, has no watermark, or
+     * had no rows with a watermark when it was last loaded
+     *
+     * @return whether the refresh succeeded
+     */
+    public boolean refresh() {
+        return refresh(null);
+    }
+
+    /**
+     * Refresh the snapshot, loading the whole table if it hasn't been loaded, has no watermark, or
+     * had no rows with a watermark when it was last loaded. Otherwise only the rows with a watermark at or past the highest one seen are read, rows with the
+     * highest watermark are read again in case more rows were written with the same watermark since
+     *
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return whether the refresh succeeded
+     */
+    public boolean refresh(Consumer<SQLException> onException) {
+        synchronized (refreshLock) {
+            Version current = version;
+            // Without a watermark seen yet (the table had no rows with one) every row has to be read, and
+            // Long.MIN_VALUE isn't a timestamp the server can compare against
+            if (current == null || (refreshQuery == null) || (current.watermark == Long.MIN_VALUE))
+                return reload(onException);
+            long started = System.currentTimeMillis();
+            Column<?>[] watermark = { watermarkColumn(current.watermark) };
+            try (Connection connection = database.getConnection(database.getReadDataSource())) {
+                Version refreshed = repository.query(connection, refreshQuery, watermark, resultSet -> {
+                    Builder builder = null;
+                    while (resultSet.next()) {
+                        if (builder == null)
+                            builder = new Builder(current);
+                        builder.read(resultSet);
+                    }
+                    return builder == null ? current : builder.build();
+                });
+                version = refreshed;
+                if (database.getProperties().isDebugging() && (refreshed != current))
+                    log.debug("Refreshed snapshot of table \"" + table.getName() + "\" to " + refreshed.rows + " rows in " + (System.currentTimeMillis() - started) + "ms");
+                return true;
+            } catch (SQLException ex) {
+                // Forget any strings the failed refresh added, as they aren't in the dictionary of the current version
+                restoreDictionaryCodes(current);
+                if (onException != null)
+                    onException.accept(ex);
+                ex.printStackTrace();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Load the whole table into a new version, dropping any rows that have been deleted
+     *
+     * @return whether the reload succeeded
+     */
+    public boolean reload() {
+        return reload(null);
+    }
+
+    /**
+     * Load the whole table into a new version, dropping any rows that have been deleted
+     *
+     * @param onException the {@link Consumer} that gets called if an {@link SQLException} is thrown
+     * @return whether the reload succeeded
+     */
+    public boolean reload(Consumer<SQLException> onException) {
+        synchronized (refreshLock) {
+            Version current = version;
+            long started = System.currentTimeMillis();
+            try (Connection connection = database.getConnection(database.getReadDataSource())) {
+                Version loaded = repository.query(connection, loadQuery, (Column<?>[]) null, resultSet -> {
+                    dictionaryCodes.clear();
+                    Builder builder = new Builder(null);
+                    while (resultSet.next())
+                        builder.read(resultSet);
+                    return builder.build();
+                });
+                version = loaded;
+                if (database.getProperties().isDebugging())
+                    log.debug("Loaded snapshot of table \"" + table.getName() + "\" with " + loaded.rows + " rows in " + (System.currentTimeMillis() - started) + "ms");
+                return true;
+            } catch (SQLException ex) {
+                // The codes were rebuilt for the failed load's dictionary, so point them back at the current version's
+                restoreDictionaryCodes(current);
+                if (onException != null)
+                    onException.accept(ex);
+                ex.printStackTrace();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Reset the codes of the strings in the dictionary to those of the given version,
+     * after a failed load or refresh added strings that aren't in its dictionary
+     *
+     * @param current the current version, null if the snapshot hasn't been loaded
+     */
+    private void restoreDictionaryCodes(Version current) {
+        dictionaryCodes.clear();
+        if (current == null)
+            return;
+        for (int code = 0; code < current.dictionary.length && (current.dictionary[code] != null); code++)
+            dictionaryCodes.put(current.dictionary[code], code);
+    }
+
+    /**
+     * Load the snapshot if it hasn't been loaded, and refresh it in the background at the given interval
+     *
+     * @param interval the time, in milliseconds, between refreshes
+     * @return the snapshot
+     */
+    public TableSnapshot start(long interval) {
+        if (interval < 1L)
+            throw new IllegalArgumentException("The refresh interval must be at least 1ms");
+        synchronized (refreshLock) {
+            if (scheduler != null)
+                throw new IllegalStateException("The snapshot of table \"" + table.getName() + "\" is already refreshing");
+            if (version == null)
+                reload();
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "MySQL Snapshot - " + THREAD_ID.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    refresh();
+                } catch (Throwable ex) {
+                    ex.printStackTrace();
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+            return this;
+        }
+    }
+
+    /**
+     * Stop refreshing the snapshot in the background, the current version can still be read
+     */
+    public void close() {
+        ScheduledExecutorService scheduler;
+        synchronized (refreshLock) {
+            scheduler = this.scheduler;
+            this.scheduler = null;
+        }
+        if (scheduler != null)
+            scheduler.shutdown();
+    }
+
+    private Column<?> watermarkColumn(long watermark) {
+        String name = names[watermarkIndex];
+        if (kinds[watermarkIndex] == OBJECT)
+            return new TimestampColumn(name, new Timestamp(watermark));
+        return new LongColumn(name, watermark);
+    }
+
+    private static byte kindOf(@NonNull Column<?> column) {
+        if (column instanceof IntegerColumn)
+            return INT;
+        if (column instanceof LongColumn)
+            return LONG;
+        if (column instanceof DoubleColumn)
+            return DOUBLE;
+        if (column instanceof BooleanColumn)
+            return BOOLEAN;
+        if (column instanceof VarcharColumn)
+            return STRING;
+        return OBJECT;
+    }
+
+    /**
+     * This class represents an immutable version of a {@link TableSnapshot}.
+     * <p>
+     * Rows are addressed by their index, which is found by looking up their primary key with {@link #find(long)},
+     * and columns by their index in the table, which can be resolved once with {@link #getColumnIndex(String)}.
+     */
+    public final class Version {
+        /**
+         * The amount of rows in this version
+         */
+        @Getter private final int rows;
+
+        /**
+         * The highest watermark of the rows in this version, {@link Long#MIN_VALUE} if there is none
+         */
+        @Getter private final long watermark;
+
+        /**
+         * The values of each column, the array type depends on the kind of the column
+         */
+        private final Object[] data;
+
+        /**
+         * The null bitmap of each column, a set bit marks the value of the row as null
+         */
+        private final long[][] nulls;
+        private final String[] dictionary;
+        private final long[] indexKeys;
+
+        /**
+         * The index of the row each key in the index belongs to plus 1, 0 for an empty slot
+         */
+        private final int[] indexRows;
+
+        private Version(int rows, long watermark, @NonNull Object[] data, @NonNull long[][] nulls, @NonNull String[] dictionary,
+                        @NonNull long[] indexKeys, @NonNull int[] indexRows) {
+            this.rows = rows;
+            this.watermark = watermark;
+            this.data = data;
+            this.nulls = nulls;
+            this.dictionary = dictionary;
+            this.indexKeys = indexKeys;
+            this.indexRows = indexRows;
+        }
+
+        /**
+         * Find the row with the given primary key
+         *
+         * @param key the primary key
+         * @return the index of the row, -1 if there is no row with the key
+         */
+        public int find(long key) {
+            int mask = indexKeys.length - 1;
+            for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+                int row = indexRows[slot];
+                if (row == 0)
+                    return -1;
+                if (indexKeys[slot] == key)
+                    return row - 1;
+            }
+        }
+
+        /**
+         * Get the index of the column with the given name
+         *
+         * @param name the name of the column
+         * @return the index of the column
+         * @throws IllegalArgumentException if the table has no column with the name
+         */
+        public int getColumnIndex(@NonNull String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equalsIgnoreCase(name))
+                    return i;
+            }
+            throw new IllegalArgumentException("Table \"" + table.getName() + "\" has no column named \"" + name + "\"");
+        }
+
+        /**
+         * Check whether the value of the given row and column is null
+         *
+         * @param row the index of the row
+         * @param column the index of the column
+         * @return whether the value is null
+         */
+        public boolean isNull(int row, int column) {
+            checkRow(row);
+            return (nulls[column][row >>> 6] & (1L << row)) != 0L;
+        }
+
+        /**
+         * Get the value of the given row of an integer column, 0 if the value is null
+         *
+         * @param row the index of the row
+         * @param column the index of the column
+         * @return the value
+         */
+        public int getInt(int row, int column) {
+            checkRow(row);
+            return ((int[]) columnData(column, INT))[row];
+        }
+
+        /**
+         * Get the value of the given row of an integer or long column, 0 if the value is null
+         *
+         * @param row the index of the row
+         * @param column the index of the column
+         * @return the value
+         */
+        public long getLong(int row, int column) {
+            checkRow(row);
+            if (kinds[column] == INT)
+                return ((int[]) data[column])[row];
+            return ((long[]) columnData(column, LONG))[row];
+        }
+
+        /**
+         * Get the value of the given row of a double column, 0 if the value is null
+         *
+         * @param row the index of the row
+         * @param column the index of the column
+         * @return the value
+         */
+        public double getDouble(int row, int column) {
+            checkRow(row);
+            return ((double[]) columnData(column, DOUBLE))[row];
+        }
+
+        /**
+         * Get the value of the given row of a boolean column, false if the value is null
+         *
+         * @param row the index of the row
+         * @param column the index of the column
+         * @return the value
+         */
+        public boolean getBoolean(int row, int column) {
+            checkRow(row);
+            return ((boolean[]) columnData(column, BOOLEAN))[row];
+        }
+
+        /**
+         * Get the value of the given row of a varchar column, equal values share the same instance
+         *
+         * @param row the index of the row
+         * @param column the index of the column
+         * @return the value, null if the value is null
+         */
+        public String getString(int row, int column) {
+            if (isNull(row, column))
+                return null;
+            return dictionary[((int[]) columnData(column, STRING))[row]];
+        }
+
+        /**
+         * Get the value of the given row and column as an object, boxing primitives
+         *
+         * @param row the index of the row
+         * @param column the index of the column
+         * @return the value, null if the value is null
+         */
+        public Object getValue(int row, int column) {
+            if (isNull(row, column))
+                return null;
+            switch (kinds[column]) {
+                case INT:
+                    return getInt(row, column);
+                case LONG:
+                    return getLong(row, column);
+                case DOUBLE:
+                    return getDouble(row, column);
+                case BOOLEAN:
+                    return getBoolean(row, column);
+                case STRING:
+                    return getString(row, column);
+                default:
+                    return ((Object[]) data[column])[row];
+            }
+        }
+
+        private Object columnData(int column, byte kind) {
+            if (kinds[column] != kind)
+                throw new IllegalArgumentException("Column \"" + names[column] + "\" of table \"" + table.getName() + "\" can't be read as that type");
+            return data[column];
+        }
+
+        private void checkRow(int row) {
+            if (row < 0 || (row >= rows))
+                throw new IndexOutOfBoundsException("Row " + row + " is out of bounds for " + rows + " rows");
+        }
+    }
+
+    /**
+     * A builder of a {@link Version}, either from scratch or by copying an existing version and applying changed rows
+     */
+    private class Builder {
+        private int rows;
+        private long watermark;
+        private final Object[] data;
+        private final long[][] nulls;
+        private String[] dictionary;
+        private long[] indexKeys;
+        private int[] indexRows;
+        private boolean dictionaryCopied;
+
+        private Builder(Version version) {
+            int columns = kinds.length;
+            data = new Object[columns];
+            nulls = new long[columns][];
+            if (version == null) {
+                watermark = Long.MIN_VALUE;
+                int capacity = 16;
+                for (int i = 0; i < columns; i++) {
+                    data[i] = newArray(kinds[i], capacity);
+                    nulls[i] = new long[(capacity + 63) >>> 6];
+                }
+                dictionary = new String[16];
+                dictionaryCopied = true;
+                indexKeys = new long[32];
+                indexRows = new int[32];
+                return;
+            }
+            // Copy the arrays of the version, so it's left untouched for anyone still reading it
+            rows = version.rows;
+            watermark = version.watermark;
+            for (int i = 0; i < columns; i++) {
+                data[i] = copyArray(version.data[i], arrayLength(version.data[i]));
+                nulls[i] = version.nulls[i].clone();
+            }
+            dictionary = version.dictionary;
+            indexKeys = version.indexKeys.clone();
+            indexRows = version.indexRows.clone();
+        }
+
+        /**
+         * Read the current row of the given result set, replacing the row with the same primary key
+         */
+        private void read(@NonNull ResultSet resultSet) throws SQLException {
+            long key = resultSet.getLong(keyIndex + 1);
+            int row = find(key);
+            if (row < 0) {
+                row = rows++;
+                ensureCapacity(rows);
+                index(key, row);
+            }
+            for (int column = 0; column < kinds.length; column++) {
+                int resultIndex = column + 1;
+                boolean isNull;
+                switch (kinds[column]) {
+                    case INT:
+                        ((int[]) data[column])[row] = resultSet.getInt(resultIndex);
+                        isNull = resultSet.wasNull();
+                        break;
+                    case LONG:
+                        ((long[]) data[column])[row] = resultSet.getLong(resultIndex);
+                        isNull = resultSet.wasNull();
+                        break;
+                    case DOUBLE:
+                        ((double[]) data[column])[row] = resultSet.getDouble(resultIndex);
+                        isNull = resultSet.wasNull();
+                        break;
+                    case BOOLEAN:
+                        ((boolean[]) data[column])[row] = resultSet.getBoolean(resultIndex);
+                        isNull = resultSet.wasNull();
+                        break;
+                    case STRING:
+                        String value = resultSet.getString(resultIndex);
+                        isNull = value == null;
+                        ((int[]) data[column])[row] = isNull ? 0 : encode(value);
+                        break;
+                    default:
+                        Object object = resultSet.getObject(resultIndex);
+                        isNull = object == null;
+                        ((Object[]) data[column])[row] = object;
+                }
+                if (isNull)
+                    nulls[column][row >>> 6] |= 1L << row;
+                else nulls[column][row >>> 6] &= ~(1L << row);
+            }
+            if (watermarkIndex >= 0) {
+                long rowWatermark;
+                if (kinds[watermarkIndex] == OBJECT) {
+                    Timestamp timestamp = resultSet.getTimestamp(watermarkIndex + 1);
+                    rowWatermark = timestamp == null ? Long.MIN_VALUE : timestamp.getTime();
+                } else rowWatermark = resultSet.getLong(watermarkIndex + 1);
+                watermark = Math.max(watermark, rowWatermark);
+            }
+        }
+
+        private Version build() {
+            return new Version(rows, watermark, data, nulls, dictionary, indexKeys, indexRows);
+        }
+
+        private int encode(@NonNull String value) {
+            Integer code = dictionaryCodes.get(value);
+            if (code != null)
+                return code;
+            int next = dictionaryCodes.size();
+            // The dictionary of the current version is shared, so copy it before adding to it
+            if (!dictionaryCopied || (next == dictionary.length)) {
+                dictionary = Arrays.copyOf(dictionary, Math.max(16, next == dictionary.length ? dictionary.length * 2 : dictionary.length));
+                dictionaryCopied = true;
+            }
+            dictionary[next] = value;
+            dictionaryCodes.put(value, next);
+            return next;
+        }
+
+        private int find(long key) {
+            int mask = indexKeys.length - 1;
+            for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+                int row = indexRows[slot];
+                if (row == 0)
+                    return -1;
+                if (indexKeys[slot] == key)
+                    return row - 1;
+            }
+        }
+
+        private void index(long key, int row) {
+            // Keep the index at most half full, so probes stay short
+            if (rows * 2 > indexKeys.length) {
+                long[] oldKeys = indexKeys;
+                int[] oldRows = indexRows;
+                indexKeys = new long[oldKeys.length * 2];
+                indexRows = new int[oldRows.length * 2];
+                for (int slot = 0; slot < oldKeys.length; slot++) {
+                    if (oldRows[slot] != 0)
+                        insert(oldKeys[slot], oldRows[slot]);
+                }
+            }
+            insert(key, row + 1);
+        }
+
+        private void insert(long key, int indexRow) {
+            int mask = indexKeys.length - 1;
+            int slot = mix(key) & mask;
+            while (indexRows[slot] != 0)
+                slot = (slot + 1) & mask;
+            indexKeys[slot] = key;
+            indexRows[slot] = indexRow;
+        }
+
+        private void ensureCapacity(int capacity) {
+            int length = arrayLength(data[0]);
+            if (capacity <= length)
+                return;
+            int newLength = Math.max(capacity, length * 2);
+            for (int i = 0; i < data.length; i++) {
+                data[i] = copyArray(data[i], newLength);
+                nulls[i] = Arrays.copyOf(nulls[i], (newLength + 63) >>> 6);
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static Object newArray(byte kind, int length) {
+        switch (kind) {
+            case INT:
+            case STRING:
+                return new int[length];
+            case LONG:
+                return new long[length];
+            case DOUBLE:
+                return new double[length];
+            case BOOLEAN:
+                return new boolean[length];
+            default:
+                return new Object[length];
+        }
+    }
+
+    private static Object copyArray(@NonNull Object array, int length) {
+        if (array instanceof int[])
+            return Arrays.copyOf((int[]) array, length);
+        if (array instanceof long[])
+            return Arrays.copyOf((long[]) array, length);
+        if (array instanceof double[])
+            return Arrays.copyOf((double[]) array, length);
+        if (array instanceof boolean[])
+            return Arrays.copyOf((boolean[]) array, length);
+        return Arrays.copyOf((Object[]) array, length);
+    }
+
+    private static int arrayLength(@NonNull Object array) {
+        return java.lang.reflect.Array.getLength(array);
+    }
+}
@@ -0,0 +1,212 @@
+package me.braydon.database.impl.mysql;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import me.braydon.database.impl.mysql.data.Column;
+import me.braydon.database.impl.mysql.query.PreparedQuery;
+import me.braydon.database.impl.mysql.query.ResultSetHandler;
+import me.braydon.database.impl.mysql.query.RowMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * This class represents a transaction executed on a single connection using the {@link MySQLRepository}.
+ * <p>
+ * Writes added with {@link #queue(PreparedQuery, Column[])} aren't sent to the server straight away, they're
+ * held until the next query that needs a result (or until the transaction commits) and then sent as batches,
+ * with consecutive writes of the same query sharing a batch. This saves a round trip per write.
+ *
+ * @author Braydon
+ * @see MySQLRepository#inTransaction(IsolationLevel, boolean, TransactionWork, Consumer)
+ */
+public class Transaction {
+    private final MySQLRepository repository;
+    @Getter private final Connection connection;
+    private final int batchSize;
+    private final List<QueuedWrite> queued = new ArrayList<>();
+
+    /**
+     * The queries that have written to the database in this transaction
+     */
+    private final Set<PreparedQuery> written = new LinkedHashSet<>();
+
+    Transaction(@NonNull MySQLRepository repository, @NonNull Connection connection, int batchSize) {
+        this.repository = repository;
+        this.connection = connection;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Queue the given columns to be written using the provided query
+     *
+     * @param query the query to execute
+     * @param columns the {@link Column} array to write
+     */
+    public void queue(@NonNull String query, @NonNull Column<?>[] columns) {
+        queue(PreparedQuery.of(query), columns);
+    }
+
+    /**
+     * Queue the given columns to be written using the provided query
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to write
+     */
+    public void queue(@NonNull PreparedQuery query, @NonNull Column<?>[] columns) {
+        query.validate(columns);
+        queued.add(new QueuedWrite(query, columns));
+    }
+
+    /**
+     * Insert the given columns using the provided query, the queued writes are sent first
+     *
+     * @param query the query to execute
+     * @param columns the {@link Column} array to insert
+     * @return the amount of rows affected
+     * @throws SQLException if the query failed
+     */
+    public int executeInsert(@NonNull String query, @NonNull Column<?>[] columns) throws SQLException {
+        return executeInsert(PreparedQuery.of(query), columns, null);
+    }
+
+    /**
+     * Insert the given columns using the provided query, the queued writes are sent first
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to insert
+     * @param onComplete the {@link Consumer} of {@link ResultSet} that gets called with the generated keys
+     * @return the amount of rows affected
+     * @throws SQLException if the query failed
+     */
+    public int executeInsert(@NonNull PreparedQuery query, @NonNull Column<?>[] columns, Consumer<ResultSet> onComplete) throws SQLException {
+        query.validate(columns);
+        flush();
+        written.add(query);
+        return repository.insert(connection, query, columns, onComplete);
+    }
+
+    /**
+     * Execute the given query, the queued writes are sent first
+     *
+     * @param query the query to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param handler the {@link ResultSetHandler} to handle the result with
+     * @return the result of the handler
+     * @throws SQLException if the query failed
+     */
+    public <T> T executeQuery(@NonNull String query, Column<?>[] columns, @NonNull ResultSetHandler<T> handler) throws SQLException {
+        return executeQuery(PreparedQuery.of(query), columns, handler);
+    }
+
+    /**
+     * Execute the given query, the queued writes are sent first
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param handler the {@link ResultSetHandler} to handle the result with
+     * @return the result of the handler
+     * @throws SQLException if the query failed
+     */
+    public <T> T executeQuery(@NonNull PreparedQuery query, Column<?>[] columns, @NonNull ResultSetHandler<T> handler) throws SQLException {
+        if (columns != null)
+            query.validate(columns);
+        flush();
+        return repository.query(connection, query, columns, handler);
+    }
+
+    /**
+     * Execute the given query, mapping each row to the given type. The queued writes are sent first
+     *
+     * @param query the query to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param type the class or record to map each row to
+     * @return the mapped rows
+     * @throws SQLException if the query failed
+     * @see RowMapper#of(Class)
+     */
+    public <T> List<T> executeList(@NonNull String query, Column<?>[] columns, @NonNull Class<T> type) throws SQLException {
+        return executeQuery(PreparedQuery.of(query), columns, RowMapper.of(type).toList());
+    }
+
+    /**
+     * Execute the given query, mapping each row to the given type. The queued writes are sent first
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to use in the query
+     * @param type the class or record to map each row to
+     * @return the mapped rows
+     * @throws SQLException if the query failed
+     * @see RowMapper#of(Class)
+     */
+    public <T> List<T> executeList(@NonNull PreparedQuery query, Column<?>[] columns, @NonNull Class<T> type) throws SQLException {
+        return executeQuery(query, columns, RowMapper.of(type).toList());
+    }
+
+    /**
+     * Execute the given query without reading a result, the queued writes are sent first
+     *
+     * @param query the query to execute
+     * @throws SQLException if the query failed
+     */
+    public void executeQuery(@NonNull String query) throws SQLException {
+        flush();
+        PreparedQuery prepared = PreparedQuery.of(query);
+        if (!prepared.isRead())
+            written.add(prepared);
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.execute();
+        }
+    }
+
+    /**
+     * Send the queued writes to the server
+     *
+     * @return the total amount of rows affected, or -1 if the driver didn't report it
+     * @throws SQLException if a write failed
+     */
+    public int flush() throws SQLException {
+        if (queued.isEmpty())
+            return 0;
+        List<QueuedWrite> writes = new ArrayList<>(queued);
+        queued.clear();
+
+        int total = 0;
+        int start = 0;
+        while (start < writes.size()) {
+            // Batch the consecutive writes of the same query, so the order of the writes is kept
+            PreparedQuery query = writes.get(start).query;
+            int end = start + 1;
+            while (end < writes.size() && (writes.get(end).query.getSql().equals(query.getSql())))
+                end++;
+            List<Column<?>[]> rows = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++)
+                rows.add(writes.get(i).columns);
+            written.add(query);
+            int affected = repository.batch(connection, query, rows, batchSize).getTotalAffectedRows();
+            total = total < 0 || (affected < 0) ? -1 : total + affected;
+            start = end;
+        }
+        return total;
+    }
+
+    /**
+     * Called once the transaction has been committed, this marks the writes again so cached
+     * results and replica reads from before the commit aren't used
+     */
+    void committed() {
+        for (PreparedQuery query : written)
+            repository.written(query);
+    }
+
+    @AllArgsConstructor
+    private static class QueuedWrite {
+        private final PreparedQuery query;
+        private final Column<?>[] columns;
+    }
+}
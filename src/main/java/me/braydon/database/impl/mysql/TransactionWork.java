@@ -0,0 +1,22 @@
+package me.braydon.database.impl.mysql;
+
+import java.sql.SQLException;
+
+/**
+ * This class represents the work that is executed inside of a {@link Transaction}
+ *
+ * @author Braydon
+ * @param <T> the result type
+ */
+@FunctionalInterface
+public interface TransactionWork<T> {
+    /**
+     * Execute the work using the given transaction
+     *
+     * @param transaction the transaction to execute the work with
+     * @return the result of the work
+     * @throws SQLException if a query failed, the transaction is then rolled back
+     * @apiNote The transaction is committed once this method returns, so it shouldn't be kept
+     */
+    T execute(Transaction transaction) throws SQLException;
+}
@@ -0,0 +1,323 @@
+package me.braydon.database.impl.mysql;
+
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import me.braydon.database.impl.mysql.data.Column;
+import me.braydon.database.impl.mysql.data.Table;
+import me.braydon.database.impl.mysql.query.PreparedQuery;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * This class represents a write behind writer for the {@link MySQLDatabase}.
+ * <p>
+ * Writes are accepted into a bounded queue and flushed in the background once the flush size
+ * or flush interval from the {@link MySQLProperties} is reached. When flushing, the queued writes
+ * are grouped by query and sent as batches over a single connection. Writes submitted with a
+ * {@link Table} are coalesced by primary key, so only the latest write for a row is sent.
+ * <p>
+ * Writes are only guaranteed to be in order relative to other writes of the same query.
+ *
+ * @author Braydon
+ * @see MySQLProperties#withWriteBehind(int, int, long)
+ */
+@Slf4j(topic = "WriteBehindWriter")
+public class WriteBehindWriter {
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+    private final MySQLDatabase database;
+    private final MySQLRepository repository;
+    private final BlockingQueue<PendingWrite> queue;
+    private final int flushSize;
+    private final ScheduledExecutorService scheduler;
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /**
+     * Writes are enqueued holding the read lock and the writer is closed holding the write lock,
+     * so once closed there are no writes still being enqueued that the final flush would miss
+     */
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final AtomicInteger highestQueueDepth = new AtomicInteger();
+
+    public WriteBehindWriter(@NonNull MySQLDatabase database) {
+        MySQLProperties properties = database.getProperties();
+        if (properties == null || (database.getDataSource() == null))
+            throw new IllegalStateException("The database must be connected before creating a write behind writer");
+        this.database = database;
+        repository = new MySQLRepository(database);
+        queue = new ArrayBlockingQueue<>(properties.getWriteBehindQueueSize());
+        flushSize = properties.getWriteBehindFlushSize();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MySQL Write Behind - " + THREAD_ID.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long flushInterval = properties.getWriteBehindFlushInterval();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue the given columns to be written using the provided query, blocking if the queue is full
+     *
+     * @param query the query to execute
+     * @param columns the {@link Column} array to write
+     */
+    public void submit(@NonNull String query, @NonNull Column<?>[] columns) {
+        submit(PreparedQuery.of(query), columns);
+    }
+
+    /**
+     * Queue the given columns to be written using the provided query, blocking if the queue is full
+     *
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to write
+     */
+    public void submit(@NonNull PreparedQuery query, @NonNull Column<?>[] columns) {
+        query.validate(columns);
+        enqueue(new PendingWrite(query, columns, null));
+    }
+
+    /**
+     * Queue the given columns to be written using the provided query, blocking if the queue is full.
+     * If another write for the same query and primary key is still queued, it's replaced by this write
+     *
+     * @param table the {@link Table} being written to, used for its primary keys
+     * @param query the query to execute
+     * @param columns the {@link Column} array to write, this must contain every primary key of the table
+     * @apiNote Only use this for writes where the latest write replaces any before it, such as setting
+     *          a value. Writes such as incrementing a value would lose the coalesced increments
+     */
+    public void submit(@NonNull Table table, @NonNull String query, @NonNull Column<?>[] columns) {
+        submit(table, PreparedQuery.of(query), columns);
+    }
+
+    /**
+     * Queue the given columns to be written using the provided query, blocking if the queue is full.
+     * If another write for the same query and primary key is still queued, it's replaced by this write
+     *
+     * @param table the {@link Table} being written to, used for its primary keys
+     * @param query the {@link PreparedQuery} to execute
+     * @param columns the {@link Column} array to write, this must contain every primary key of the table
+     * @apiNote Only use this for writes where the latest write replaces any before it, such as setting
+     *          a value. Writes such as incrementing a value would lose the coalesced increments
+     */
+    public void submit(@NonNull Table table, @NonNull PreparedQuery query, @NonNull Column<?>[] columns) {
+        query.validate(columns);
+        enqueue(new PendingWrite(query, columns, primaryKey(table, columns)));
+    }
+
+    /**
+     * Flush the queued writes to the database
+     */
+    public void flush() {
+        flushScheduled.set(false);
+        synchronized (flushLock) {
+            List<PendingWrite> pending = new ArrayList<>(queue.size());
+            queue.drainTo(pending);
+            if (pending.isEmpty())
+                return;
+            flushes.increment();
+
+            // Group the writes by query, keeping the latest write for each primary key
+            Map<PreparedQuery, Map<Object, Column<?>[]>> groups = new LinkedHashMap<>();
+            for (PendingWrite write : pending) {
+                Map<Object, Column<?>[]> group = groups.computeIfAbsent(write.query, query -> new LinkedHashMap<>());
+                if (group.put(write.key == null ? write : write.key, write.columns) != null)
+                    coalesced.increment();
+            }
+            long started = System.currentTimeMillis();
+            try (Connection connection = database.getConnection(database.getDataSource())) {
+                for (Map.Entry<PreparedQuery, Map<Object, Column<?>[]>> entry : groups.entrySet()) {
+                    List<Column<?>[]> rows = new ArrayList<>(entry.getValue().values());
+                    BatchResult result = repository.executeBatch(connection, entry.getKey(), rows,
+                            database.getProperties().getBatchSize(), null);
+                    if (result == null)
+                        failed.add(rows.size());
+                    else written.add(rows.size());
+                }
+            } catch (SQLException ex) {
+                failed.add(pending.size());
+                ex.printStackTrace();
+            }
+            if (database.getProperties().isDebugging())
+                log.debug("Flushed " + pending.size() + " writes in " + groups.size() + " batches in " + (System.currentTimeMillis() - started) + "ms");
+        }
+    }
+
+    /**
+     * Flush the queued writes and stop the writer, writes can no longer be submitted once closed
+     */
+    public void close() {
+        // Wait for writes that are being enqueued, the scheduled flushes keep making room for them meanwhile
+        closeLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10L, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Get the amount of writes waiting to be flushed
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Get the highest amount of writes that have been waiting to be flushed at once
+     *
+     * @return the highest queue depth
+     */
+    public int getHighestQueueDepth() {
+        return highestQueueDepth.get();
+    }
+
+    /**
+     * Get the amount of writes that have been submitted
+     *
+     * @return the submitted writes
+     */
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    /**
+     * Get the amount of writes that were replaced by a later write to the same primary key
+     *
+     * @return the coalesced writes
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Get the amount of writes that have been sent to the database
+     *
+     * @return the written writes
+     */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * Get the amount of writes that failed to be sent to the database
+     *
+     * @return the failed writes
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Get the amount of times the queue has been flushed
+     *
+     * @return the flush count
+     */
+    public long getFlushes() {
+        return flushes.sum();
+    }
+
+    /**
+     * Flush the queued writes, catching anything thrown so the scheduled flushes keep running
+     */
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Throwable ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private void enqueue(@NonNull PendingWrite write) {
+        closeLock.readLock().lock();
+        try {
+            if (closed)
+                throw new IllegalStateException("The write behind writer has been closed");
+            try {
+                queue.put(write);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for space in the write behind queue", ex);
+            }
+            submitted.increment();
+
+            int depth = queue.size();
+            highestQueueDepth.accumulateAndGet(depth, Math::max);
+
+            // Flush early once enough writes are waiting, rather than waiting for the interval. The scheduler
+            // is only shut down once closed, so it can't reject the flush while the read lock is held
+            if (depth >= flushSize && flushScheduled.compareAndSet(false, true))
+                scheduler.execute(this::flushQuietly);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the primary key values of the given columns
+     *
+     * @param table the table to get the primary keys from
+     * @param columns the columns to get the values from
+     * @return the primary key values
+     */
+    private static List<Object> primaryKey(@NonNull Table table, @NonNull Column<?>[] columns) {
+        String[] primaryKeys = table.getPrimaryKeys();
+        if (primaryKeys == null || (primaryKeys.length < 1))
+            throw new IllegalArgumentException("Table \"" + table.getName() + "\" has no primary keys to coalesce writes with");
+        List<Object> values = new ArrayList<>(primaryKeys.length);
+        for (String primaryKey : primaryKeys) {
+            Column<?> match = null;
+            for (Column<?> column : columns) {
+                if (column.getName().equalsIgnoreCase(primaryKey)) {
+                    match = column;
+                    break;
+                }
+            }
+            if (match == null)
+                throw new IllegalArgumentException("Missing primary key column \"" + primaryKey + "\" for table \"" + table.getName() + "\"");
+            Object value = match.getValue();
+            // Arrays (e.g. binary keys) need to be compared by content
+            values.add(value instanceof byte[] ? ByteBuffer.wrap((byte[]) value) : value);
+        }
+        return values;
+    }
+
+    @AllArgsConstructor
+    private static class PendingWrite {
+        private final PreparedQuery query;
+        private final Column<?>[] columns;
+
+        /**
+         * The primary key values of the write, null if the write shouldn't be coalesced
+         */
+        private final List<Object> key;
+    }
+}
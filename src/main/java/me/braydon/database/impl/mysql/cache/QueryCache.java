@@ -0,0 +1,375 @@
+package me.braydon.database.impl.mysql.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import me.braydon.database.impl.mysql.MySQLProperties;
+import me.braydon.database.impl.mysql.data.Column;
+import me.braydon.database.impl.mysql.query.Parameters;
+import me.braydon.database.impl.mysql.query.PreparedQuery;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class represents an in-process cache for the results of read queries.
+ * <p>
+ * Results are keyed by the query along with the values of the bound columns, and stored as
+ * detached, read-only snapshots. The cache is bounded by size (evicting the least recently used
+ * result) and by age. Each table has a version that is bumped whenever the table is written to
+ * through the repository, cached results of queries reading from the table are then treated
+ * as stale. There is also an epoch that is bumped when every result is invalidated at once.
+ *
+ * @author Braydon
+ * @see MySQLProperties#withQueryCache(int, long)
+ */
+public class QueryCache {
+    private static final RowSetFactory ROW_SET_FACTORY;
+
+    static {
+        try {
+            ROW_SET_FACTORY = RowSetProvider.newFactory();
+        } catch (SQLException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    @Getter private final int maxEntries;
+    @Getter private final long ttl;
+    private final Map<Key, CachedResult> entries;
+    private final Map<String, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+
+    /**
+     * The version of every table at once, bumped when every result is invalidated
+     */
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param maxEntries the maximum amount of results to cache
+     * @param ttl the time, in milliseconds, a result is cached for
+     */
+    public QueryCache(int maxEntries, long ttl) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("The query cache must be able to hold at least 1 entry");
+        if (ttl < 1L)
+            throw new IllegalArgumentException("The query cache ttl must be at least 1ms");
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        entries = new LinkedHashMap<Key, CachedResult>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedResult> eldest) {
+                if (size() <= QueryCache.this.maxEntries)
+                    return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get the cached result of the given query
+     *
+     * @param query the query
+     * @param columns the {@link Column} array used in the query
+     * @return a read-only view of the result, positioned before the first row, null if there is no fresh result
+     * @throws SQLException if the view failed to be created
+     */
+    public ResultSet get(@NonNull PreparedQuery query, Column<?>[] columns) throws SQLException {
+        return get(query, values(columns));
+    }
+
+    /**
+     * Get the cached result of the given query
+     *
+     * @param query the query
+     * @param parameters the {@link Parameters} used in the query
+     * @return a read-only view of the result, positioned before the first row, null if there is no fresh result
+     * @throws SQLException if the view failed to be created
+     */
+    public ResultSet get(@NonNull PreparedQuery query, @NonNull Parameters parameters) throws SQLException {
+        return get(query, values(parameters));
+    }
+
+    private ResultSet get(@NonNull PreparedQuery query, @NonNull Object[] values) throws SQLException {
+        Key key = new Key(query.getSql(), values);
+        CachedResult entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && (System.currentTimeMillis() - entry.created > ttl || isStale(query, entry.versions))) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return view(entry.snapshot);
+    }
+
+    /**
+     * Get the current versions of the tables read by the given query, followed by the epoch. The versions should
+     * be taken before executing the query, and then passed along with its result to
+     * {@link #put(PreparedQuery, Column[], ResultSet, long[])}
+     *
+     * @param query the query
+     * @return the table versions
+     */
+    public long[] getVersions(@NonNull PreparedQuery query) {
+        long[] versions = new long[query.getTables().size() + 1];
+        // Take the epoch first, so invalidating everything while the table versions are taken is still seen
+        versions[versions.length - 1] = epoch.get();
+        int index = 0;
+        for (String table : query.getTables())
+            versions[index++] = version(table).get();
+        return versions;
+    }
+
+    /**
+     * Snapshot and cache the given result of a query
+     *
+     * @param query the query
+     * @param columns the {@link Column} array used in the query
+     * @param resultSet the result of the query
+     * @param versions the versions of the tables read by the query, taken before executing it
+     * @return a read-only view of the snapshot, positioned before the first row
+     * @throws SQLException if the result failed to be read
+     */
+    public ResultSet put(@NonNull PreparedQuery query, Column<?>[] columns, @NonNull ResultSet resultSet,
+                         @NonNull long[] versions) throws SQLException {
+        return put(query, values(columns), resultSet, versions);
+    }
+
+    /**
+     * Snapshot and cache the given result of a query
+     *
+     * @param query the query
+     * @param parameters the {@link Parameters} used in the query
+     * @param resultSet the result of the query
+     * @param versions the versions of the tables read by the query, taken before executing it
+     * @return a read-only view of the snapshot, positioned before the first row
+     * @throws SQLException if the result failed to be read
+     */
+    public ResultSet put(@NonNull PreparedQuery query, @NonNull Parameters parameters, @NonNull ResultSet resultSet,
+                         @NonNull long[] versions) throws SQLException {
+        return put(query, values(parameters), resultSet, versions);
+    }
+
+    private ResultSet put(@NonNull PreparedQuery query, @NonNull Object[] values, @NonNull ResultSet resultSet,
+                          @NonNull long[] versions) throws SQLException {
+        CachedRowSet snapshot = ROW_SET_FACTORY.createCachedRowSet();
+        snapshot.setConcurrency(ResultSet.CONCUR_READ_ONLY);
+        snapshot.populate(resultSet);
+        // Don't cache the result if a table was written to while the query was executing
+        if (!isStale(query, versions)) {
+            synchronized (entries) {
+                entries.put(new Key(query.getSql(), values), new CachedResult(snapshot, versions, System.currentTimeMillis()));
+            }
+        }
+        return view(snapshot);
+    }
+
+    /**
+     * Invalidate the cached results of queries reading from any of the given tables
+     *
+     * @param tables the names of the tables that were written to
+     */
+    public void invalidate(@NonNull Collection<String> tables) {
+        for (String table : tables)
+            version(table.toLowerCase(Locale.ROOT)).incrementAndGet();
+        invalidations.increment();
+    }
+
+    /**
+     * Invalidate every cached result
+     */
+    public void invalidateAll() {
+        // Bump the epoch before clearing, so results of queries that were already executing aren't cached
+        epoch.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+        }
+        invalidations.increment();
+    }
+
+    /**
+     * Get the amount of cached results
+     *
+     * @return the size of the cache
+     */
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Get the amount of lookups that returned a cached result
+     *
+     * @return the hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the amount of lookups that didn't return a cached result
+     *
+     * @return the misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the ratio of lookups that returned a cached result
+     *
+     * @return the hit rate, between 0 and 1
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0L ? 0D : (double) hits / total;
+    }
+
+    /**
+     * Get the amount of results that were evicted to make space for newer results
+     *
+     * @return the evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get the amount of times tables were invalidated
+     *
+     * @return the invalidations
+     */
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    private boolean isStale(@NonNull PreparedQuery query, @NonNull long[] versions) {
+        if (epoch.get() != versions[versions.length - 1])
+            return true;
+        int index = 0;
+        for (String table : query.getTables()) {
+            if (version(table).get() != versions[index++])
+                return true;
+        }
+        return false;
+    }
+
+    private AtomicLong version(@NonNull String table) {
+        return tableVersions.computeIfAbsent(table, name -> new AtomicLong());
+    }
+
+    /**
+     * Create a view of the given snapshot, the view shares the rows
+     * of the snapshot but has its own cursor
+     */
+    private static ResultSet view(@NonNull CachedRowSet snapshot) throws SQLException {
+        ResultSet shared = snapshot.createShared();
+        shared.beforeFirst();
+        return (ResultSet) Proxy.newProxyInstance(QueryCache.class.getClassLoader(), new Class<?>[] { ResultSet.class }, new View(shared));
+    }
+
+    private static Object[] values(Column<?>[] columns) {
+        if (columns == null)
+            return new Object[0];
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++)
+            values[i] = columns[i].getValue();
+        return values;
+    }
+
+    private static Object[] values(@NonNull Parameters parameters) {
+        Object[] values = new Object[parameters.size()];
+        for (int i = 0; i < values.length; i++)
+            values[i] = parameters.getValue(i);
+        return values;
+    }
+
+    @AllArgsConstructor
+    private static class Key {
+        private final String sql;
+        private final Object[] values;
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other)
+                return true;
+            if (other == null || getClass() != other.getClass())
+                return false;
+            Key key = (Key) other;
+            return sql.equals(key.sql) && Arrays.deepEquals(values, key.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + Arrays.deepHashCode(values);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class CachedResult {
+        private final CachedRowSet snapshot;
+        private final long[] versions;
+        private final long created;
+    }
+
+    /**
+     * The {@link InvocationHandler} of a view of a snapshot. Closing a shared row set clears the rows
+     * it shares with the snapshot, so closing the view only stops it from being used
+     */
+    private static class View implements InvocationHandler {
+        private final ResultSet shared;
+        private volatile boolean closed;
+
+        private View(@NonNull ResultSet shared) {
+            this.shared = shared;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (closed && (method.getDeclaringClass() != Object.class))
+                throw new SQLException("The result set is closed");
+            try {
+                return method.invoke(shared, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
@@ -5,6 +5,11 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
 /**
  * This class represents a column in a MySQL {@link Table}
  *
@@ -33,4 +38,68 @@ public abstract class Column<T> {
      * @return the type
      */
     public abstract String getType();
+
+    /**
+     * Get the type definition of the column, this is the type
+     * along with the length of the column if it has one
+     *
+     * @return the type definition
+     */
+    public String getTypeDefinition() {
+        return length > 0 ? getType() + "(" + length + ")" : getType();
+    }
+
+    /**
+     * Get the SQL type of the column, this is used when binding a null value
+     *
+     * @return the SQL type
+     * @see Types
+     */
+    public int getSqlType() {
+        return Types.VARCHAR;
+    }
+
+    /**
+     * Bind the value of this column to the given statement
+     *
+     * @param statement the statement to bind to
+     * @param index the index of the parameter in the statement
+     * @throws SQLException if the value failed to bind
+     */
+    public void bind(PreparedStatement statement, int index) throws SQLException {
+        if (value == null)
+            statement.setNull(index, getSqlType());
+        else bindValue(statement, index, value);
+    }
+
+    /**
+     * Bind the given non-null value to the statement using the native setter for the type
+     *
+     * @param statement the statement to bind to
+     * @param index the index of the parameter in the statement
+     * @param value the value to bind
+     * @throws SQLException if the value failed to bind
+     */
+    protected void bindValue(PreparedStatement statement, int index, T value) throws SQLException {
+        statement.setString(index, value.toString());
+    }
+
+    /**
+     * Encode the value of this column to the raw bytes of its text form, as read by LOAD DATA
+     *
+     * @return the encoded value, null if the value is null
+     */
+    public byte[] encode() {
+        return value == null ? null : encodeValue(value);
+    }
+
+    /**
+     * Encode the given non-null value to the raw bytes of its text form
+     *
+     * @param value the value to encode
+     * @return the encoded value
+     */
+    protected byte[] encodeValue(T value) {
+        return value.toString().getBytes(StandardCharsets.UTF_8);
+    }
 }
@@ -0,0 +1,136 @@
+package me.braydon.database.impl.mysql.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents a secondary index of a MySQL {@link Table}
+ *
+ * @author Braydon
+ * @see Table#withIndex(Index)
+ */
+@Getter
+public class Index {
+    private final String name;
+    private final boolean unique;
+    private final List<Part> parts = new ArrayList<>();
+
+    private Index(@NonNull String name, boolean unique, @NonNull String... columns) {
+        if (columns.length < 1)
+            throw new IllegalArgumentException("Index \"" + name + "\" must have at least 1 column");
+        this.name = name;
+        this.unique = unique;
+        for (String column : columns)
+            parts.add(new Part(column, 0));
+    }
+
+    /**
+     * Create an index on the given columns, in the order they're given
+     *
+     * @param name the name of the index
+     * @param columns the columns to index
+     * @return the index
+     */
+    public static Index of(@NonNull String name, @NonNull String... columns) {
+        return new Index(name, false, columns);
+    }
+
+    /**
+     * Create a unique index on the given columns, in the order they're given
+     *
+     * @param name the name of the index
+     * @param columns the columns to index
+     * @return the index
+     */
+    public static Index unique(@NonNull String name, @NonNull String... columns) {
+        return new Index(name, true, columns);
+    }
+
+    /**
+     * Only index the first characters (or bytes) of the given column, this keeps
+     * indexes on long text or binary columns small
+     *
+     * @param column the column of the index to limit
+     * @param length the amount of characters (or bytes) to index
+     * @return the index
+     */
+    public Index withPrefix(@NonNull String column, int length) {
+        if (length < 1)
+            throw new IllegalArgumentException("Prefix length must be at least 1");
+        for (int i = 0; i < parts.size(); i++) {
+            if (parts.get(i).getColumn().equalsIgnoreCase(column)) {
+                parts.set(i, new Part(parts.get(i).getColumn(), length));
+                return this;
+            }
+        }
+        throw new IllegalArgumentException("Column \"" + column + "\" isn't part of index \"" + name + "\"");
+    }
+
+    /**
+     * Add the given columns to the end of the index so queries reading only the indexed
+     * and covered columns can be answered from the index without reading the rows.
+     * <p>
+     * MySQL has no separate included columns, so covered columns are regular key parts
+     * and should be columns that aren't filtered on. For the same reason they can't be added
+     * to a unique index, as they'd become part of what has to be unique
+     *
+     * @param columns the columns to cover
+     * @return the index
+     * @throws IllegalStateException if this is a unique index
+     */
+    public Index withCovering(@NonNull String... columns) {
+        if (unique)
+            throw new IllegalStateException("Unique index \"" + name + "\" can't cover columns, they'd become part of the unique key");
+        for (String column : columns)
+            parts.add(new Part(column, 0));
+        return this;
+    }
+
+    /**
+     * Get the names of the columns in this index, in order
+     *
+     * @return the column names
+     */
+    public List<String> getColumns() {
+        List<String> columns = new ArrayList<>(parts.size());
+        for (Part part : parts)
+            columns.add(part.getColumn());
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * Get the definition of this index, as used in a create table query
+     *
+     * @return the definition
+     */
+    public String getDefinition() {
+        StringBuilder builder = new StringBuilder(unique ? "UNIQUE INDEX `" : "INDEX `").append(name).append("` (");
+        for (int i = 0; i < parts.size(); i++) {
+            Part part = parts.get(i);
+            if (i > 0)
+                builder.append(", ");
+            builder.append("`").append(part.getColumn()).append("`");
+            if (part.getLength() > 0)
+                builder.append("(").append(part.getLength()).append(")");
+        }
+        return builder.append(")").toString();
+    }
+
+    /**
+     * This class represents a column of an {@link Index}
+     */
+    @AllArgsConstructor @Getter
+    public static class Part {
+        private final String column;
+
+        /**
+         * The amount of characters (or bytes) of the column that are indexed, 0 to index the whole column
+         */
+        private final int length;
+    }
+}
@@ -0,0 +1,172 @@
+package me.braydon.database.impl.mysql.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class represents how the rows of a MySQL {@link Table} are split into partitions
+ *
+ * @author Braydon
+ * @see Table#withPartitioning(Partitioning)
+ */
+@Getter
+public class Partitioning {
+    private final Type type;
+
+    /**
+     * The expression (or columns for {@link Type#RANGE_COLUMNS}) the rows are partitioned by
+     */
+    private final String expression;
+
+    /**
+     * The amount of partitions, this is only used for {@link Type#HASH} and {@link Type#KEY}
+     */
+    private final int partitions;
+
+    /**
+     * The amount of columns the rows are partitioned by, this is only used for {@link Type#RANGE_COLUMNS}
+     */
+    private final int columns;
+    private final List<Range> ranges = new ArrayList<>();
+
+    private Partitioning(@NonNull Type type, @NonNull String expression, int partitions, int columns) {
+        this.type = type;
+        this.expression = expression;
+        this.partitions = partitions;
+        this.columns = columns;
+    }
+
+    /**
+     * Partition the rows by the hash of the given expression
+     *
+     * @param expression the expression to hash, such as "`id`"
+     * @param partitions the amount of partitions
+     * @return the partitioning
+     */
+    public static Partitioning hash(@NonNull String expression, int partitions) {
+        if (partitions < 1)
+            throw new IllegalArgumentException("There must be at least 1 partition");
+        return new Partitioning(Type.HASH, expression, partitions, 0);
+    }
+
+    /**
+     * Partition the rows by the hash of the given columns, using the hashing function of the server
+     *
+     * @param partitions the amount of partitions
+     * @param columns the columns to hash, none to use the primary key
+     * @return the partitioning
+     */
+    public static Partitioning key(int partitions, @NonNull String... columns) {
+        if (partitions < 1)
+            throw new IllegalArgumentException("There must be at least 1 partition");
+        return new Partitioning(Type.KEY, quote(columns), partitions, 0);
+    }
+
+    /**
+     * Partition the rows by ranges of the given integer expression, the
+     * ranges are added using {@link #withRange(String, String)}
+     *
+     * @param expression the expression to partition by, such as "YEAR(`created`)"
+     * @return the partitioning
+     */
+    public static Partitioning range(@NonNull String expression) {
+        return new Partitioning(Type.RANGE, expression, 0, 0);
+    }
+
+    /**
+     * Partition the rows by ranges of the given columns, the ranges are added using
+     * {@link #withRange(String, String)}. Unlike {@link #range(String)}, the columns
+     * don't need to be integers
+     *
+     * @param columns the columns to partition by
+     * @return the partitioning
+     */
+    public static Partitioning rangeColumns(@NonNull String... columns) {
+        if (columns.length < 1)
+            throw new IllegalArgumentException("There must be at least 1 column to partition by");
+        return new Partitioning(Type.RANGE_COLUMNS, quote(columns), 0, columns.length);
+    }
+
+    /**
+     * Add a range partition, holding the rows below the given bound that aren't in an earlier partition
+     *
+     * @param name the name of the partition
+     * @param lessThan the exclusive upper bound of the partition, or "MAXVALUE" to hold every remaining row. With
+     *                 {@link Type#RANGE_COLUMNS}, this is a value for each column, such as "2024, 'm'"
+     * @return the partitioning
+     */
+    public Partitioning withRange(@NonNull String name, @NonNull String lessThan) {
+        if (type != Type.RANGE && (type != Type.RANGE_COLUMNS))
+            throw new IllegalStateException("Ranges can only be added to range partitioning");
+        ranges.add(new Range(name, lessThan));
+        return this;
+    }
+
+    /**
+     * Get the definition of this partitioning, as used in a create table query
+     *
+     * @return the definition
+     */
+    public String getDefinition() {
+        switch (type) {
+            case HASH:
+                return "PARTITION BY HASH (" + expression + ") PARTITIONS " + partitions;
+            case KEY:
+                return "PARTITION BY KEY (" + expression + ") PARTITIONS " + partitions;
+            default: {
+                if (ranges.isEmpty())
+                    throw new IllegalStateException("Range partitioning must have at least 1 range");
+                StringBuilder builder = new StringBuilder("PARTITION BY ")
+                        .append(type == Type.RANGE ? "RANGE (" : "RANGE COLUMNS (").append(expression).append(") (");
+                for (int i = 0; i < ranges.size(); i++) {
+                    Range range = ranges.get(i);
+                    if (i > 0)
+                        builder.append(", ");
+                    builder.append("PARTITION `").append(range.getName()).append("` VALUES LESS THAN ");
+                    if (!range.getLessThan().equalsIgnoreCase("MAXVALUE"))
+                        builder.append("(").append(range.getLessThan()).append(")");
+                    else if (type == Type.RANGE)
+                        builder.append("MAXVALUE");
+                    else {
+                        // Range columns only accept a list of values, with a MAXVALUE for each column
+                        builder.append("(");
+                        for (int column = 0; column < columns; column++)
+                            builder.append(column > 0 ? ", MAXVALUE" : "MAXVALUE");
+                        builder.append(")");
+                    }
+                }
+                return builder.append(")").toString();
+            }
+        }
+    }
+
+    private static String quote(@NonNull String... columns) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0)
+                builder.append(", ");
+            builder.append("`").append(columns[i]).append("`");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The types of partitioning
+     */
+    public enum Type {
+        HASH, KEY, RANGE, RANGE_COLUMNS
+    }
+
+    /**
+     * This class represents a partition of a range partitioning
+     */
+    @AllArgsConstructor @Getter
+    public static class Range {
+        private final String name;
+        private final String lessThan;
+    }
+}
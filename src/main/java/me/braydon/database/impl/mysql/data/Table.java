@@ -1,20 +1,118 @@
 package me.braydon.database.impl.mysql.data;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import me.braydon.database.impl.mysql.data.impl.IntegerColumn;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * This class represents a table in MySQL
  *
  * @author Braydon
  */
-@AllArgsConstructor @RequiredArgsConstructor @Getter
+@RequiredArgsConstructor @Getter
 public class Table {
     private final String name;
     private final Column<?>[] columns;
     private String[] primaryKeys;
+    @Getter(AccessLevel.NONE) private final List<Index> indexes = new ArrayList<>();
+    private Partitioning partitioning;
+
+    /**
+     * The storage engine of the table, null to use the server default
+     */
+    private String engine;
+
+    /**
+     * The row format of the table, such as "DYNAMIC" or "COMPRESSED", null to use the server default
+     */
+    private String rowFormat;
+
+    /**
+     * The page compression algorithm of the table, such as "zlib" or "lz4", null for no compression
+     */
+    private String compression;
+
+    public Table(String name, Column<?>[] columns, String[] primaryKeys) {
+        this.name = name;
+        this.columns = columns;
+        this.primaryKeys = primaryKeys;
+    }
+
+    /**
+     * Add a secondary index to the table
+     *
+     * @param index the index to add
+     * @return the table
+     */
+    public Table withIndex(@NonNull Index index) {
+        for (Index other : indexes) {
+            if (other.getName().equalsIgnoreCase(index.getName()))
+                throw new IllegalArgumentException("Table \"" + name + "\" already has an index named \"" + index.getName() + "\"");
+        }
+        indexes.add(index);
+        return this;
+    }
+
+    /**
+     * Set how the rows of the table are split into partitions
+     *
+     * @param partitioning the partitioning
+     * @return the table
+     */
+    public Table withPartitioning(Partitioning partitioning) {
+        this.partitioning = partitioning;
+        return this;
+    }
+
+    /**
+     * Set the storage engine of the table
+     *
+     * @param engine the engine, such as "InnoDB"
+     * @return the table
+     */
+    public Table withEngine(String engine) {
+        this.engine = engine;
+        return this;
+    }
+
+    /**
+     * Set the row format of the table
+     *
+     * @param rowFormat the row format, such as "DYNAMIC" or "COMPRESSED"
+     * @return the table
+     */
+    public Table withRowFormat(String rowFormat) {
+        this.rowFormat = rowFormat;
+        return this;
+    }
+
+    /**
+     * Set the page compression algorithm of the table
+     *
+     * @param compression the compression algorithm, such as "zlib" or "lz4"
+     * @return the table
+     * @apiNote Page compression requires InnoDB with file-per-table tablespaces
+     *          and a filesystem that supports hole punching
+     */
+    public Table withCompression(String compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    /**
+     * Get the secondary indexes of the table
+     *
+     * @return the indexes
+     */
+    public List<Index> getIndexes() {
+        return Collections.unmodifiableList(indexes);
+    }
 
     /**
      * Get the create query {@link String} for this table
@@ -33,21 +131,8 @@ public class Table {
         if (autoIncrementingTables > 1)
             throw new IllegalArgumentException("Inappropriate amount of auto incrementing tables (" + autoIncrementingTables + ">1)");
         StringBuilder queryBuilder = new StringBuilder("CREATE TABLE " + (ignoreExisting ? "IF NOT EXISTS " : "") + "`" + name + "` (");
-        for (Column<?> column : columns) {
-            boolean autoIncrement = column instanceof IntegerColumn && ((IntegerColumn) column).isAutoIncrement();
-
-            queryBuilder.append("`").append(column.getName()).append("` ").append(column.getType());
-            // If the column length is longer than 0, we wanna add the column length to the column type String
-            if (column.getLength() > 0)
-                queryBuilder.append("(").append(column.getLength()).append(")");
-            // If the column isn't nullable, add "NOT NULL" to the query
-            if (!column.isNullable())
-                queryBuilder.append(" NOT NULL");
-            // If the column is set to auto increment, add "AUTO_INCREMENT" to the query
-            if (autoIncrement)
-                queryBuilder.append(" AUTO_INCREMENT");
-            queryBuilder.append(", ");
-        }
+        for (Column<?> column : columns)
+            queryBuilder.append(getColumnDefinition(column)).append(", ");
         StringBuilder query = new StringBuilder(queryBuilder.toString());
         query = new StringBuilder(query.substring(0, query.length() - 2));
 
@@ -62,7 +147,60 @@ public class Table {
             query = new StringBuilder(query.substring(0, query.length() - 2) + ")");
         }
 
-        query.append(");");
+        // Appending the secondary indexes to the query
+        for (Index index : indexes) {
+            for (String indexColumn : index.getColumns()) {
+                if (getColumn(indexColumn) == null)
+                    throw new IllegalArgumentException("Index \"" + index.getName() + "\" uses unknown column \"" + indexColumn + "\"");
+            }
+            query.append(", ").append(index.getDefinition());
+        }
+        query.append(")");
+
+        // Appending the table options and partitioning to the query
+        if (engine != null)
+            query.append(" ENGINE=").append(engine);
+        if (rowFormat != null)
+            query.append(" ROW_FORMAT=").append(rowFormat);
+        if (compression != null)
+            query.append(" COMPRESSION='").append(compression).append("'");
+        if (partitioning != null)
+            query.append(" ").append(partitioning.getDefinition());
+        query.append(";");
         return query.toString();
     }
+
+    /**
+     * Get the definition of the given column, as used in a create or alter table query
+     *
+     * @param column the column to get the definition of
+     * @return the definition
+     */
+    public static String getColumnDefinition(@NonNull Column<?> column) {
+        boolean autoIncrement = column instanceof IntegerColumn && ((IntegerColumn) column).isAutoIncrement();
+
+        // The type definition contains the column length (if any) along with the column type
+        StringBuilder builder = new StringBuilder("`").append(column.getName()).append("` ").append(column.getTypeDefinition());
+        // If the column isn't nullable, add "NOT NULL" to the query
+        if (!column.isNullable())
+            builder.append(" NOT NULL");
+        // If the column is set to auto increment, add "AUTO_INCREMENT" to the query
+        if (autoIncrement)
+            builder.append(" AUTO_INCREMENT");
+        return builder.toString();
+    }
+
+    /**
+     * Get the column of the table with the given name
+     *
+     * @param name the name of the column
+     * @return the column, null if there is no column with the name
+     */
+    public Column<?> getColumn(@NonNull String name) {
+        for (Column<?> column : columns) {
+            if (column.getName().equalsIgnoreCase(name))
+                return column;
+        }
+        return null;
+    }
 }
\ No newline at end of file
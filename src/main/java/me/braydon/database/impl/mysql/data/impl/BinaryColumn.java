@@ -0,0 +1,64 @@
+package me.braydon.database.impl.mysql.data.impl;
+
+import lombok.Getter;
+import me.braydon.database.impl.mysql.data.Column;
+import me.braydon.database.impl.mysql.data.Table;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * This class represents a byte array column in a MySQL {@link Table}. Columns with
+ * a length are created as VARBINARY, and columns without a length as BLOB
+ *
+ * @author Braydon
+ */
+@Getter
+public class BinaryColumn extends Column<byte[]> {
+    public BinaryColumn(String name, byte[] value) {
+        super(name, value);
+    }
+
+    public BinaryColumn(String name, boolean nullable) {
+        this(name, 0, nullable);
+    }
+
+    public BinaryColumn(String name, int length, boolean nullable) {
+        super(name, length, nullable);
+    }
+
+    /**
+     * Get the type of the column
+     * @return the type
+     */
+    @Override
+    public String getType() {
+        return getLength() > 0 ? "VARBINARY" : "BLOB";
+    }
+
+    /**
+     * Get the SQL type of the column
+     * @return the SQL type
+     */
+    @Override
+    public int getSqlType() {
+        return getLength() > 0 ? Types.VARBINARY : Types.BLOB;
+    }
+
+    /**
+     * Bind the given value to the statement using {@link PreparedStatement#setBytes}
+     */
+    @Override
+    protected void bindValue(PreparedStatement statement, int index, byte[] value) throws SQLException {
+        statement.setBytes(index, value);
+    }
+
+    /**
+     * Encode the given value as is
+     */
+    @Override
+    protected byte[] encodeValue(byte[] value) {
+        return value;
+    }
+}
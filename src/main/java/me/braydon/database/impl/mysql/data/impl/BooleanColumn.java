@@ -4,6 +4,10 @@ import lombok.Getter;
 import me.braydon.database.impl.mysql.data.Column;
 import me.braydon.database.impl.mysql.data.Table;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
 /**
  * This class represents a {@link Boolean} column in a MySQL {@link Table}
  *
@@ -27,4 +31,29 @@ public class BooleanColumn extends Column<Boolean> {
     public String getType() {
         return "BOOLEAN";
     }
-}
\ No newline at end of file
+
+    /**
+     * Get the SQL type of the column
+     * @return the SQL type
+     */
+    @Override
+    public int getSqlType() {
+        return Types.BOOLEAN;
+    }
+
+    /**
+     * Bind the given value to the statement using {@link PreparedStatement#setBoolean}
+     */
+    @Override
+    protected void bindValue(PreparedStatement statement, int index, Boolean value) throws SQLException {
+        statement.setBoolean(index, value);
+    }
+
+    /**
+     * Encode the given value as "1" or "0", matching how the server stores booleans
+     */
+    @Override
+    protected byte[] encodeValue(Boolean value) {
+        return new byte[] { (byte) (value ? '1' : '0') };
+    }
+}
@@ -0,0 +1,88 @@
+package me.braydon.database.impl.mysql.data.impl;
+
+import lombok.Getter;
+import me.braydon.database.impl.mysql.data.Column;
+import me.braydon.database.impl.mysql.data.Table;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * This class represents a {@link BigDecimal} column in a MySQL {@link Table}
+ *
+ * @author Braydon
+ */
+@Getter
+public class DecimalColumn extends Column<BigDecimal> {
+    private final int precision, scale;
+
+    public DecimalColumn(String name, BigDecimal value) {
+        super(name, value);
+        precision = 0;
+        scale = 0;
+    }
+
+    /**
+     * @param name the name of the column
+     * @param precision the maximum amount of digits in the column (1-65)
+     * @param scale the amount of digits after the decimal point (0-30)
+     * @param nullable whether or not the column is nullable
+     */
+    public DecimalColumn(String name, int precision, int scale, boolean nullable) {
+        super(name, 0, nullable);
+        if (precision < 1 || (precision > 65))
+            throw new IllegalArgumentException("Decimal precision must be between 1 and 65");
+        if (scale < 0 || (scale > 30) || (scale > precision))
+            throw new IllegalArgumentException("Decimal scale must be between 0 and 30, and no larger than the precision");
+        this.precision = precision;
+        this.scale = scale;
+    }
+
+    /**
+     * Get the type of the column
+     * @return the type
+     */
+    @Override
+    public String getType() {
+        return "DECIMAL";
+    }
+
+    /**
+     * Get the type definition of the column, this is the type
+     * along with the precision and scale of the column
+     *
+     * @return the type definition
+     */
+    @Override
+    public String getTypeDefinition() {
+        return precision > 0 ? getType() + "(" + precision + "," + scale + ")" : getType();
+    }
+
+    /**
+     * Get the SQL type of the column
+     * @return the SQL type
+     */
+    @Override
+    public int getSqlType() {
+        return Types.DECIMAL;
+    }
+
+    /**
+     * Bind the given value to the statement using {@link PreparedStatement#setBigDecimal}
+     */
+    @Override
+    protected void bindValue(PreparedStatement statement, int index, BigDecimal value) throws SQLException {
+        statement.setBigDecimal(index, value);
+    }
+
+    /**
+     * Encode the given value without an exponent, so it's read exactly
+     */
+    @Override
+    protected byte[] encodeValue(BigDecimal value) {
+        return value.toPlainString().getBytes(StandardCharsets.UTF_8);
+    }
+}
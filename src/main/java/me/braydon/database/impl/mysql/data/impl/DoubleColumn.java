@@ -4,6 +4,10 @@ import lombok.Getter;
 import me.braydon.database.impl.mysql.data.Column;
 import me.braydon.database.impl.mysql.data.Table;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
 /**
  * This class represents a {@link Double} column in a MySQL {@link Table}
  *
@@ -31,4 +35,21 @@ public class DoubleColumn extends Column<Double> {
     public String getType() {
         return "DOUBLE";
     }
+
+    /**
+     * Get the SQL type of the column
+     * @return the SQL type
+     */
+    @Override
+    public int getSqlType() {
+        return Types.DOUBLE;
+    }
+
+    /**
+     * Bind the given value to the statement using {@link PreparedStatement#setDouble}
+     */
+    @Override
+    protected void bindValue(PreparedStatement statement, int index, Double value) throws SQLException {
+        statement.setDouble(index, value);
+    }
 }
@@ -4,6 +4,10 @@ import lombok.Getter;
 import me.braydon.database.impl.mysql.data.Column;
 import me.braydon.database.impl.mysql.data.Table;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
 /**
  * This class represents an {@link Integer} column in a MySQL {@link Table}
  *
@@ -39,4 +43,21 @@ public class IntegerColumn extends Column<Integer> {
     public String getType() {
         return "INT";
     }
+
+    /**
+     * Get the SQL type of the column
+     * @return the SQL type
+     */
+    @Override
+    public int getSqlType() {
+        return Types.INTEGER;
+    }
+
+    /**
+     * Bind the given value to the statement using {@link PreparedStatement#setInt}
+     */
+    @Override
+    protected void bindValue(PreparedStatement statement, int index, Integer value) throws SQLException {
+        statement.setInt(index, value);
+    }
 }
@@ -4,6 +4,10 @@ import lombok.Getter;
 import me.braydon.database.impl.mysql.data.Column;
 import me.braydon.database.impl.mysql.data.Table;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
 /**
  * This class represents a {@link Long} column in a MySQL {@link Table}
  *
@@ -29,6 +33,23 @@ public class LongColumn extends Column<Long> {
      */
     @Override
     public String getType() {
-        return "LONG";
+        return "BIGINT";
+    }
+
+    /**
+     * Get the SQL type of the column
+     * @return the SQL type
+     */
+    @Override
+    public int getSqlType() {
+        return Types.BIGINT;
+    }
+
+    /**
+     * Bind the given value to the statement using {@link PreparedStatement#setLong}
+     */
+    @Override
+    protected void bindValue(PreparedStatement statement, int index, Long value) throws SQLException {
+        statement.setLong(index, value);
     }
 }
@@ -0,0 +1,63 @@
+package me.braydon.database.impl.mysql.data.impl;
+
+import lombok.Getter;
+import me.braydon.database.impl.mysql.data.Column;
+import me.braydon.database.impl.mysql.data.Table;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * This class represents a {@link Timestamp} column in a MySQL {@link Table}
+ *
+ * @author Braydon
+ */
+@Getter
+public class TimestampColumn extends Column<Timestamp> {
+    public TimestampColumn(String name, Timestamp value) {
+        super(name, value);
+    }
+
+    public TimestampColumn(String name, boolean nullable) {
+        this(name, 0, nullable);
+    }
+
+    /**
+     * @param name the name of the column
+     * @param precision the fractional seconds precision of the column (0-6)
+     * @param nullable whether or not the column is nullable
+     */
+    public TimestampColumn(String name, int precision, boolean nullable) {
+        super(name, precision, nullable);
+        if (precision < 0 || (precision > 6))
+            throw new IllegalArgumentException("Timestamp precision must be between 0 and 6");
+    }
+
+    /**
+     * Get the type of the column
+     * @return the type
+     */
+    @Override
+    public String getType() {
+        return "TIMESTAMP";
+    }
+
+    /**
+     * Get the SQL type of the column
+     * @return the SQL type
+     */
+    @Override
+    public int getSqlType() {
+        return Types.TIMESTAMP;
+    }
+
+    /**
+     * Bind the given value to the statement using {@link PreparedStatement#setTimestamp}
+     */
+    @Override
+    protected void bindValue(PreparedStatement statement, int index, Timestamp value) throws SQLException {
+        statement.setTimestamp(index, value);
+    }
+}
@@ -0,0 +1,93 @@
+package me.braydon.database.impl.mysql.data.impl;
+
+import lombok.Getter;
+import lombok.NonNull;
+import me.braydon.database.impl.mysql.data.Column;
+import me.braydon.database.impl.mysql.data.Table;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.UUID;
+
+/**
+ * This class represents a {@link UUID} column in a MySQL {@link Table}. The
+ * {@link UUID} is stored in its compact 16 byte binary form
+ *
+ * @author Braydon
+ */
+@Getter
+public class UUIDColumn extends Column<UUID> {
+    public static final int LENGTH = 16;
+
+    public UUIDColumn(String name, UUID value) {
+        super(name, value);
+    }
+
+    public UUIDColumn(String name, boolean nullable) {
+        super(name, LENGTH, nullable);
+    }
+
+    /**
+     * Get the type of the column
+     * @return the type
+     */
+    @Override
+    public String getType() {
+        return "BINARY";
+    }
+
+    /**
+     * Get the SQL type of the column
+     * @return the SQL type
+     */
+    @Override
+    public int getSqlType() {
+        return Types.BINARY;
+    }
+
+    /**
+     * Bind the given value to the statement using {@link PreparedStatement#setBytes}
+     */
+    @Override
+    protected void bindValue(PreparedStatement statement, int index, UUID value) throws SQLException {
+        statement.setBytes(index, toBytes(value));
+    }
+
+    /**
+     * Convert the given {@link UUID} to its 16 byte binary form
+     *
+     * @param uuid the uuid to convert
+     * @return the bytes
+     */
+    public static byte[] toBytes(@NonNull UUID uuid) {
+        return ByteBuffer.allocate(LENGTH)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * Convert the given 16 byte binary form back to a {@link UUID}
+     *
+     * @param bytes the bytes to convert, null if the column was null
+     * @return the uuid, null if the bytes were null
+     */
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes == null)
+            return null;
+        if (bytes.length != LENGTH)
+            throw new IllegalArgumentException("A UUID must be " + LENGTH + " bytes, got " + bytes.length);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Encode the given value to its 16 byte form using {@link #toBytes(UUID)}
+     */
+    @Override
+    protected byte[] encodeValue(UUID value) {
+        return toBytes(value);
+    }
+}
@@ -4,6 +4,10 @@ import lombok.Getter;
 import me.braydon.database.impl.mysql.data.Column;
 import me.braydon.database.impl.mysql.data.Table;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
 /**
  * This class represents a {@link String} column in a MySQL {@link Table}
  *
@@ -27,4 +31,21 @@ public class VarcharColumn extends Column<String> {
     public String getType() {
         return "VARCHAR";
     }
-}
\ No newline at end of file
+
+    /**
+     * Get the SQL type of the column
+     * @return the SQL type
+     */
+    @Override
+    public int getSqlType() {
+        return Types.VARCHAR;
+    }
+
+    /**
+     * Bind the given value to the statement using {@link PreparedStatement#setString}
+     */
+    @Override
+    protected void bindValue(PreparedStatement statement, int index, String value) throws SQLException {
+        statement.setString(index, value);
+    }
+}
@@ -0,0 +1,306 @@
+package me.braydon.database.impl.mysql.log;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import me.braydon.database.impl.mysql.MySQLProperties;
+import me.braydon.database.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * This class represents a log of the queries executed through the repository that took longer than a threshold.
+ * <p>
+ * Slow queries are normalized to their template, with literals replaced by placeholders, and aggregated per
+ * template. Only a bounded amount of templates are kept, so the log uses a bounded amount of memory no matter
+ * how many distinct queries are executed. Once the log is full, a new template replaces the template with the
+ * least total time and inherits that total (the space-saving algorithm), so a newly slow query isn't evicted
+ * straight away and can climb past the others. The total of a template is then overestimated by at most the
+ * time it inherited. Queries under the threshold are never normalized, so the log adds nothing more than a
+ * comparison to fast queries.
+ *
+ * @author Braydon
+ * @see MySQLProperties#withSlowQueryLog(long, int, long)
+ */
+@Slf4j(topic = "SlowQueryLog")
+public class SlowQueryLog {
+    private static final int DUMP_SIZE = 10;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern REPEATED_ROWS = Pattern.compile("(\\([?., ]+\\))(\\s*,\\s*\\1)+");
+
+    @Getter private final long threshold;
+    @Getter private final int maxTemplates;
+    private final long thresholdNanos;
+    private final ConcurrentMap<String, TemplateStats> templates = new ConcurrentHashMap<>();
+    private final LongAdder slowQueries = new LongAdder();
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param threshold the time, in milliseconds, a query has to take to be logged
+     * @param maxTemplates the maximum amount of templates to keep
+     * @param dumpInterval the interval, in milliseconds, between logging the slowest templates, 0 to never log them
+     */
+    public SlowQueryLog(long threshold, int maxTemplates, long dumpInterval) {
+        if (threshold < 1L)
+            throw new IllegalArgumentException("The slow query threshold must be at least 1ms");
+        if (maxTemplates < 1)
+            throw new IllegalArgumentException("The slow query log must be able to hold at least 1 template");
+        if (dumpInterval < 0L)
+            throw new IllegalArgumentException("The slow query dump interval cannot be negative");
+        this.threshold = threshold;
+        this.maxTemplates = maxTemplates;
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(threshold);
+        if (dumpInterval > 0L) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "MySQL Slow Query Log");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    dump(DUMP_SIZE);
+                } catch (Throwable ex) {
+                    ex.printStackTrace();
+                }
+            }, dumpInterval, dumpInterval, TimeUnit.MILLISECONDS);
+        } else scheduler = null;
+    }
+
+    /**
+     * Check whether a query that took the given time should be logged
+     *
+     * @param nanos the time, in nanoseconds, the query took
+     * @return whether the query was slow
+     */
+    public boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    /**
+     * Record the given query if it was slow
+     *
+     * @param sql the sql of the query
+     * @param binds the amount of values bound to the query
+     * @param nanos the time, in nanoseconds, the query took
+     */
+    public void record(@NonNull String sql, int binds, long nanos) {
+        if (!isSlow(nanos))
+            return;
+        slowQueries.increment();
+        String template = normalize(sql);
+        TemplateStats stats = templates.get(template);
+        if (stats == null)
+            stats = admit(template);
+        stats.record(sql, binds, nanos);
+    }
+
+    /**
+     * Get the templates with the most total time
+     *
+     * @param limit the maximum amount of templates to get
+     * @return the templates, slowest first
+     */
+    public List<TemplateStats> getTop(int limit) {
+        List<TemplateStats> top = new ArrayList<>(templates.values());
+        top.sort((first, second) -> Long.compare(second.getTotal(), first.getTotal()));
+        return top.size() > limit ? new ArrayList<>(top.subList(0, limit)) : top;
+    }
+
+    /**
+     * Get the amount of slow queries that have been recorded
+     *
+     * @return the slow query count
+     */
+    public long getSlowQueries() {
+        return slowQueries.sum();
+    }
+
+    /**
+     * Log the templates with the most total time
+     *
+     * @param limit the maximum amount of templates to log
+     */
+    public void dump(int limit) {
+        List<TemplateStats> top = getTop(limit);
+        if (top.isEmpty())
+            return;
+        StringBuilder builder = new StringBuilder("Top " + top.size() + " slow query templates (threshold " + threshold + "ms):");
+        for (TemplateStats stats : top) {
+            builder.append(System.lineSeparator())
+                    .append("  count=").append(stats.getCount())
+                    .append(" total=").append(TimeUnit.NANOSECONDS.toMillis(stats.getTotal())).append("ms")
+                    .append(" inherited=").append(TimeUnit.NANOSECONDS.toMillis(stats.getInherited())).append("ms")
+                    .append(" max=").append(TimeUnit.NANOSECONDS.toMillis(stats.getMax())).append("ms")
+                    .append(" p99=").append(TimeUnit.NANOSECONDS.toMillis(stats.getLatency().getPercentile(99D))).append("ms")
+                    .append(" binds=").append(stats.getExampleBinds())
+                    .append(" | ").append(stats.getTemplate());
+        }
+        log.warn(builder.toString());
+    }
+
+    /**
+     * Clear the recorded templates
+     */
+    public void reset() {
+        templates.clear();
+        slowQueries.reset();
+    }
+
+    /**
+     * Stop logging the slowest templates
+     */
+    public void close() {
+        if (scheduler != null)
+            scheduler.shutdownNow();
+    }
+
+    /**
+     * Normalize the given sql to its template, replacing literals with placeholders
+     * and collapsing lists of placeholders so queries differing only in values match
+     *
+     * @param sql the sql to normalize
+     * @return the template
+     */
+    public static String normalize(@NonNull String sql) {
+        StringBuilder builder = new StringBuilder(sql.length());
+        int length = sql.length();
+        for (int index = 0; index < length; index++) {
+            char character = sql.charAt(index);
+            if (character == '\'' || (character == '"')) {
+                // Skip to the end of the string literal, handling escaped and doubled quotes
+                index++;
+                while (index < length) {
+                    char next = sql.charAt(index);
+                    if (next == '\\')
+                        index++;
+                    else if (next == character) {
+                        if (index + 1 < length && (sql.charAt(index + 1) == character))
+                            index++;
+                        else break;
+                    }
+                    index++;
+                }
+                builder.append('?');
+            } else if (character == '`') {
+                int end = sql.indexOf('`', index + 1);
+                end = end == -1 ? length - 1 : end;
+                builder.append(sql, index, end + 1);
+                index = end;
+            } else if (Character.isDigit(character) && (builder.length() == 0 || !isIdentifierPart(builder.charAt(builder.length() - 1)))) {
+                while (index + 1 < length && (Character.isLetterOrDigit(sql.charAt(index + 1)) || sql.charAt(index + 1) == '.'))
+                    index++;
+                builder.append('?');
+            } else builder.append(character);
+        }
+        String template = WHITESPACE.matcher(builder.toString().trim()).replaceAll(" ");
+        template = PLACEHOLDER_LIST.matcher(template).replaceAll("(?, ...)");
+        return REPEATED_ROWS.matcher(template).replaceAll("$1, ...");
+    }
+
+    private static boolean isIdentifierPart(char character) {
+        return Character.isLetterOrDigit(character) || character == '_' || (character == '$');
+    }
+
+    /**
+     * Add the given template, replacing the template with the least total time if the log is full
+     *
+     * @param template the template to add
+     * @return the stats of the template
+     */
+    private synchronized TemplateStats admit(@NonNull String template) {
+        TemplateStats stats = templates.get(template);
+        if (stats != null)
+            return stats;
+        long inherited = 0L;
+        if (templates.size() >= maxTemplates) {
+            TemplateStats least = null;
+            for (TemplateStats candidate : templates.values()) {
+                if (least == null || (candidate.getTotal() < least.getTotal()))
+                    least = candidate;
+            }
+            if (least != null) {
+                templates.remove(least.getTemplate(), least);
+                inherited = least.getTotal();
+            }
+        }
+        stats = new TemplateStats(template, inherited);
+        templates.put(template, stats);
+        return stats;
+    }
+
+    /**
+     * This class represents the aggregated slow executions of a query template
+     */
+    @Getter
+    public static class TemplateStats {
+        private final String template;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        @Getter(AccessLevel.NONE) private final LongAdder total = new LongAdder();
+        @Getter(AccessLevel.NONE) private final AtomicLong max = new AtomicLong();
+
+        /**
+         * The total time, in nanoseconds, inherited from the template this replaced. This is
+         * included in the total, which is overestimated by at most this amount
+         */
+        private final long inherited;
+
+        /**
+         * The sql of the slowest execution of the template
+         */
+        private volatile String example;
+
+        /**
+         * The amount of values bound to the slowest execution of the template
+         */
+        private volatile int exampleBinds;
+
+        private TemplateStats(@NonNull String template, long inherited) {
+            this.template = template;
+            this.inherited = inherited;
+            total.add(inherited);
+        }
+
+        /**
+         * Get the amount of slow executions of the template
+         *
+         * @return the count
+         */
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        /**
+         * Get the total time of the slow executions of the template
+         *
+         * @return the total, in nanoseconds
+         */
+        public long getTotal() {
+            return total.sum();
+        }
+
+        /**
+         * Get the time of the slowest execution of the template
+         *
+         * @return the max, in nanoseconds
+         */
+        public long getMax() {
+            return max.get();
+        }
+
+        private void record(@NonNull String sql, int binds, long nanos) {
+            latency.record(nanos);
+            total.add(nanos);
+            if (nanos > max.getAndAccumulate(nanos, Math::max)) {
+                example = sql;
+                exampleBinds = binds;
+            }
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package me.braydon.database.impl.mysql.query;
+
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import me.braydon.database.impl.mysql.data.impl.UUIDColumn;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link RowMapper} that maps rows to instances of a class or record.
+ * <p>
+ * The class is inspected once when the mapper is created, and the properties are bound to
+ * {@link MethodHandle}s so mapping a row doesn't use reflection. The column index of each
+ * property is resolved once per query shape from the {@link ResultSetMetaData}, so rows are
+ * read by index rather than by name. Column labels are matched to properties ignoring case
+ * and underscores, so a column named "first_name" is mapped to the property "firstName".
+ * <p>
+ * Classes are mapped using, in order of preference:
+ * <ul>
+ *     <li>the canonical constructor of a record</li>
+ *     <li>a no-args constructor, along with the setters (or fields) of the class</li>
+ *     <li>a constructor that takes every field of the class, in declaration order</li>
+ * </ul>
+ *
+ * @author Braydon
+ * @param <T> the type of object rows are mapped to
+ * @see RowMapper#of(Class)
+ */
+public final class ClassRowMapper<T> implements RowMapper<T> {
+    private static final Map<Class<?>, ClassRowMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+
+    private final Class<T> type;
+    private final Property[] properties;
+
+    /**
+     * The handle of the no-args constructor, typed as ()Object. This is null if the class is
+     * mapped using a constructor that takes the properties
+     */
+    private final MethodHandle noArgsConstructor;
+
+    /**
+     * The handle of the constructor that takes the properties, typed as (Object[])Object
+     */
+    private final MethodHandle propertiesConstructor;
+
+    /**
+     * The column index of each property, cached by the column labels of the query
+     */
+    private final Map<String, int[]> shapes = new ConcurrentHashMap<>();
+
+    private ClassRowMapper(@NonNull Class<T> type) {
+        this.type = type;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            Object[] recordComponents = getRecordComponents(type);
+            if (recordComponents != null) {
+                // Records are always mapped using their canonical constructor
+                Class<?>[] parameterTypes = new Class<?>[recordComponents.length];
+                String[] names = new String[recordComponents.length];
+                for (int i = 0; i < recordComponents.length; i++) {
+                    Object component = recordComponents[i];
+                    names[i] = (String) component.getClass().getMethod("getName").invoke(component);
+                    parameterTypes[i] = (Class<?>) component.getClass().getMethod("getType").invoke(component);
+                }
+                Constructor<T> constructor = type.getDeclaredConstructor(parameterTypes);
+                properties = constructorProperties(names, parameterTypes);
+                propertiesConstructor = spread(lookup, constructor);
+                noArgsConstructor = null;
+                return;
+            }
+            Constructor<T> noArgs = findNoArgsConstructor(type);
+            if (noArgs != null) {
+                noArgs.setAccessible(true);
+                noArgsConstructor = lookup.unreflectConstructor(noArgs).asType(MethodType.methodType(Object.class));
+                propertiesConstructor = null;
+                properties = setterProperties(lookup, type);
+                return;
+            }
+            // Fallback to a constructor that takes all of the fields, such as the ones generated by Lombok
+            List<Field> fields = instanceFields(type, false);
+            Class<?>[] parameterTypes = new Class<?>[fields.size()];
+            String[] names = new String[fields.size()];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                parameterTypes[i] = fields.get(i).getType();
+                names[i] = fields.get(i).getName();
+            }
+            Constructor<T> constructor;
+            try {
+                constructor = type.getDeclaredConstructor(parameterTypes);
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalArgumentException("Cannot map rows to " + type.getName() + ", it needs a no-args constructor or a constructor taking every field");
+            }
+            // Prefer the real parameter names if the class was compiled with them
+            Parameter[] parameters = constructor.getParameters();
+            for (int i = 0; i < parameters.length; i++) {
+                if (parameters[i].isNamePresent())
+                    names[i] = parameters[i].getName();
+            }
+            properties = constructorProperties(names, parameterTypes);
+            propertiesConstructor = spread(lookup, constructor);
+            noArgsConstructor = null;
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalArgumentException("Cannot map rows to " + type.getName(), ex);
+        }
+    }
+
+    /**
+     * Get the mapper for the given class, creating it if it hasn't been created before
+     *
+     * @param type the class to map rows to
+     * @return the mapper
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ClassRowMapper<T> of(@NonNull Class<T> type) {
+        ClassRowMapper<?> mapper = MAPPERS.get(type);
+        if (mapper == null) {
+            mapper = new ClassRowMapper<>(type);
+            ClassRowMapper<?> existing = MAPPERS.putIfAbsent(type, mapper);
+            if (existing != null)
+                mapper = existing;
+        }
+        return (ClassRowMapper<T>) mapper;
+    }
+
+    /**
+     * Map the current row of the given {@link ResultSet}
+     *
+     * @param resultSet the result set, positioned at the row to map
+     * @return the mapped row
+     * @throws SQLException if reading from the result set failed
+     * @apiNote This resolves the column indices each time it's called, when mapping multiple
+     *          rows of the same result set use {@link #forResultSet(ResultSet)} instead
+     */
+    @Override
+    public T map(ResultSet resultSet) throws SQLException {
+        return map(resultSet, resolve(resultSet));
+    }
+
+    /**
+     * Get a mapper for the rows of the given {@link ResultSet}, the column index
+     * of each property is resolved once instead of for every row
+     *
+     * @param resultSet the result set that rows will be mapped from
+     * @return the mapper
+     * @throws SQLException if reading the metadata of the result set failed
+     */
+    @Override
+    public RowMapper<T> forResultSet(ResultSet resultSet) throws SQLException {
+        int[] indices = resolve(resultSet);
+        return row -> map(row, indices);
+    }
+
+    private T map(@NonNull ResultSet resultSet, @NonNull int[] indices) throws SQLException {
+        try {
+            if (noArgsConstructor != null) {
+                Object instance = (Object) noArgsConstructor.invokeExact();
+                for (int i = 0; i < properties.length; i++) {
+                    int index = indices[i];
+                    if (index > 0)
+                        properties[i].setter.invokeExact(instance, properties[i].reader.read(resultSet, index));
+                }
+                return type.cast(instance);
+            }
+            Object[] arguments = new Object[properties.length];
+            for (int i = 0; i < properties.length; i++) {
+                int index = indices[i];
+                arguments[i] = index > 0 ? properties[i].reader.read(resultSet, index) : properties[i].defaultValue;
+            }
+            return type.cast((Object) propertiesConstructor.invokeExact(arguments));
+        } catch (SQLException | RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Failed to map row to " + type.getName(), ex);
+        }
+    }
+
+    /**
+     * Resolve the column index of each property for the given {@link ResultSet}. The
+     * indices are cached per query shape, so they're only matched once per shape
+     *
+     * @param resultSet the result set
+     * @return the column index of each property, 0 if the property has no matching column
+     * @throws SQLException if reading the metadata failed
+     */
+    private int[] resolve(@NonNull ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        StringBuilder keyBuilder = new StringBuilder();
+        String[] labels = new String[columnCount];
+        for (int column = 1; column <= columnCount; column++) {
+            labels[column - 1] = normalize(metaData.getColumnLabel(column));
+            keyBuilder.append(labels[column - 1]).append(',');
+        }
+        String key = keyBuilder.toString();
+        int[] indices = shapes.get(key);
+        if (indices == null) {
+            indices = new int[properties.length];
+            for (int i = 0; i < properties.length; i++) {
+                for (int column = 0; column < columnCount; column++) {
+                    if (labels[column].equals(properties[i].name)) {
+                        indices[i] = column + 1;
+                        break;
+                    }
+                }
+            }
+            shapes.put(key, indices);
+        }
+        return indices;
+    }
+
+    /**
+     * Get the record components of the given class
+     *
+     * @param type the class
+     * @return the record components, null if the class isn't a record
+     */
+    private static Object[] getRecordComponents(@NonNull Class<?> type) throws ReflectiveOperationException {
+        // Records are only available in Java 16+, so we have to look them up reflectively
+        Method isRecord;
+        try {
+            isRecord = Class.class.getMethod("isRecord");
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+        if (!((boolean) isRecord.invoke(type)))
+            return null;
+        return (Object[]) Class.class.getMethod("getRecordComponents").invoke(type);
+    }
+
+    private static <T> Constructor<T> findNoArgsConstructor(@NonNull Class<T> type) {
+        try {
+            return type.getDeclaredConstructor();
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Create the properties for a class that is mapped using its setters, falling back to setting
+     * the field directly if there is no setter
+     */
+    private static Property[] setterProperties(@NonNull MethodHandles.Lookup lookup, @NonNull Class<?> type) throws ReflectiveOperationException {
+        List<Property> properties = new ArrayList<>();
+        for (Field field : instanceFields(type, true)) {
+            if (Modifier.isFinal(field.getModifiers()))
+                continue;
+            MethodHandle setter;
+            String setterName = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+            try {
+                Method method = field.getDeclaringClass().getDeclaredMethod(setterName, field.getType());
+                method.setAccessible(true);
+                setter = lookup.unreflect(method);
+            } catch (NoSuchMethodException ex) {
+                field.setAccessible(true);
+                setter = lookup.unreflectSetter(field);
+            }
+            setter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            properties.add(new Property(normalize(field.getName()), ValueReader.forType(field.getType()), setter, null));
+        }
+        return properties.toArray(new Property[0]);
+    }
+
+    /**
+     * Create the properties for a class that is mapped using a constructor
+     */
+    private static Property[] constructorProperties(@NonNull String[] names, @NonNull Class<?>[] types) {
+        Property[] properties = new Property[names.length];
+        for (int i = 0; i < names.length; i++)
+            properties[i] = new Property(normalize(names[i]), ValueReader.forType(types[i]), null, defaultValue(types[i]));
+        return properties;
+    }
+
+    /**
+     * Get the handle of the given constructor, typed as (Object[])Object
+     */
+    private static MethodHandle spread(@NonNull MethodHandles.Lookup lookup, @NonNull Constructor<?> constructor) throws IllegalAccessException {
+        constructor.setAccessible(true);
+        MethodHandle handle = lookup.unreflectConstructor(constructor);
+        int parameterCount = constructor.getParameterCount();
+        return handle.asType(handle.type().changeReturnType(Object.class).generic())
+                .asSpreader(Object[].class, parameterCount)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+    }
+
+    /**
+     * Get the non-static, non-transient fields of the given class
+     *
+     * @param type the class
+     * @param inherited whether or not to include the fields of the super classes
+     * @return the fields, in declaration order
+     */
+    private static List<Field> instanceFields(@NonNull Class<?> type, boolean inherited) {
+        List<Field> fields = new ArrayList<>();
+        Class<?> current = type;
+        do {
+            List<Field> declared = new ArrayList<>();
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic())
+                    continue;
+                declared.add(field);
+            }
+            fields.addAll(0, declared);
+            current = current.getSuperclass();
+        } while (inherited && current != null && current != Object.class);
+        return fields;
+    }
+
+    private static Object defaultValue(@NonNull Class<?> type) {
+        if (!type.isPrimitive())
+            return null;
+        if (type == boolean.class)
+            return false;
+        if (type == char.class)
+            return '\0';
+        if (type == long.class)
+            return 0L;
+        if (type == double.class)
+            return 0D;
+        if (type == float.class)
+            return 0F;
+        if (type == short.class)
+            return (short) 0;
+        if (type == byte.class)
+            return (byte) 0;
+        return 0;
+    }
+
+    /**
+     * Normalize the given name so column labels and property names can be compared
+     */
+    private static String normalize(@NonNull String name) {
+        StringBuilder builder = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char character = name.charAt(i);
+            if (character != '_')
+                builder.append(Character.toLowerCase(character));
+        }
+        return builder.toString();
+    }
+
+    @AllArgsConstructor
+    private static class Property {
+        private final String name;
+        private final ValueReader reader;
+
+        /**
+         * The handle of the setter, typed as (Object, Object)void. This is null if
+         * the class is mapped using a constructor
+         */
+        private final MethodHandle setter;
+
+        /**
+         * The value passed to the constructor when the property has no matching column
+         */
+        private final Object defaultValue;
+    }
+
+    /**
+     * This class represents a reader for a column value of a specific type. The reader is
+     * chosen once per property so rows are read using the typed getters of the result set
+     */
+    @FunctionalInterface
+    private interface ValueReader {
+        Object read(ResultSet resultSet, int index) throws SQLException;
+
+        static ValueReader forType(@NonNull Class<?> type) {
+            if (type == int.class)
+                return ResultSet::getInt;
+            if (type == long.class)
+                return ResultSet::getLong;
+            if (type == double.class)
+                return ResultSet::getDouble;
+            if (type == float.class)
+                return ResultSet::getFloat;
+            if (type == boolean.class)
+                return ResultSet::getBoolean;
+            if (type == short.class)
+                return ResultSet::getShort;
+            if (type == byte.class)
+                return ResultSet::getByte;
+            if (type == Integer.class)
+                return nullable(ResultSet::getInt);
+            if (type == Long.class)
+                return nullable(ResultSet::getLong);
+            if (type == Double.class)
+                return nullable(ResultSet::getDouble);
+            if (type == Float.class)
+                return nullable(ResultSet::getFloat);
+            if (type == Boolean.class)
+                return nullable(ResultSet::getBoolean);
+            if (type == Short.class)
+                return nullable(ResultSet::getShort);
+            if (type == Byte.class)
+                return nullable(ResultSet::getByte);
+            if (type == String.class)
+                return ResultSet::getString;
+            if (type == BigDecimal.class)
+                return ResultSet::getBigDecimal;
+            if (type == byte[].class)
+                return ResultSet::getBytes;
+            if (type == Timestamp.class || (type == Date.class))
+                return ResultSet::getTimestamp;
+            if (type == Instant.class) {
+                return (resultSet, index) -> {
+                    Timestamp timestamp = resultSet.getTimestamp(index);
+                    return timestamp == null ? null : timestamp.toInstant();
+                };
+            }
+            if (type == UUID.class) {
+                return (resultSet, index) -> {
+                    Object value = resultSet.getObject(index);
+                    if (value == null)
+                        return null;
+                    // UUIDs may be stored in their binary form, or as a string
+                    return value instanceof byte[] ? UUIDColumn.fromBytes((byte[]) value) : UUID.fromString(value.toString());
+                };
+            }
+            if (type.isEnum()) {
+                return (resultSet, index) -> {
+                    String value = resultSet.getString(index);
+                    return value == null ? null : enumValue(type, value);
+                };
+            }
+            return (resultSet, index) -> resultSet.getObject(index, type);
+        }
+
+        static ValueReader nullable(@NonNull ValueReader reader) {
+            return (resultSet, index) -> {
+                Object value = reader.read(resultSet, index);
+                return resultSet.wasNull() ? null : value;
+            };
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        static Object enumValue(@NonNull Class<?> type, @NonNull String value) {
+            return Enum.valueOf((Class<? extends Enum>) type, value);
+        }
+    }
+}
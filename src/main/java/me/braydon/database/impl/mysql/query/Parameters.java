@@ -0,0 +1,302 @@
+package me.braydon.database.impl.mysql.query;
+
+import lombok.NonNull;
+import me.braydon.database.impl.mysql.MySQLRepository;
+import me.braydon.database.impl.mysql.data.Column;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * This class represents a reusable buffer of query parameters, an alternative to a {@link Column} array
+ * for queries executed often enough that allocating the columns and boxing their values adds up.
+ * <p>
+ * Primitive values are stored in a primitive array and bound with the matching primitive setter of the
+ * statement, so adding and binding them doesn't allocate. The buffer grows as needed and keeps its
+ * capacity when cleared, so once warmed up it can be reused for every query on a thread.
+ * <p>
+ * Parameters are added in the order of the placeholders in the query:
+ * <pre>{@code
+ * User user = repository.executeQuery(query, Parameters.local().addLong(id).addString(name), resultSet -> { ... });
+ * }</pre>
+ *
+ * @author Braydon
+ * @see MySQLRepository#executeQuery(PreparedQuery, Parameters, ResultSetHandler)
+ */
+public final class Parameters {
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final ThreadLocal<Parameters> LOCAL = ThreadLocal.withInitial(Parameters::new);
+
+    /**
+     * The {@link Types} of each parameter, this decides which setter the parameter is bound with
+     */
+    private int[] types;
+
+    /**
+     * The primitive value of each parameter, doubles are stored as their raw bits
+     */
+    private long[] primitives;
+
+    /**
+     * The value of each parameter that isn't a primitive, such as strings and byte arrays
+     */
+    private Object[] objects;
+
+    /**
+     * Whether each parameter is null
+     */
+    private boolean[] nulls;
+    private int size;
+
+    public Parameters() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the amount of parameters to make space for up front
+     */
+    public Parameters(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        types = new int[capacity];
+        primitives = new long[capacity];
+        objects = new Object[capacity];
+        nulls = new boolean[capacity];
+    }
+
+    /**
+     * Get the cleared parameter buffer of the current thread
+     *
+     * @return the buffer
+     * @apiNote The buffer is shared by everything running on the thread, so it must be bound before it's used
+     *          again. Queries executed with it are bound before they run, so using it again from a callback
+     *          of the query is fine, but it shouldn't be held across queries or passed to another thread
+     */
+    public static Parameters local() {
+        return LOCAL.get().clear();
+    }
+
+    /**
+     * Add an int parameter
+     *
+     * @param value the value
+     * @return the buffer
+     */
+    public Parameters addInt(int value) {
+        return addPrimitive(Types.INTEGER, value);
+    }
+
+    /**
+     * Add a long parameter
+     *
+     * @param value the value
+     * @return the buffer
+     */
+    public Parameters addLong(long value) {
+        return addPrimitive(Types.BIGINT, value);
+    }
+
+    /**
+     * Add a double parameter
+     *
+     * @param value the value
+     * @return the buffer
+     */
+    public Parameters addDouble(double value) {
+        return addPrimitive(Types.DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Add a boolean parameter
+     *
+     * @param value the value
+     * @return the buffer
+     */
+    public Parameters addBoolean(boolean value) {
+        return addPrimitive(Types.BOOLEAN, value ? 1L : 0L);
+    }
+
+    /**
+     * Add a string parameter
+     *
+     * @param value the value, null to bind a null
+     * @return the buffer
+     */
+    public Parameters addString(String value) {
+        return value == null ? addNull(Types.VARCHAR) : addObject(Types.VARCHAR, value);
+    }
+
+    /**
+     * Add a byte array parameter, the array isn't copied so it shouldn't be modified until the query is executed
+     *
+     * @param value the value, null to bind a null
+     * @return the buffer
+     */
+    public Parameters addBytes(byte[] value) {
+        return value == null ? addNull(Types.VARBINARY) : addObject(Types.VARBINARY, value);
+    }
+
+    /**
+     * Add a null parameter
+     *
+     * @param sqlType the {@link Types} of the parameter
+     * @return the buffer
+     */
+    public Parameters addNull(int sqlType) {
+        ensureCapacity();
+        types[size] = sqlType;
+        primitives[size] = 0L;
+        objects[size] = null;
+        nulls[size++] = true;
+        return this;
+    }
+
+    /**
+     * Remove every parameter, keeping the capacity of the buffer
+     *
+     * @return the buffer
+     */
+    public Parameters clear() {
+        // Drop the references to any objects so they can be collected
+        Arrays.fill(objects, 0, size, null);
+        size = 0;
+        return this;
+    }
+
+    /**
+     * Get the amount of parameters in the buffer
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the {@link Types} of the parameter at the given index
+     *
+     * @param index the index of the parameter, starting from 0
+     * @return the SQL type
+     */
+    public int getSqlType(int index) {
+        checkIndex(index);
+        return types[index];
+    }
+
+    /**
+     * Get the value of the parameter at the given index, boxing it if it's a primitive
+     *
+     * @param index the index of the parameter, starting from 0
+     * @return the value, null if the parameter is null
+     */
+    public Object getValue(int index) {
+        checkIndex(index);
+        if (nulls[index])
+            return null;
+        Object object = objects[index];
+        if (object != null)
+            return object;
+        long primitive = primitives[index];
+        switch (types[index]) {
+            case Types.INTEGER:
+                return (int) primitive;
+            case Types.DOUBLE:
+                return Double.longBitsToDouble(primitive);
+            case Types.BOOLEAN:
+                return primitive != 0L;
+            default:
+                return primitive;
+        }
+    }
+
+    /**
+     * Bind the parameters to the given statement, primitives are bound with their primitive setter
+     *
+     * @param statement the statement to bind to
+     * @throws SQLException if a parameter failed to bind
+     */
+    public void bind(@NonNull PreparedStatement statement) throws SQLException {
+        for (int i = 0; i < size; i++) {
+            int parameterIndex = i + 1;
+            if (nulls[i]) {
+                statement.setNull(parameterIndex, types[i]);
+                continue;
+            }
+            Object object = objects[i];
+            switch (types[i]) {
+                case Types.INTEGER:
+                    statement.setInt(parameterIndex, (int) primitives[i]);
+                    break;
+                case Types.BIGINT:
+                    statement.setLong(parameterIndex, primitives[i]);
+                    break;
+                case Types.DOUBLE:
+                    statement.setDouble(parameterIndex, Double.longBitsToDouble(primitives[i]));
+                    break;
+                case Types.BOOLEAN:
+                    statement.setBoolean(parameterIndex, primitives[i] != 0L);
+                    break;
+                case Types.VARBINARY:
+                    statement.setBytes(parameterIndex, (byte[]) object);
+                    break;
+                default:
+                    statement.setString(parameterIndex, (String) object);
+            }
+        }
+    }
+
+    /**
+     * Estimate the size, in bytes, of the parameter values
+     *
+     * @return the estimated size
+     */
+    public long estimateSize() {
+        long bytes = 0L;
+        for (int i = 0; i < size; i++) {
+            if (nulls[i])
+                continue;
+            Object object = objects[i];
+            if (object instanceof byte[])
+                bytes += ((byte[]) object).length;
+            else if (object instanceof CharSequence)
+                bytes += ((CharSequence) object).length();
+            else bytes += Long.BYTES;
+        }
+        return bytes;
+    }
+
+    private Parameters addPrimitive(int sqlType, long value) {
+        ensureCapacity();
+        types[size] = sqlType;
+        primitives[size] = value;
+        objects[size] = null;
+        nulls[size++] = false;
+        return this;
+    }
+
+    private Parameters addObject(int sqlType, @NonNull Object value) {
+        ensureCapacity();
+        types[size] = sqlType;
+        primitives[size] = 0L;
+        objects[size] = value;
+        nulls[size++] = false;
+        return this;
+    }
+
+    private void ensureCapacity() {
+        if (size < types.length)
+            return;
+        int capacity = Math.max(DEFAULT_CAPACITY, types.length * 2);
+        types = Arrays.copyOf(types, capacity);
+        primitives = Arrays.copyOf(primitives, capacity);
+        objects = Arrays.copyOf(objects, capacity);
+        nulls = Arrays.copyOf(nulls, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || (index >= size))
+            throw new IndexOutOfBoundsException("Parameter index " + index + " is out of bounds for " + size + " parameters");
+    }
+}
@@ -0,0 +1,431 @@
+package me.braydon.database.impl.mysql.query;
+
+import lombok.Getter;
+import lombok.NonNull;
+import me.braydon.database.impl.mysql.MySQLRepository;
+import me.braydon.database.impl.mysql.data.Column;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class represents a compiled query that can be executed using the {@link MySQLRepository}.
+ * <p>
+ * The query is parsed once when compiled, the placeholder count, parameter types, statement
+ * keyword and referenced tables are then cached so executing the query doesn't have to scan
+ * the query again. Placeholders inside of string literals, quoted identifiers and comments
+ * are not counted.
+ *
+ * @author Braydon
+ */
+@Getter
+public final class PreparedQuery {
+    /**
+     * The maximum amount of queries to keep in the cache used by {@link #of(String)}, once
+     * the cache is full queries will be compiled each time they're requested
+     */
+    private static final int MAX_CACHED_QUERIES = 2048;
+    private static final Map<String, PreparedQuery> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * The keywords that start a statement that only reads data
+     */
+    private static final Set<String> READ_KEYWORDS = new HashSet<>(Arrays.asList("SELECT", "SHOW", "DESCRIBE", "DESC", "EXPLAIN"));
+
+    /**
+     * The keywords that are followed by a table reference
+     */
+    private static final Set<String> TABLE_KEYWORDS = new HashSet<>(Arrays.asList("FROM", "JOIN", "INTO", "UPDATE", "TABLE", "TRUNCATE"));
+
+    /**
+     * The keywords that can follow a table reference, and therefore can't be an alias of the table
+     */
+    private static final Set<String> CLAUSE_KEYWORDS = new HashSet<>(Arrays.asList(
+            "WHERE", "JOIN", "LEFT", "RIGHT", "INNER", "OUTER", "CROSS", "NATURAL", "STRAIGHT_JOIN", "ON", "USING",
+            "GROUP", "ORDER", "LIMIT", "HAVING", "SET", "VALUES", "VALUE", "SELECT", "UNION", "FOR", "LOCK", "WINDOW",
+            "PARTITION", "USE", "FORCE", "IGNORE", "INTO", "AS", "ADD", "DROP", "MODIFY", "CHANGE", "RENAME", "ENGINE"
+    ));
+
+    /**
+     * The modifiers that can come between a table keyword and the table reference
+     */
+    private static final Set<String> TABLE_MODIFIERS = new HashSet<>(Arrays.asList(
+            "LOW_PRIORITY", "DELAYED", "HIGH_PRIORITY", "IGNORE", "QUICK", "TEMPORARY", "IF", "NOT", "EXISTS", "TABLE"
+    ));
+
+    private final String sql;
+    private final int placeholders;
+
+    /**
+     * The keyword the statement starts with in upper case, such as "SELECT" or "INSERT"
+     */
+    private final String keyword;
+
+    /**
+     * Whether or not the statement only reads data
+     */
+    private final boolean read;
+
+    /**
+     * Whether or not the statement locks the rows it reads, such as "SELECT ... FOR UPDATE"
+     */
+    private final boolean locking;
+
+    /**
+     * The names of the tables referenced by the statement, in lower case
+     */
+    private final Set<String> tables;
+
+    /**
+     * The {@link Types} of each parameter, null if the parameter types weren't declared
+     */
+    private final int[] parameterTypes;
+
+    private PreparedQuery(@NonNull String sql, int[] parameterTypes) {
+        this.sql = sql;
+        List<String> tokens = new ArrayList<>();
+        placeholders = tokenize(sql, tokens);
+        keyword = findKeyword(tokens);
+        read = isRead(keyword, tokens);
+        locking = isLocking(tokens);
+        tables = Collections.unmodifiableSet(findTables(tokens));
+        if (parameterTypes != null && (parameterTypes.length != placeholders))
+            throw new IllegalArgumentException("Declared " + parameterTypes.length + " parameter types for " + placeholders + " placeholders in query \"" + sql + "\"");
+        this.parameterTypes = parameterTypes;
+    }
+
+    /**
+     * Get the compiled query for the given sql, compiling it if it hasn't been compiled before
+     *
+     * @param sql the sql to get the compiled query for
+     * @return the compiled query
+     */
+    public static PreparedQuery of(@NonNull String sql) {
+        PreparedQuery query = CACHE.get(sql);
+        if (query == null) {
+            query = compile(sql);
+            if (CACHE.size() < MAX_CACHED_QUERIES) {
+                PreparedQuery existing = CACHE.putIfAbsent(sql, query);
+                if (existing != null)
+                    query = existing;
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Compile the given sql
+     *
+     * @param sql the sql to compile
+     * @return the compiled query
+     */
+    public static PreparedQuery compile(@NonNull String sql) {
+        return new PreparedQuery(sql, null);
+    }
+
+    /**
+     * Compile the given sql with the given parameter types. The columns bound to
+     * the query will be validated against the parameter types
+     *
+     * @param sql the sql to compile
+     * @param parameterTypes the {@link Types} of each parameter
+     * @return the compiled query
+     */
+    public static PreparedQuery compile(@NonNull String sql, @NonNull int... parameterTypes) {
+        return new PreparedQuery(sql, parameterTypes.clone());
+    }
+
+    /**
+     * Validate the given columns against this query
+     *
+     * @param columns the {@link Column} array to validate
+     * @throws IllegalArgumentException if the amount or types of the columns don't match the query
+     */
+    public void validate(@NonNull Column<?>[] columns) {
+        if (columns.length != placeholders)
+            throw new IllegalArgumentException("Invalid amount of columns for query \"" + sql + "\"");
+        if (parameterTypes == null)
+            return;
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].getSqlType() != parameterTypes[i])
+                throw new IllegalArgumentException("Invalid column type for parameter " + (i + 1) + " in query \"" + sql + "\"");
+        }
+    }
+
+    /**
+     * Validate and bind the given columns to the provided statement
+     *
+     * @param statement the statement to bind the columns to
+     * @param columns the {@link Column} array to bind
+     * @throws SQLException if a column failed to bind
+     * @see Column#bind(PreparedStatement, int)
+     */
+    public void bind(@NonNull PreparedStatement statement, @NonNull Column<?>[] columns) throws SQLException {
+        validate(columns);
+        int columnIndex = 1;
+        for (Column<?> column : columns)
+            column.bind(statement, columnIndex++);
+    }
+
+    /**
+     * Validate the given parameters against this query
+     *
+     * @param parameters the {@link Parameters} to validate
+     * @throws IllegalArgumentException if the amount or types of the parameters don't match the query
+     */
+    public void validate(@NonNull Parameters parameters) {
+        if (parameters.size() != placeholders)
+            throw new IllegalArgumentException("Invalid amount of parameters for query \"" + sql + "\"");
+        if (parameterTypes == null)
+            return;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (parameters.getSqlType(i) != parameterTypes[i])
+                throw new IllegalArgumentException("Invalid parameter type for parameter " + (i + 1) + " in query \"" + sql + "\"");
+        }
+    }
+
+    /**
+     * Validate and bind the given parameters to the provided statement
+     *
+     * @param statement the statement to bind the parameters to
+     * @param parameters the {@link Parameters} to bind
+     * @throws SQLException if a parameter failed to bind
+     * @see Parameters#bind(PreparedStatement)
+     */
+    public void bind(@NonNull PreparedStatement statement, @NonNull Parameters parameters) throws SQLException {
+        validate(parameters);
+        parameters.bind(statement);
+    }
+
+    @Override
+    public String toString() {
+        return sql;
+    }
+
+    /**
+     * Check whether or not the results of this query can be cached, which is
+     * the case for statements that only read data without locking it
+     *
+     * @return whether or not the query is cacheable
+     */
+    public boolean isCacheable() {
+        return read && !locking;
+    }
+
+    /**
+     * Split the given sql into tokens, ignoring any string literals and comments. Words are added as they
+     * are, quoted identifiers are prefixed with a backtick, and string literals are added as a single quote
+     *
+     * @param sql the sql
+     * @param tokens the list to add the tokens to
+     * @return the amount of placeholders in the sql
+     */
+    private static int tokenize(@NonNull String sql, @NonNull List<String> tokens) {
+        int placeholders = 0;
+        int length = sql.length();
+        for (int i = 0; i < length; i++) {
+            char character = sql.charAt(i);
+            if (Character.isWhitespace(character))
+                continue;
+            switch (character) {
+                case '?': {
+                    placeholders++;
+                    tokens.add("?");
+                    break;
+                }
+                case '\'':
+                case '"': {
+                    i = skipQuoted(sql, i, character);
+                    tokens.add("'");
+                    break;
+                }
+                case '`': {
+                    int end = skipQuoted(sql, i, character);
+                    tokens.add("`" + sql.substring(i + 1, Math.min(end, length)).replace("``", "`"));
+                    i = end;
+                    break;
+                }
+                case '#': {
+                    i = skipLine(sql, i);
+                    break;
+                }
+                case '-': {
+                    // MySQL requires "--" to be followed by whitespace (or the end of the query) to start a comment
+                    if (i + 1 < length && (sql.charAt(i + 1) == '-')
+                            && (i + 2 >= length || Character.isWhitespace(sql.charAt(i + 2))))
+                        i = skipLine(sql, i);
+                    else tokens.add("-");
+                    break;
+                }
+                case '/': {
+                    if (i + 1 < length && (sql.charAt(i + 1) == '*')) {
+                        int end = sql.indexOf("*/", i + 2);
+                        i = end == -1 ? length : end + 1;
+                    } else tokens.add("/");
+                    break;
+                }
+                default: {
+                    if (isWordCharacter(character)) {
+                        int end = i + 1;
+                        while (end < length && isWordCharacter(sql.charAt(end)))
+                            end++;
+                        tokens.add(sql.substring(i, end));
+                        i = end - 1;
+                    } else tokens.add(String.valueOf(character));
+                    break;
+                }
+            }
+        }
+        return placeholders;
+    }
+
+    /**
+     * Get the keyword the statement starts with
+     *
+     * @param tokens the tokens of the statement
+     * @return the keyword in upper case, empty if there is none
+     */
+    private static String findKeyword(@NonNull List<String> tokens) {
+        for (String token : tokens) {
+            // Skip over any opening parentheses, e.g. "(SELECT ...) UNION (SELECT ...)"
+            if (token.equals("("))
+                continue;
+            return isWord(token) ? token.toUpperCase(Locale.ROOT) : "";
+        }
+        return "";
+    }
+
+    private static boolean isRead(@NonNull String keyword, @NonNull List<String> tokens) {
+        if (READ_KEYWORDS.contains(keyword))
+            return !containsWord(tokens, "INTO"); // "SELECT ... INTO" writes to variables or files
+        if (keyword.equals("WITH")) {
+            // Common table expressions can be followed by a write
+            return !containsWord(tokens, "INSERT") && !containsWord(tokens, "UPDATE")
+                    && !containsWord(tokens, "DELETE") && !containsWord(tokens, "REPLACE");
+        }
+        return false;
+    }
+
+    private static boolean isLocking(@NonNull List<String> tokens) {
+        for (int i = 0; i < tokens.size() - 1; i++) {
+            String token = tokens.get(i);
+            String next = tokens.get(i + 1);
+            if (token.equalsIgnoreCase("FOR") && (next.equalsIgnoreCase("UPDATE") || next.equalsIgnoreCase("SHARE")))
+                return true;
+            if (token.equalsIgnoreCase("LOCK") && next.equalsIgnoreCase("IN"))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Find the names of the tables referenced by the given tokens
+     *
+     * @param tokens the tokens of the statement
+     * @return the table names, in lower case
+     */
+    private static Set<String> findTables(@NonNull List<String> tokens) {
+        Set<String> tables = new LinkedHashSet<>();
+        int size = tokens.size();
+        for (int i = 0; i < size; i++) {
+            String token = tokens.get(i);
+            if (!isWord(token) || !TABLE_KEYWORDS.contains(token.toUpperCase(Locale.ROOT)))
+                continue;
+            boolean list = token.equalsIgnoreCase("FROM") || token.equalsIgnoreCase("UPDATE");
+            int index = i + 1;
+            while (index < size) {
+                // Skip over modifiers such as "IGNORE" or "IF NOT EXISTS"
+                while (index < size && isWord(tokens.get(index)) && TABLE_MODIFIERS.contains(tokens.get(index).toUpperCase(Locale.ROOT)))
+                    index++;
+                if (index >= size || !isIdentifier(tokens.get(index)))
+                    break;
+                // Read the table name, only keeping the last part of a qualified name such as "database.table"
+                String table = identifier(tokens.get(index++));
+                while (index + 1 < size && tokens.get(index).equals(".") && isIdentifier(tokens.get(index + 1))) {
+                    table = identifier(tokens.get(index + 1));
+                    index += 2;
+                }
+                tables.add(table.toLowerCase(Locale.ROOT));
+                if (!list)
+                    break;
+                // Skip over the alias of the table, then continue if there is another table in the list
+                if (index < size && tokens.get(index).equalsIgnoreCase("AS"))
+                    index++;
+                if (index < size && isIdentifier(tokens.get(index)) && !CLAUSE_KEYWORDS.contains(tokens.get(index).toUpperCase(Locale.ROOT)))
+                    index++;
+                if (index >= size || !tokens.get(index).equals(","))
+                    break;
+                index++;
+            }
+        }
+        return tables;
+    }
+
+    private static boolean containsWord(@NonNull List<String> tokens, @NonNull String word) {
+        for (String token : tokens) {
+            if (token.equalsIgnoreCase(word))
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean isWordCharacter(char character) {
+        return Character.isLetterOrDigit(character) || character == '_' || character == '$';
+    }
+
+    private static boolean isWord(@NonNull String token) {
+        return !token.isEmpty() && isWordCharacter(token.charAt(0));
+    }
+
+    private static boolean isIdentifier(@NonNull String token) {
+        return isWord(token) || token.startsWith("`");
+    }
+
+    private static String identifier(@NonNull String token) {
+        return token.startsWith("`") ? token.substring(1) : token;
+    }
+
+    /**
+     * Skip over the quoted section starting at the given index
+     *
+     * @param sql the sql
+     * @param start the index of the opening quote
+     * @param quote the quote character
+     * @return the index of the closing quote
+     */
+    private static int skipQuoted(@NonNull String sql, int start, char quote) {
+        int length = sql.length();
+        for (int i = start + 1; i < length; i++) {
+            char character = sql.charAt(i);
+            // Backslashes escape the next character in string literals, but not in identifiers
+            if (character == '\\' && (quote != '`')) {
+                i++;
+                continue;
+            }
+            if (character == quote) {
+                // A doubled quote is an escaped quote
+                if (i + 1 < length && (sql.charAt(i + 1) == quote)) {
+                    i++;
+                    continue;
+                }
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Skip to the end of the line starting at the given index
+     *
+     * @param sql the sql
+     * @param start the index to start at
+     * @return the index of the line break
+     */
+    private static int skipLine(@NonNull String sql, int start) {
+        int end = sql.indexOf('\n', start);
+        return end == -1 ? sql.length() : end;
+    }
+}
@@ -0,0 +1,23 @@
+package me.braydon.database.impl.mysql.query;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * This class represents a handler that turns a {@link ResultSet} into a result
+ *
+ * @author Braydon
+ * @param <T> the result type
+ */
+@FunctionalInterface
+public interface ResultSetHandler<T> {
+    /**
+     * Handle the given {@link ResultSet}
+     *
+     * @param resultSet the result set to handle
+     * @return the result
+     * @throws SQLException if reading from the result set failed
+     * @apiNote The result set is closed once this method returns, so it shouldn't be kept
+     */
+    T handle(ResultSet resultSet) throws SQLException;
+}
@@ -0,0 +1,91 @@
+package me.braydon.database.impl.mysql.query;
+
+import lombok.NonNull;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class represents an {@link Iterator} that lazily maps the rows of a {@link ResultSet}.
+ * <p>
+ * The result set, along with the given resources, are closed once the last row has
+ * been read, or when the iterator is closed - whichever happens first.
+ *
+ * @author Braydon
+ * @param <T> the type of object rows are mapped to
+ */
+public class ResultSetIterator<T> implements Iterator<T>, AutoCloseable {
+    private final ResultSet resultSet;
+    private final RowMapper<T> mapper;
+    private RowMapper<T> boundMapper;
+    private final AutoCloseable[] resources;
+    private boolean advanced, hasNext, closed;
+
+    /**
+     * @param resultSet the result set to iterate over
+     * @param mapper the {@link RowMapper} to map each row with
+     * @param resources the resources to close along with the result set, in the order they should be closed
+     */
+    public ResultSetIterator(@NonNull ResultSet resultSet, @NonNull RowMapper<T> mapper, @NonNull AutoCloseable... resources) {
+        this.resultSet = resultSet;
+        this.mapper = mapper;
+        this.resources = resources;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed)
+            return false;
+        if (!advanced) {
+            try {
+                hasNext = resultSet.next();
+            } catch (SQLException ex) {
+                close();
+                throw new UncheckedSQLException(ex);
+            }
+            advanced = true;
+            // Release the connection as soon as we've read the last row
+            if (!hasNext)
+                close();
+        }
+        return hasNext;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        advanced = false;
+        try {
+            if (boundMapper == null)
+                boundMapper = mapper.forResultSet(resultSet);
+            return boundMapper.map(resultSet);
+        } catch (SQLException ex) {
+            close();
+            throw new UncheckedSQLException(ex);
+        }
+    }
+
+    /**
+     * Close the result set along with the resources of this iterator
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        closeQuietly(resultSet);
+        for (AutoCloseable resource : resources)
+            closeQuietly(resource);
+    }
+
+    private void closeQuietly(@NonNull AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+    }
+}
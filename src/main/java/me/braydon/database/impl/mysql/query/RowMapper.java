@@ -0,0 +1,65 @@
+package me.braydon.database.impl.mysql.query;
+
+import lombok.NonNull;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class represents a mapper that turns the current row of a {@link ResultSet} into an object
+ *
+ * @author Braydon
+ * @param <T> the type of object rows are mapped to
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    /**
+     * Map the current row of the given {@link ResultSet}
+     *
+     * @param resultSet the result set, positioned at the row to map
+     * @return the mapped row
+     * @throws SQLException if reading from the result set failed
+     * @apiNote Implementations shouldn't move the cursor of the result set
+     */
+    T map(ResultSet resultSet) throws SQLException;
+
+    /**
+     * Get a mapper for the rows of the given {@link ResultSet}. This is called once before mapping
+     * the rows of a result set, so mappers can resolve anything they need from the metadata once
+     *
+     * @param resultSet the result set that rows will be mapped from
+     * @return the mapper to map the rows with
+     * @throws SQLException if reading from the result set failed
+     */
+    default RowMapper<T> forResultSet(ResultSet resultSet) throws SQLException {
+        return this;
+    }
+
+    /**
+     * Get a {@link ResultSetHandler} that maps every row of a {@link ResultSet} to a {@link List}
+     *
+     * @return the handler
+     */
+    default ResultSetHandler<List<T>> toList() {
+        return resultSet -> {
+            RowMapper<T> mapper = forResultSet(resultSet);
+            List<T> rows = new ArrayList<>();
+            while (resultSet.next())
+                rows.add(mapper.map(resultSet));
+            return rows;
+        };
+    }
+
+    /**
+     * Get the mapper that maps rows to the given class or record
+     *
+     * @param type the class to map rows to
+     * @return the mapper
+     * @see ClassRowMapper
+     */
+    static <T> RowMapper<T> of(@NonNull Class<T> type) {
+        return ClassRowMapper.of(type);
+    }
+}
@@ -0,0 +1,24 @@
+package me.braydon.database.impl.mysql.query;
+
+import lombok.NonNull;
+
+import java.sql.SQLException;
+
+/**
+ * This exception wraps an {@link SQLException} that was thrown somewhere checked
+ * exceptions can't be thrown, such as when iterating over a stream of rows
+ *
+ * @author Braydon
+ */
+public class UncheckedSQLException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedSQLException(@NonNull SQLException cause) {
+        super(cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
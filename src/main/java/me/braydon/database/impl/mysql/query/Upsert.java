@@ -0,0 +1,180 @@
+package me.braydon.database.impl.mysql.query;
+
+import lombok.Getter;
+import lombok.NonNull;
+import me.braydon.database.impl.mysql.MySQLRepository;
+import me.braydon.database.impl.mysql.data.Column;
+import me.braydon.database.impl.mysql.data.Table;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class represents a multi-row upsert for a {@link Table}, executed using the {@link MySQLRepository}.
+ * <p>
+ * An "INSERT ... VALUES (...), (...) ON DUPLICATE KEY UPDATE" query is generated for the amount of
+ * rows being written, updating every column that isn't a primary key by default. Generated queries
+ * are cached by the amount of rows, so writing chunks of the same size only builds the query once.
+ *
+ * @author Braydon
+ * @see MySQLRepository#executeUpsert(Upsert, List)
+ */
+public final class Upsert {
+    /**
+     * The maximum amount of placeholders the server allows in a single prepared statement
+     */
+    private static final int MAX_PLACEHOLDERS = 65535;
+
+    /**
+     * The maximum amount of row counts to cache the query for, once the cache is full
+     * queries for other row counts will be generated each time they're requested
+     */
+    private static final int MAX_CACHED_QUERIES = 64;
+
+    @Getter private final Table table;
+    private final String prefix, suffix, row;
+    private final Map<Integer, PreparedQuery> queries = new ConcurrentHashMap<>();
+
+    private Upsert(@NonNull Table table, @NonNull Collection<String> updateColumns) {
+        Column<?>[] columns = table.getColumns();
+        if (columns == null || (columns.length < 1))
+            throw new IllegalArgumentException("Table \"" + table.getName() + "\" has no columns to upsert");
+        this.table = table;
+
+        StringJoiner names = new StringJoiner(", ", "INSERT INTO `" + table.getName() + "` (", ") VALUES ");
+        StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+        for (Column<?> column : columns) {
+            names.add("`" + column.getName() + "`");
+            placeholders.add("?");
+        }
+        prefix = names.toString();
+        row = placeholders.toString();
+
+        StringJoiner updates = new StringJoiner(", ", " ON DUPLICATE KEY UPDATE ", "");
+        for (String updateColumn : updateColumns) {
+            Column<?> column = table.getColumn(updateColumn);
+            if (column == null)
+                throw new IllegalArgumentException("Table \"" + table.getName() + "\" has no column named \"" + updateColumn + "\"");
+            updates.add("`" + column.getName() + "` = VALUES(`" + column.getName() + "`)");
+        }
+        // With nothing to update the duplicate row is left as is, without ignoring other errors like INSERT IGNORE would
+        if (updateColumns.isEmpty())
+            updates.add("`" + columns[0].getName() + "` = `" + columns[0].getName() + "`");
+        suffix = updates.toString();
+    }
+
+    /**
+     * Create an upsert for the given table that updates every column that isn't a primary key
+     *
+     * @param table the {@link Table} to upsert into
+     * @return the upsert
+     */
+    public static Upsert of(@NonNull Table table) {
+        Set<String> primaryKeys = new HashSet<>();
+        if (table.getPrimaryKeys() != null) {
+            for (String primaryKey : table.getPrimaryKeys())
+                primaryKeys.add(primaryKey.toLowerCase(Locale.ROOT));
+        }
+        List<String> updateColumns = new ArrayList<>();
+        for (Column<?> column : table.getColumns()) {
+            if (!primaryKeys.contains(column.getName().toLowerCase(Locale.ROOT)))
+                updateColumns.add(column.getName());
+        }
+        return new Upsert(table, updateColumns);
+    }
+
+    /**
+     * Create an upsert for the given table that only updates the given columns
+     *
+     * @param table the {@link Table} to upsert into
+     * @param updateColumns the names of the columns to update when a row already exists
+     * @return the upsert
+     */
+    public static Upsert of(@NonNull Table table, @NonNull String... updateColumns) {
+        return new Upsert(table, Arrays.asList(updateColumns));
+    }
+
+    /**
+     * Get the query for upserting the given amount of rows
+     *
+     * @param rows the amount of rows
+     * @return the query
+     */
+    public PreparedQuery getQuery(int rows) {
+        if (rows < 1 || (rows > getMaxRows()))
+            throw new IllegalArgumentException("Cannot upsert " + rows + " rows in a single query");
+        PreparedQuery query = queries.get(rows);
+        if (query == null) {
+            StringBuilder builder = new StringBuilder(prefix.length() + (row.length() + 2) * rows + suffix.length()).append(prefix);
+            for (int i = 0; i < rows; i++) {
+                if (i > 0)
+                    builder.append(", ");
+                builder.append(row);
+            }
+            // Compiled directly rather than with PreparedQuery#of so large queries don't fill its cache
+            query = PreparedQuery.compile(builder.append(suffix).toString());
+            if (queries.size() < MAX_CACHED_QUERIES) {
+                PreparedQuery existing = queries.putIfAbsent(rows, query);
+                if (existing != null)
+                    query = existing;
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Get the maximum amount of rows that can be upserted in a single query
+     *
+     * @return the maximum amount of rows
+     */
+    public int getMaxRows() {
+        return MAX_PLACEHOLDERS / table.getColumns().length;
+    }
+
+    /**
+     * Get the estimated size, in bytes, of the query without any rows
+     *
+     * @return the estimated size
+     */
+    public int getBaseSize() {
+        return prefix.length() + suffix.length();
+    }
+
+    /**
+     * Estimate the size, in bytes, the given row adds to the query once its values are sent.
+     * This errs on the larger side, assuming every character needs escaping or multiple bytes
+     *
+     * @param columns the {@link Column} array of the row
+     * @return the estimated size
+     */
+    public long estimateSize(@NonNull Column<?>[] columns) {
+        long size = 4L + columns.length * 2L;
+        for (Column<?> column : columns) {
+            Object value = column.getValue();
+            if (value == null)
+                size += 4L;
+            else if (value instanceof byte[])
+                size += ((byte[]) value).length * 2L + 10L;
+            else if (value instanceof CharSequence)
+                size += ((CharSequence) value).length() * 3L + 2L;
+            else size += 32L;
+        }
+        return size;
+    }
+
+    /**
+     * Validate the given row against the columns of the table
+     *
+     * @param columns the {@link Column} array of the row
+     * @throws IllegalArgumentException if the row doesn't match the columns of the table
+     */
+    public void validate(@NonNull Column<?>[] columns) {
+        Column<?>[] tableColumns = table.getColumns();
+        if (columns.length != tableColumns.length)
+            throw new IllegalArgumentException("Invalid amount of columns for upserting into table \"" + table.getName() + "\"");
+        for (int i = 0; i < columns.length; i++) {
+            if (!columns[i].getName().equalsIgnoreCase(tableColumns[i].getName()))
+                throw new IllegalArgumentException("Expected column \"" + tableColumns[i].getName() + "\" at index " + i + " but got \"" + columns[i].getName() + "\"");
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package me.braydon.database.impl.redis;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import me.braydon.database.IDatabase;
 import me.braydon.database.IRepositoryDatabase;
+import me.braydon.database.metrics.DatabaseMetrics;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPubSub;
@@ -13,7 +15,6 @@ import redis.clients.jedis.JedisPubSub;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * The implementation of {@link IDatabase} for Redis
@@ -25,9 +26,16 @@ public class RedisDatabase implements IDatabase<RedisProperties>, IRepositoryDat
     private static final Object LOCK = new Object();
     private static final ExecutorService EXECUTOR_SERVICE = Executors.newFixedThreadPool(4);
 
-    private RedisProperties properties;
+    private volatile RedisProperties properties;
     private final Set<RedisPool> pools = new HashSet<>();
+
+    /**
+     * The pools of each {@link RedisPoolType}, indexed by the ordinal of the type. This is
+     * replaced whenever a pool is added, so a pool can be picked without locking
+     */
+    @Getter(AccessLevel.NONE) private volatile RedisPool[][] poolsByType = groupPools(Collections.emptySet());
     private MessagingService messagingService;
+    private volatile DatabaseMetrics metrics = DatabaseMetrics.NOOP;
 
     /**
      * Connect to the database server with the given properties
@@ -45,7 +53,7 @@ public class RedisDatabase implements IDatabase<RedisProperties>, IRepositoryDat
             long started = System.currentTimeMillis();
             for (RedisPool redisPool : pools) {
                 redisPool.setDatabase(this);
-                redisPool.setJedisPool(new JedisPool(properties.getPoolConfig(), redisPool.getHost(), redisPool.getPort()));
+                redisPool.setJedisPool(redisPool.createJedisPool(properties));
             }
             messagingService = new MessagingService(this);
             if (properties.isDebugging())
@@ -69,6 +77,18 @@ public class RedisDatabase implements IDatabase<RedisProperties>, IRepositoryDat
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Set the {@link DatabaseMetrics} that operations on this database are recorded to
+     *
+     * @param metrics the metrics to record to
+     * @return the database instance
+     */
+    @Override
+    public RedisDatabase withMetrics(@NonNull DatabaseMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
     /**
      * Get a dummy connection of the repository for this database type
      *
@@ -109,6 +129,7 @@ public class RedisDatabase implements IDatabase<RedisProperties>, IRepositoryDat
     public RedisDatabase withPool(@NonNull String name, @NonNull String host, int port, String auth, RedisPoolType type) {
         synchronized (LOCK) {
             pools.add(new RedisPool(name, host, port, auth, type));
+            poolsByType = groupPools(pools);
             return this;
         }
     }
@@ -120,14 +141,14 @@ public class RedisDatabase implements IDatabase<RedisProperties>, IRepositoryDat
      * @return the pool
      */
     public RedisPool getPool(String name) {
-        synchronized (LOCK) {
+        for (RedisPool[] pools : poolsByType) {
             for (RedisPool redisPool : pools) {
                 if (redisPool.getName().equals(name)) {
                     return redisPool;
                 }
             }
-            return null;
         }
+        return null;
     }
 
     /**
@@ -137,37 +158,31 @@ public class RedisDatabase implements IDatabase<RedisProperties>, IRepositoryDat
      * @return the pool
      */
     public RedisPool getPool(boolean writable) {
-        synchronized (LOCK) {
-            return getPool(writable ? RedisPoolType.MASTER : RedisPoolType.SLAVE);
-        }
+        return getPool(writable ? RedisPoolType.MASTER : RedisPoolType.SLAVE);
     }
 
     /**
-     * Get a {@link RedisPool} with the given {@link RedisPoolType}
+     * Get a {@link RedisPool} with the given {@link RedisPoolType}, picked using the
+     * {@link RedisPoolStrategy} of the properties when there are several
      *
      * @param type the type of the pool
      * @return the pool
      */
     public RedisPool getPool(RedisPoolType type) {
-        synchronized (LOCK) {
-            // Fetch all of the RedisPool's with the same type
-            List<RedisPool> pools = new ArrayList<>();
-            for (RedisPool redisPool : this.pools) {
-                if (redisPool.getType() != type)
-                    continue;
-                pools.add(redisPool);
+        RedisPool[] pools = poolsByType[type.ordinal()];
+        RedisProperties properties = this.properties;
+        if (pools.length == 0) {
+            // If there are no available SLAVE pools, try and fetch a MASTER pool
+            if (type == RedisPoolType.SLAVE) {
+                if (properties != null && (properties.isDebugging()))
+                    log.debug("Cannot find an available pool type of " + type.name() + ", attempting to find a MASTER pool");
+                return getPool(RedisPoolType.MASTER);
             }
-            if (pools.isEmpty()) {
-                // If there are no available SLAVE pools, try and fetch a MASTER pool
-                if (type == RedisPoolType.SLAVE) {
-                    if (properties.isDebugging())
-                        log.debug("Cannot find an available pool type of " + type.name() + ", attempting to find a MASTER pool");
-                    return getPool(RedisPoolType.MASTER);
-                }
-                throw new IllegalStateException("Cannot find an available pool for the type " + type.name());
-            }
-            return pools.get(ThreadLocalRandom.current().nextInt(pools.size()));
+            throw new IllegalStateException("Cannot find an available pool for the type " + type.name());
         }
+        if (pools.length == 1)
+            return pools[0];
+        return (properties == null ? RedisPoolStrategy.RANDOM : properties.getPoolStrategy()).pick(pools);
     }
 
     /**
@@ -184,10 +199,28 @@ public class RedisDatabase implements IDatabase<RedisProperties>, IRepositoryDat
                 jedisPool.close();
             }
             pools.clear();
+            poolsByType = groupPools(pools);
             messagingService = null;
         }
     }
 
+    /**
+     * Group the given pools by their {@link RedisPoolType}
+     */
+    private static RedisPool[][] groupPools(@NonNull Set<RedisPool> pools) {
+        RedisPoolType[] types = RedisPoolType.values();
+        RedisPool[][] poolsByType = new RedisPool[types.length][];
+        for (RedisPoolType type : types) {
+            List<RedisPool> typePools = new ArrayList<>();
+            for (RedisPool redisPool : pools) {
+                if (redisPool.getType() == type)
+                    typePools.add(redisPool);
+            }
+            poolsByType[type.ordinal()] = typePools.toArray(new RedisPool[0]);
+        }
+        return poolsByType;
+    }
+
     @AllArgsConstructor @Getter
     public static class MessagingService {
         private static int MESSENGER_ID, DISPATCH_ID;
@@ -206,11 +239,13 @@ public class RedisDatabase implements IDatabase<RedisProperties>, IRepositoryDat
                     JedisPubSub jedisPubSub = new JedisPubSub() {
                         @Override
                         public void onMessage(String channel, String message) {
+                            redisDatabase.getMetrics().onBytes("redis.message", 0L, channel.length() + message.length());
                             messenger.onMessage(channel, message);
                         }
 
                         @Override
                         public void onPMessage(String pattern, String channel, String message) {
+                            redisDatabase.getMetrics().onBytes("redis.message", 0L, channel.length() + message.length());
                             if (messenger.usingPatterns())
                                 messenger.onPatternMessage(pattern, channel, message);
                         }
@@ -233,8 +268,15 @@ public class RedisDatabase implements IDatabase<RedisProperties>, IRepositoryDat
          */
         public void dispatch(String channel, String message) {
             EXECUTOR_SERVICE.execute(() -> {
+                DatabaseMetrics metrics = redisDatabase.getMetrics();
+                long started = System.nanoTime();
+                boolean success = false;
                 try (Jedis jedis = redisDatabase.getPool(RedisPoolType.SLAVE).getResource()) {
                     jedis.publish(channel, message);
+                    success = true;
+                } finally {
+                    metrics.onOperation("redis.publish", System.nanoTime() - started, success);
+                    metrics.onBytes("redis.publish", channel.length() + message.length(), 0L);
                 }
             });
         }
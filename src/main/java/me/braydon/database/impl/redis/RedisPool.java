@@ -2,18 +2,32 @@ package me.braydon.database.impl.redis;
 
 import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import me.braydon.database.metrics.DatabaseMetrics;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisClientConfig;
 import redis.clients.jedis.JedisPool;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Braydon
  */
 @RequiredArgsConstructor @Getter
 public class RedisPool {
+    private static final double LATENCY_WEIGHT = 0.2D;
+    private static final long LATENCY_HALF_LIFE = TimeUnit.SECONDS.toNanos(5L);
+    private static final long MAX_LATENCY_SAMPLE = TimeUnit.SECONDS.toNanos(1L);
+
     private final String name, host;
     private final int port;
     private final String auth;
@@ -21,6 +35,22 @@ public class RedisPool {
     @Setter(AccessLevel.PROTECTED) private RedisDatabase database;
     @Setter(AccessLevel.PROTECTED) private JedisPool jedisPool;
 
+    /**
+     * The amount of connections borrowed or waiting to be borrowed
+     */
+    @Getter(AccessLevel.NONE) private final AtomicInteger outstanding = new AtomicInteger();
+
+    /**
+     * The time each borrowed connection was borrowed at, this is only tracked when picking pools by latency
+     */
+    @Getter(AccessLevel.NONE) private Map<Jedis, Long> borrowedAt;
+
+    /**
+     * The moving average of how long connections are held for, in nanoseconds
+     */
+    @Getter(AccessLevel.NONE) private volatile double latency;
+    @Getter(AccessLevel.NONE) private volatile long latencyUpdated;
+
     /**
      * Get a resource ({@link Jedis}) from the {@link JedisPool}
      *
@@ -29,13 +59,84 @@ public class RedisPool {
     public Jedis getResource() {
         if (jedisPool == null || (jedisPool.isClosed()))
             throw new IllegalStateException("Cannot get a resource from the pool (" + (jedisPool == null ? "null" : "closed") + ")");
-        Jedis jedis = jedisPool.getResource();
-        if (auth != null)
-            jedis.auth(auth);
-        jedis.select(database.getProperties().getDatabase());
+        DatabaseMetrics metrics = database.getMetrics();
+        long started = System.nanoTime();
+        Jedis jedis;
+        try {
+            jedis = jedisPool.getResource();
+        } catch (RuntimeException ex) {
+            metrics.onOperation("redis.borrow", System.nanoTime() - started, false);
+            throw ex;
+        }
+        metrics.onBorrow(name, System.nanoTime() - started, jedisPool.getNumActive(), jedisPool.getNumIdle());
         return jedis;
     }
 
+    /**
+     * Get the amount of connections currently borrowed or waiting to be borrowed from this pool
+     *
+     * @return the outstanding borrows
+     */
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * Get the moving average of how long connections of this pool are held for, decayed by the time since it was
+     * last updated. This is only tracked when the {@link RedisPoolStrategy} is tracking latency, such as {@link RedisPoolStrategy#LATENCY_WEIGHTED}
+     *
+     * @return the average, in nanoseconds
+     */
+    public double getLatency() {
+        double latency = this.latency;
+        if (latency == 0D)
+            return 0D;
+        long idle = System.nanoTime() - latencyUpdated;
+        return idle <= 0L ? latency : latency * Math.pow(0.5D, (double) idle / LATENCY_HALF_LIFE);
+    }
+
+    /**
+     * Called when a connection has been borrowed from the pool
+     */
+    private void onBorrow(@NonNull Jedis jedis) {
+        if (borrowedAt != null)
+            borrowedAt.put(jedis, System.nanoTime());
+    }
+
+    /**
+     * Called when a borrowed connection is returned to the pool
+     */
+    private void onReturn(@NonNull Jedis jedis) {
+        outstanding.decrementAndGet();
+        Long borrowed = borrowedAt == null ? null : borrowedAt.remove(jedis);
+        if (borrowed == null)
+            return;
+        long now = System.nanoTime();
+        // Cap the samples, so connections held for a long time on purpose (such as subscriptions) don't skew the average
+        long sample = Math.min(now - borrowed, MAX_LATENCY_SAMPLE);
+        double latency = getLatency();
+        // Racing returns may lose an update, which is fine for an average
+        this.latency = latency == 0D ? sample : latency + LATENCY_WEIGHT * (sample - latency);
+        latencyUpdated = now;
+    }
+
+    /**
+     * Create the {@link JedisPool} for this pool. Each physical connection is authenticated and switched to
+     * the database of the properties once, when it's created, so borrowing a connection is only a checkout.
+     * If a borrower switches the database, the connection is switched back when it's next borrowed
+     *
+     * @param properties the properties to connect with
+     * @return the pool
+     */
+    protected JedisPool createJedisPool(@NonNull RedisProperties properties) {
+        JedisClientConfig clientConfig = DefaultJedisClientConfig.builder()
+                .password(auth)
+                .database(properties.getDatabase())
+                .build();
+        borrowedAt = properties.getPoolStrategy().isTrackingLatency() ? new ConcurrentHashMap<>() : null;
+        return new TrackedJedisPool(properties.getPoolConfig(), new HostAndPort(host, port), clientConfig);
+    }
+
     @Override
     public boolean equals(Object other) {
         if (this == other)
@@ -50,4 +151,49 @@ public class RedisPool {
     public int hashCode() {
         return Objects.hash(name, type);
     }
-}
\ No newline at end of file
+
+    /**
+     * A {@link JedisPool} that tells the pool when a connection is borrowed and returned, so it can track its outstanding borrows
+     */
+    private class TrackedJedisPool extends JedisPool {
+        private TrackedJedisPool(@NonNull GenericObjectPoolConfig<Jedis> poolConfig, @NonNull HostAndPort hostAndPort,
+                                 @NonNull JedisClientConfig clientConfig) {
+            super(poolConfig, hostAndPort, clientConfig);
+        }
+
+        @Override
+        public Jedis getResource() {
+            // Count the borrow while waiting for a connection too, so a pool that's out of connections isn't picked
+            outstanding.incrementAndGet();
+            Jedis jedis;
+            try {
+                jedis = super.getResource();
+            } catch (RuntimeException ex) {
+                outstanding.decrementAndGet();
+                throw ex;
+            }
+            onBorrow(jedis);
+            return jedis;
+        }
+
+        @Override
+        protected void returnResourceObject(Jedis jedis) {
+            // Count the return before the connection is back in the pool, as it can be borrowed again straight away
+            // and the new borrow's time would be taken instead
+            onReturn(jedis);
+            try {
+                super.returnResourceObject(jedis);
+            } catch (RuntimeException ex) {
+                // A failed return is retried as a broken return, which counts it again
+                outstanding.incrementAndGet();
+                throw ex;
+            }
+        }
+
+        @Override
+        protected void returnBrokenResourceObject(Jedis jedis) {
+            onReturn(jedis);
+            super.returnBrokenResourceObject(jedis);
+        }
+    }
+}
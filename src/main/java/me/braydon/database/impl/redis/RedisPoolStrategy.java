@@ -0,0 +1,101 @@
+package me.braydon.database.impl.redis;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A strategy used to pick the {@link RedisPool} of a {@link RedisPoolType} when there are several.
+ * The built-in strategies are the constants of this interface, and other strategies can be plugged in
+ * with {@link RedisProperties#withPoolStrategy(RedisPoolStrategy)}
+ *
+ * @author Braydon
+ */
+@FunctionalInterface
+public interface RedisPoolStrategy {
+    /**
+     * Pick a random pool
+     */
+    RedisPoolStrategy RANDOM = pools -> pools[ThreadLocalRandom.current().nextInt(pools.length)];
+
+    /**
+     * Pick each pool in turn. This is shared by every database it's used by, see {@link #roundRobin()}
+     */
+    RedisPoolStrategy ROUND_ROBIN = roundRobin();
+
+    /**
+     * Pick the pool with the least connections currently borrowed or waiting to be borrowed
+     */
+    RedisPoolStrategy LEAST_OUTSTANDING = pools -> {
+        // Start from a random pool, so ties are spread over the pools
+        int offset = ThreadLocalRandom.current().nextInt(pools.length);
+        RedisPool least = pools[offset];
+        for (int i = 1; i < pools.length; i++) {
+            RedisPool redisPool = pools[(offset + i) % pools.length];
+            if (redisPool.getOutstanding() < least.getOutstanding())
+                least = redisPool;
+        }
+        return least;
+    };
+
+    /**
+     * Pick the better of two random pools, scoring each by the moving average of how long its connections
+     * are held for times its outstanding borrows, so slower pools get less of the load. The average decays
+     * while a pool isn't used, so a pool that was slow is tried again after a while
+     */
+    RedisPoolStrategy LATENCY_WEIGHTED = new RedisPoolStrategy() {
+        @Override
+        public RedisPool pick(RedisPool[] pools) {
+            // Compare two random pools rather than taking the best, so every pool doesn't flock to the same one
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(pools.length);
+            int second = random.nextInt(pools.length - 1);
+            if (second >= first)
+                second++;
+            return cost(pools[first]) <= cost(pools[second]) ? pools[first] : pools[second];
+        }
+
+        @Override
+        public boolean isTrackingLatency() {
+            return true;
+        }
+
+        /**
+         * Get the cost of sending another operation to the given pool, the time it's expected to hold a connection for
+         * each operation that would be outstanding. A pool that hasn't been measured yet costs nothing, so it's tried
+         */
+        private double cost(RedisPool redisPool) {
+            return redisPool.getLatency() * (redisPool.getOutstanding() + 1);
+        }
+    };
+
+    /**
+     * Pick one of the given pools. This is called concurrently, by every thread getting a pool
+     *
+     * @param pools the pools to pick from, there are always at least 2 and they're all of the same {@link RedisPoolType}
+     * @return the picked pool
+     */
+    RedisPool pick(RedisPool[] pools);
+
+    /**
+     * Check whether the pools should track how long their connections are held for,
+     * which is needed for {@link RedisPool#getLatency()} but adds a little to every borrow
+     *
+     * @return whether latency is tracked
+     */
+    default boolean isTrackingLatency() {
+        return false;
+    }
+
+    /**
+     * Create a strategy that picks each pool in turn, with a turn of its own for each {@link RedisPoolType}.
+     * A database using its own instance isn't affected by the order other databases pick their pools in
+     *
+     * @return the strategy
+     */
+    static RedisPoolStrategy roundRobin() {
+        AtomicInteger[] nextPool = new AtomicInteger[RedisPoolType.values().length];
+        for (int i = 0; i < nextPool.length; i++)
+            nextPool[i] = new AtomicInteger();
+        return pools -> pools[Math.floorMod(nextPool[pools[0].getType().ordinal()].getAndIncrement(), pools.length)];
+    }
+}
@@ -16,6 +16,7 @@ public class RedisProperties extends AuthenticationProperties {
 
     private final int database;
     private final JedisPoolConfig poolConfig;
+    private RedisPoolStrategy poolStrategy = RedisPoolStrategy.RANDOM;
 
     public RedisProperties(int database) {
         super("", -1, null, null);
@@ -35,6 +36,17 @@ public class RedisProperties extends AuthenticationProperties {
         this.poolConfig = poolConfig;
     }
 
+    /**
+     * Set the {@link RedisPoolStrategy} used to pick the pool of a type when there are several
+     *
+     * @param poolStrategy the pool strategy
+     * @return the properties
+     */
+    public RedisProperties withPoolStrategy(@NonNull RedisPoolStrategy poolStrategy) {
+        this.poolStrategy = poolStrategy;
+        return this;
+    }
+
     @Override
     public RedisProperties withDebugging() {
         debugging = true;
@@ -0,0 +1,49 @@
+package me.braydon.database.metrics;
+
+import me.braydon.database.IDatabase;
+
+/**
+ * This class represents a listener that operations on an {@link IDatabase} are recorded to.
+ * <p>
+ * The methods are called on the thread executing the operation, so implementations should
+ * be thread safe and return quickly. Every method does nothing by default, so implementations
+ * only need to override what they record.
+ *
+ * @author Braydon
+ * @see IDatabase#withMetrics(DatabaseMetrics)
+ * @see DefaultDatabaseMetrics
+ */
+public interface DatabaseMetrics {
+    /**
+     * The metrics that record nothing, this is used when no metrics have been set
+     */
+    DatabaseMetrics NOOP = new DatabaseMetrics() {};
+
+    /**
+     * Called once an operation has completed
+     *
+     * @param operation the name of the operation, such as "mysql.query"
+     * @param nanos the time, in nanoseconds, the operation took
+     * @param success whether the operation completed without an error
+     */
+    default void onOperation(String operation, long nanos, boolean success) {}
+
+    /**
+     * Called once a connection has been borrowed from a pool
+     *
+     * @param pool the name of the pool
+     * @param nanos the time, in nanoseconds, spent waiting for the connection
+     * @param active the amount of connections of the pool in use, after borrowing
+     * @param idle the amount of idle connections of the pool, after borrowing
+     */
+    default void onBorrow(String pool, long nanos, int active, int idle) {}
+
+    /**
+     * Called with the approximate amount of bytes transferred by an operation
+     *
+     * @param operation the name of the operation
+     * @param sent the amount of bytes sent to the server
+     * @param received the amount of bytes received from the server
+     */
+    default void onBytes(String operation, long sent, long received) {}
+}
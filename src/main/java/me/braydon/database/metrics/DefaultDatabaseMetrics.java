@@ -0,0 +1,128 @@
+package me.braydon.database.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The default implementation of {@link DatabaseMetrics}, this keeps a {@link LatencyHistogram}
+ * and lock-free counters for each operation and pool so it can be left enabled in production
+ *
+ * @author Braydon
+ */
+public class DefaultDatabaseMetrics implements DatabaseMetrics {
+    private final ConcurrentMap<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, PoolStats> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public void onOperation(String operation, long nanos, boolean success) {
+        OperationStats stats = getOperation(operation);
+        stats.latency.record(nanos);
+        if (!success)
+            stats.errors.increment();
+    }
+
+    @Override
+    public void onBorrow(String pool, long nanos, int active, int idle) {
+        PoolStats stats = getPool(pool);
+        stats.borrowWait.record(nanos);
+        stats.active = active;
+        stats.idle = idle;
+    }
+
+    @Override
+    public void onBytes(String operation, long sent, long received) {
+        OperationStats stats = getOperation(operation);
+        if (sent > 0L)
+            stats.bytesSent.add(sent);
+        if (received > 0L)
+            stats.bytesReceived.add(received);
+    }
+
+    /**
+     * Get the stats of the given operation
+     *
+     * @param operation the name of the operation
+     * @return the stats
+     */
+    public OperationStats getOperation(@NonNull String operation) {
+        OperationStats stats = operations.get(operation);
+        return stats == null ? operations.computeIfAbsent(operation, name -> new OperationStats()) : stats;
+    }
+
+    /**
+     * Get the stats of the given pool
+     *
+     * @param pool the name of the pool
+     * @return the stats
+     */
+    public PoolStats getPool(@NonNull String pool) {
+        PoolStats stats = pools.get(pool);
+        return stats == null ? pools.computeIfAbsent(pool, name -> new PoolStats()) : stats;
+    }
+
+    /**
+     * Get the stats of every operation that has been recorded
+     *
+     * @return the operation stats, keyed by the operation name
+     */
+    public Map<String, OperationStats> getOperations() {
+        return Collections.unmodifiableMap(operations);
+    }
+
+    /**
+     * Get the stats of every pool that has been recorded
+     *
+     * @return the pool stats, keyed by the pool name
+     */
+    public Map<String, PoolStats> getPools() {
+        return Collections.unmodifiableMap(pools);
+    }
+
+    /**
+     * This class represents the stats of an operation
+     */
+    @Getter
+    public static class OperationStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        @Getter(AccessLevel.NONE) private final LongAdder errors = new LongAdder();
+        @Getter(AccessLevel.NONE) private final LongAdder bytesSent = new LongAdder();
+        @Getter(AccessLevel.NONE) private final LongAdder bytesReceived = new LongAdder();
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getBytesSent() {
+            return bytesSent.sum();
+        }
+
+        public long getBytesReceived() {
+            return bytesReceived.sum();
+        }
+    }
+
+    /**
+     * This class represents the stats of a connection pool
+     */
+    @Getter
+    public static class PoolStats {
+        private final LatencyHistogram borrowWait = new LatencyHistogram();
+
+        /**
+         * The amount of connections in use, as of the last borrow
+         */
+        private volatile int active;
+
+        /**
+         * The amount of idle connections, as of the last borrow
+         */
+        private volatile int idle;
+    }
+}
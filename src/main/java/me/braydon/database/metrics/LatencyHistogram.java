@@ -0,0 +1,115 @@
+package me.braydon.database.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class represents a lock-free histogram of latencies.
+ * <p>
+ * Values are counted in log-linear buckets, each power of two is split into {@link #SUB_BUCKETS}
+ * buckets, so percentiles are accurate to within 12.5% of the value while using a fixed amount
+ * of memory. Recording a value is a single atomic increment.
+ *
+ * @author Braydon
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray((Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record the given value
+     *
+     * @param nanos the value, in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0L)
+            nanos = 0L;
+        buckets.incrementAndGet(bucket(nanos));
+        count.increment();
+        sum.add(nanos);
+        if (nanos > max.get())
+            max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Get the amount of recorded values
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Get the mean of the recorded values
+     *
+     * @return the mean, in nanoseconds
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0L ? 0D : (double) sum.sum() / count;
+    }
+
+    /**
+     * Get the highest recorded value
+     *
+     * @return the max, in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Get the value at the given percentile
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the upper bound of the bucket the percentile falls in, in nanoseconds
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0D || (percentile > 100D))
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        long[] counts = new long[buckets.length()];
+        long total = 0L;
+        for (int i = 0; i < counts.length; i++)
+            total += counts[i] = buckets.get(i);
+        if (total == 0L)
+            return 0L;
+        long target = Math.max(1L, (long) Math.ceil(total * percentile / 100D));
+        long seen = 0L;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target)
+                return Math.min(upperBound(i), getMax());
+        }
+        return getMax();
+    }
+
+    /**
+     * Get the bucket the given value is counted in
+     */
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Get the highest value counted in the given bucket
+     */
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        long lower = (1L << exponent) | (subBucket << (exponent - SUB_BUCKET_BITS));
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1L;
+    }
+}
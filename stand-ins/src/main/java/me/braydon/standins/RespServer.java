@@ -0,0 +1,238 @@
+package me.braydon.standins;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A minimal in-process server speaking the Redis protocol (RESP), so the Redis benchmarks and examples run without a Redis server.
+ * <p>
+ * It supports the commands the library and the benchmarks use: PING, AUTH, SELECT, GET, SET, DEL, PUBLISH and QUIT.
+ * Every password is accepted and there is a single keyspace for every database. Each command is counted, so
+ * benchmarks can check how many round trips an operation took.
+ *
+ * @author Braydon
+ */
+public class RespServer implements Closeable {
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+    private static final byte[] OK = "+OK\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PONG = "+PONG\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NIL = "$-1\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final ServerSocket serverSocket;
+    private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> commands = new ConcurrentHashMap<>();
+
+    /**
+     * The time, in nanoseconds, each reply is delayed by to simulate the round trip to a remote server
+     */
+    private final long latency;
+
+    /**
+     * The port the server is listening on
+     */
+    @Getter private final int port;
+
+    /**
+     * Start a server listening on a free port of the loopback address
+     *
+     * @throws IOException if the server failed to listen
+     */
+    public RespServer() throws IOException {
+        this(0L);
+    }
+
+    /**
+     * Start a server listening on a free port of the loopback address, delaying each reply by the given
+     * latency so the cost of a round trip to a remote server shows up in the benchmarks
+     *
+     * @param latency the time, in microseconds, to delay each reply by
+     * @throws IOException if the server failed to listen
+     */
+    public RespServer(long latency) throws IOException {
+        if (latency < 0L)
+            throw new IllegalArgumentException("Latency cannot be negative");
+        this.latency = TimeUnit.MICROSECONDS.toNanos(latency);
+        serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        port = serverSocket.getLocalPort();
+        start(this::accept, "RESP Server - " + THREAD_ID.incrementAndGet());
+    }
+
+    /**
+     * Get the amount of times the given command has been executed
+     *
+     * @param command the name of the command
+     * @return the amount of executions
+     */
+    public long getCount(@NonNull String command) {
+        LongAdder count = commands.get(command.toUpperCase());
+        return count == null ? 0L : count.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                start(() -> handle(socket), "RESP Client - " + THREAD_ID.incrementAndGet());
+            } catch (IOException ex) {
+                if (!serverSocket.isClosed())
+                    ex.printStackTrace();
+            }
+        }
+    }
+
+    private void handle(@NonNull Socket socket) {
+        try (Socket client = socket;
+             InputStream in = new BufferedInputStream(client.getInputStream());
+             OutputStream out = new BufferedOutputStream(client.getOutputStream())) {
+            while (!serverSocket.isClosed()) {
+                byte[][] command = readCommand(in);
+                if (command == null)
+                    return;
+                String name = new String(command[0], StandardCharsets.US_ASCII).toUpperCase();
+                commands.computeIfAbsent(name, key -> new LongAdder()).increment();
+                if (latency > 0L)
+                    LockSupport.parkNanos(latency);
+                boolean quit = execute(name, command, out);
+                // Only flush once every pipelined command has been answered
+                if (quit || (in.available() == 0))
+                    out.flush();
+                if (quit)
+                    return;
+            }
+        } catch (SocketException ignored) {
+            // The client disconnected
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Execute the given command and write its reply
+     *
+     * @return whether the connection should be closed
+     */
+    private boolean execute(@NonNull String name, byte[][] command, @NonNull OutputStream out) throws IOException {
+        switch (name) {
+            case "PING":
+                out.write(PONG);
+                break;
+            case "AUTH":
+            case "SELECT":
+                out.write(OK);
+                break;
+            case "GET":
+                writeBulk(out, values.get(key(command, 1)));
+                break;
+            case "SET":
+                values.put(key(command, 1), command[2]);
+                out.write(OK);
+                break;
+            case "DEL":
+                int removed = 0;
+                for (int i = 1; i < command.length; i++) {
+                    if (values.remove(key(command, i)) != null)
+                        removed++;
+                }
+                writeInteger(out, removed);
+                break;
+            case "PUBLISH":
+                writeInteger(out, 0L);
+                break;
+            case "QUIT":
+                out.write(OK);
+                return true;
+            default:
+                out.write(("-ERR unknown command '" + name + "'\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return false;
+    }
+
+    /**
+     * Read a command sent as an array of bulk strings
+     *
+     * @return the arguments of the command, null if the client disconnected
+     */
+    private static byte[][] readCommand(@NonNull InputStream in) throws IOException {
+        int marker = in.read();
+        if (marker == -1)
+            return null;
+        if (marker != '*')
+            throw new IOException("Expected an array, got '" + (char) marker + "'");
+        byte[][] arguments = new byte[(int) readNumber(in)][];
+        for (int i = 0; i < arguments.length; i++) {
+            if (in.read() != '$')
+                throw new IOException("Expected a bulk string");
+            byte[] argument = new byte[(int) readNumber(in)];
+            int read = 0;
+            while (read < argument.length) {
+                int count = in.read(argument, read, argument.length - read);
+                if (count == -1)
+                    throw new EOFException();
+                read += count;
+            }
+            in.read();
+            in.read();
+            arguments[i] = argument;
+        }
+        return arguments;
+    }
+
+    private static long readNumber(@NonNull InputStream in) throws IOException {
+        long number = 0L;
+        boolean negative = false;
+        int next;
+        while ((next = in.read()) != '\r') {
+            if (next == -1)
+                throw new EOFException();
+            if (next == '-')
+                negative = true;
+            else number = number * 10L + (next - '0');
+        }
+        in.read();
+        return negative ? -number : number;
+    }
+
+    private static String key(byte[][] command, int index) {
+        return new String(command[index], StandardCharsets.UTF_8);
+    }
+
+    private static void writeBulk(@NonNull OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write(NIL);
+            return;
+        }
+        out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(value);
+        out.write('\r');
+        out.write('\n');
+    }
+
+    private static void writeInteger(@NonNull OutputStream out, long value) throws IOException {
+        out.write((":" + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void start(@NonNull Runnable runnable, @NonNull String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
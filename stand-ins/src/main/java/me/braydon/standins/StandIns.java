@@ -0,0 +1,65 @@
+package me.braydon.standins;
+
+import com.zaxxer.hikari.HikariConfig;
+import lombok.NonNull;
+import me.braydon.database.impl.mysql.MySQLDatabase;
+import me.braydon.database.impl.mysql.MySQLProperties;
+import me.braydon.database.impl.redis.RedisDatabase;
+import me.braydon.database.impl.redis.RedisPoolStrategy;
+import me.braydon.database.impl.redis.RedisPoolType;
+import me.braydon.database.impl.redis.RedisProperties;
+
+import java.util.HashMap;
+
+/**
+ * Connects the databases of the library to in-process stand-ins, so the benchmarks and examples don't need any servers
+ *
+ * @author Braydon
+ */
+public final class StandIns {
+    private StandIns() {}
+
+    /**
+     * Connect to an in-memory H2 database running in MySQL mode
+     *
+     * @param name the name of the in-memory database, databases with the same name share their tables
+     * @param poolSize the amount of connections in the pool
+     * @return the connected database
+     */
+    public static MySQLDatabase mysql(@NonNull String name, int poolSize) {
+        HikariConfig poolConfig = new HikariConfig();
+        poolConfig.setDriverClassName("org.h2.Driver");
+        // The default driver properties are for Connector/J, which H2 doesn't accept
+        MySQLDatabase database = new MySQLDatabase(new HashMap<>());
+        database.connect(new MySQLProperties("127.0.0.1", MySQLProperties.DEFAULT_PORT, "sa", "", name, poolConfig)
+                .withPoolSize(poolSize, poolSize), "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", null);
+        return database;
+    }
+
+    /**
+     * Connect to the given RESP server with one master pool and the given amount of slave pools
+     *
+     * @param server the server to connect to
+     * @param slaves the amount of slave pools
+     * @return the connected database
+     */
+    public static RedisDatabase redis(@NonNull RespServer server, int slaves) {
+        return redis(server, slaves, RedisPoolStrategy.RANDOM);
+    }
+
+    /**
+     * Connect to the given RESP server with one master pool and the given amount of slave pools
+     *
+     * @param server the server to connect to
+     * @param slaves the amount of slave pools
+     * @param poolStrategy the {@link RedisPoolStrategy} to pick a slave pool with
+     * @return the connected database
+     */
+    public static RedisDatabase redis(@NonNull RespServer server, int slaves, @NonNull RedisPoolStrategy poolStrategy) {
+        RedisDatabase database = new RedisDatabase().withPool("master", "127.0.0.1", server.getPort(), "password", RedisPoolType.MASTER);
+        for (int i = 0; i < slaves; i++)
+            database.withPool("slave-" + i, "127.0.0.1", server.getPort(), "password", RedisPoolType.SLAVE);
+        database.connect(new RedisProperties(1).withPoolStrategy(poolStrategy));
+        return database;
+    }
+}